@@ -0,0 +1,155 @@
+package com.gym.crm.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.actuate.audit.AuditEventRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Audit event repository that keeps the request thread out of the storage path.
+ * {@link #add} only places the event in a lock-free ring buffer; a scheduled writer drains the
+ * buffer and appends the events to the {@link AuditEventStore} in batches. When the buffer is
+ * full the event is dropped and counted instead of blocking the caller. Queries first write
+ * out whatever is still buffered, so an event is visible as soon as {@link #add} has returned,
+ * and never reach further back than the retention window; older events are purged on schedule.
+ */
+@Component
+@Slf4j
+public class AsyncAuditEventRepository implements AuditEventRepository {
+
+    private static final String METRIC_PREFIX = "audit.events";
+
+    private final AuditEventStore store;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final Duration retention;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicLong overflowSinceFlush = new AtomicLong();
+
+    private final Counter writtenCounter;
+    private final Counter overflowCounter;
+    private final Counter writeFailedCounter;
+    private final Counter purgedCounter;
+    private final Timer flushTimer;
+
+    public AsyncAuditEventRepository(AuditEventStore store,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${audit.pipeline.capacity:8192}") int capacity,
+                                     @Value("${audit.pipeline.batch-size:500}") int batchSize,
+                                     @Value("${audit.retention.window:30d}") Duration retention) {
+        this.store = store;
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.retention = retention;
+
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting in the ring buffer")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.capacity", buffer, AuditRingBuffer::capacity)
+                .description("Capacity of the audit ring buffer")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder(METRIC_PREFIX + ".written")
+                .description("Audit events written to the audit store")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                .tag("reason", "overflow")
+                .description("Audit events dropped because the ring buffer was full")
+                .register(meterRegistry);
+        this.writeFailedCounter = Counter.builder(METRIC_PREFIX + ".dropped")
+                .tag("reason", "write_failed")
+                .description("Audit events dropped because the audit store rejected their batch")
+                .register(meterRegistry);
+        this.purgedCounter = Counter.builder(METRIC_PREFIX + ".purged")
+                .description("Audit events removed after the retention window")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Time spent writing buffered audit events to the audit store")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void add(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            overflowCounter.increment();
+            overflowSinceFlush.incrementAndGet();
+        }
+    }
+
+    @Override
+    public List<AuditEvent> find(String principal, Instant after, String type) {
+        flush();
+        Instant windowStart = Instant.now().minus(retention);
+        Instant from = after == null || after.isBefore(windowStart) ? windowStart : after;
+        return store.find(principal, from, type);
+    }
+
+    /**
+     * Writes everything buffered so far, one store batch per {@code batchSize} events.
+     */
+    @Scheduled(initialDelayString = "${audit.pipeline.flush-interval-ms:250}",
+               fixedDelayString = "${audit.pipeline.flush-interval-ms:250}")
+    public void flush() {
+        drainLock.lock();
+        try {
+            long dropped = overflowSinceFlush.getAndSet(0);
+            if (dropped > 0) {
+                log.warn("Audit buffer overflowed, {} events dropped since the last flush", dropped);
+            }
+            if (buffer.size() == 0) {
+                return;
+            }
+            flushTimer.record(() -> {
+                List<AuditEvent> batch = new ArrayList<>(Math.min(batchSize, buffer.capacity()));
+                while (buffer.drainTo(batch, batchSize) > 0) {
+                    write(batch);
+                    batch.clear();
+                }
+            });
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            store.append(batch);
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException ex) {
+            writeFailedCounter.increment(batch.size());
+            log.error("Failed to write {} audit events, dropping them", batch.size(), ex);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${audit.retention.purge-interval-ms:3600000}",
+               fixedDelayString = "${audit.retention.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int purged = store.deleteOlderThan(Instant.now().minus(retention));
+            purgedCounter.increment(purged);
+            if (purged > 0) {
+                log.info("Purged {} audit events older than {}", purged, retention);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Audit retention purge failed: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
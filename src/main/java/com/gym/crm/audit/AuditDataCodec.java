@@ -0,0 +1,53 @@
+package com.gym.crm.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON form of audit event data used by the audit stores, so that strings, numbers and
+ * booleans read back with their original types.
+ */
+@Slf4j
+final class AuditDataCodec {
+
+    private static final TypeReference<Map<String, Object>> DATA_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    AuditDataCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    String write(Map<String, Object> data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            // Keep the event rather than fail the whole batch on one odd value
+            Map<String, Object> printable = new LinkedHashMap<>();
+            data.forEach((key, value) -> printable.put(key, value == null ? null : String.valueOf(value)));
+            try {
+                return objectMapper.writeValueAsString(printable);
+            } catch (JsonProcessingException unexpected) {
+                throw new IllegalStateException("Unable to serialize audit event data", unexpected);
+            }
+        }
+    }
+
+    Map<String, Object> read(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, DATA_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable audit event data, returning it as raw text: {}", e.getOriginalMessage());
+            return Map.of("raw", json);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.gym.crm.audit;
+
+import org.springframework.boot.actuate.audit.AuditEvent;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Durable storage behind the asynchronous audit pipeline. Batches are appended by a single
+ * writer thread; queries may run concurrently with appends.
+ */
+public interface AuditEventStore {
+
+    void append(List<AuditEvent> events);
+
+    /**
+     * Events after {@code after} in the order they were appended; a {@code null} principal
+     * or type matches any value.
+     */
+    List<AuditEvent> find(String principal, Instant after, String type);
+
+    /**
+     * Removes events older than {@code cutoff} and returns how many were removed.
+     */
+    int deleteOlderThan(Instant cutoff);
+}
@@ -0,0 +1,93 @@
+package com.gym.crm.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer queue backed by a fixed array. Producers claim a
+ * slot with a single compare-and-set on the tail and never lock or wait: when the buffer is
+ * full {@link #offer} returns {@code false} and the caller decides what to do with the element.
+ * Each slot carries a sequence number telling whether it is free for the producer of a given
+ * position or filled for the consumer, so a slot is only read once it has been published.
+ * {@link #drainTo} must only be called by one thread at a time.
+ */
+final class AuditRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AuditRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30, was " + requestedCapacity);
+        }
+        this.capacity = Integer.highestOneBit(requestedCapacity) == requestedCapacity
+                ? requestedCapacity
+                : Integer.highestOneBit(requestedCapacity) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, element);
+                    // Publishes the element: the consumer reads the slot only after seeing this sequence
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds the element from one lap ago
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code limit} published elements, oldest first, into {@code sink}.
+     */
+    int drainTo(List<? super E> sink, int limit) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            sink.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    /**
+     * Elements claimed but not yet drained; approximate while producers are running.
+     */
+    int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head.get()));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gym.crm.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores audit events in the {@code audit_event} table. Each batch from the pipeline is one
+ * JDBC batch insert; event data is kept as a JSON object.
+ */
+public class JdbcAuditEventStore implements AuditEventStore {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_event (event_time, principal, event_type, event_data) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_SQL =
+            "SELECT event_time, principal, event_type, event_data FROM audit_event WHERE event_time > ?";
+    private static final String DELETE_SQL = "DELETE FROM audit_event WHERE event_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditDataCodec dataCodec;
+
+    public JdbcAuditEventStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataCodec = new AuditDataCodec(objectMapper);
+    }
+
+    @Override
+    public void append(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+            statement.setTimestamp(1, Timestamp.from(event.getTimestamp()));
+            statement.setString(2, event.getPrincipal());
+            statement.setString(3, event.getType());
+            statement.setString(4, dataCodec.write(event.getData()));
+        });
+    }
+
+    @Override
+    public List<AuditEvent> find(String principal, Instant after, String type) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>(3);
+        args.add(Timestamp.from(after != null ? after : Instant.EPOCH));
+        if (principal != null) {
+            sql.append(" AND principal = ?");
+            args.add(principal);
+        }
+        if (type != null) {
+            sql.append(" AND event_type = ?");
+            args.add(type);
+        }
+        sql.append(" ORDER BY id");
+        return jdbcTemplate.query(sql.toString(), this::mapEvent, args.toArray());
+    }
+
+    @Override
+    public int deleteOlderThan(Instant cutoff) {
+        return jdbcTemplate.update(DELETE_SQL, Timestamp.from(cutoff));
+    }
+
+    private AuditEvent mapEvent(ResultSet rs, int rowNum) throws SQLException {
+        return new AuditEvent(rs.getTimestamp("event_time").toInstant(), rs.getString("principal"),
+                rs.getString("event_type"), dataCodec.read(rs.getString("event_data")));
+    }
+}
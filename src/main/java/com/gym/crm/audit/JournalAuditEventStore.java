@@ -0,0 +1,223 @@
+package com.gym.crm.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.audit.JournalSegment.JournalRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.audit.AuditEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Stores audit events in an append-only journal of memory-mapped segment files in a local
+ * directory. Events are written as fixed-size binary records in append order and each batch
+ * is forced to disk before {@link #append} returns; a full segment is sealed and a new one is
+ * started. Queries by principal go through the per-segment principal index and time range
+ * scans skip segments and blocks that hold nothing newer than the requested instant, so
+ * neither reads the whole journal.
+ * <p>
+ * Retention drops sealed segments that only hold expired events and compacts a sealed segment
+ * once at least half of its events have expired, by copying the rest into a new file that
+ * replaces the old one. Appends and retention are exclusive; queries run concurrently with
+ * each other.
+ */
+@Slf4j
+public class JournalAuditEventStore implements AuditEventStore, Closeable {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final AuditDataCodec dataCodec;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private final byte[] record = new byte[JournalSegment.RECORD_SIZE];
+    private final LongAdder recordsScanned = new LongAdder();
+    private long nextSegmentNumber;
+
+    public JournalAuditEventStore(Path directory, int segmentRecords, ObjectMapper objectMapper) {
+        if (segmentRecords < 1) {
+            throw new IllegalArgumentException("segmentRecords must be positive, was " + segmentRecords);
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.dataCodec = new AuditDataCodec(objectMapper);
+        try {
+            openSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open audit journal " + directory, e);
+        }
+    }
+
+    @Override
+    public void append(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<String> data = events.stream().map(event -> dataCodec.write(event.getData())).toList();
+
+        lock.writeLock().lock();
+        try {
+            JournalSegment segment = activeSegment();
+            int firstUnforced = segment.count();
+            for (int i = 0; i < events.size(); i++) {
+                if (segment.isFull()) {
+                    segment.force(firstUnforced, segment.count());
+                    segment = rollSegment();
+                    firstUnforced = 0;
+                }
+                AuditEvent event = events.get(i);
+                if (!JournalSegment.encode(record, event.getTimestamp(), event.getPrincipal(), event.getType(), data.get(i))) {
+                    log.warn("Audit event data of {} for '{}' exceeds {} bytes and was not kept",
+                            event.getType(), event.getPrincipal(), JournalSegment.MAX_DATA_BYTES);
+                }
+                segment.append(record);
+            }
+            segment.force(firstUnforced, segment.count());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to append to audit journal " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<AuditEvent> find(String principal, Instant after, String type) {
+        String storedPrincipal = principal != null ? JournalSegment.storedPrincipal(principal) : null;
+        byte[] storedType = type != null ? JournalSegment.storedType(type) : null;
+        long afterNanos = after != null ? JournalSegment.toNanos(after) : Long.MIN_VALUE;
+
+        List<JournalRecord> records = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (JournalSegment segment : segments) {
+                recordsScanned.add(segment.find(storedPrincipal, afterNanos, storedType, records));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return records.stream()
+                .map(found -> new AuditEvent(found.timestamp(), found.principal(), found.type(),
+                        dataCodec.read(found.data())))
+                .toList();
+    }
+
+    @Override
+    public int deleteOlderThan(Instant cutoff) {
+        long cutoffNanos = JournalSegment.toNanos(cutoff);
+        int removed = 0;
+        lock.writeLock().lock();
+        try {
+            Iterator<JournalSegment> iterator = segments.iterator();
+            while (iterator.hasNext()) {
+                JournalSegment segment = iterator.next();
+                if (segment == segments.getLast() && !segment.isFull()) {
+                    // The active segment is left alone until it is sealed
+                    continue;
+                }
+                int expired = segment.countOlderThan(cutoffNanos);
+                if (expired == segment.count()) {
+                    segment.delete();
+                    iterator.remove();
+                    removed += expired;
+                } else if (expired * 2 >= segment.count()) {
+                    replace(segment, compact(segment, cutoffNanos));
+                    removed += expired;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to apply audit journal retention in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return removed;
+    }
+
+    /**
+     * Records read by all queries so far, which shows whether a query used the indexes.
+     */
+    long recordsScanned() {
+        return recordsScanned.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (JournalSegment segment : segments) {
+                segment.close();
+            }
+            segments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void openSegments() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACTING_SUFFIX)) {
+                    // Left over from an interrupted compaction; the original segment is still in place
+                    Files.deleteIfExists(file);
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long number = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    segments.add(JournalSegment.open(file, number));
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(JournalSegment::number));
+        nextSegmentNumber = segments.isEmpty() ? 0 : segments.getLast().number() + 1;
+        log.info("Audit journal {} opened with {} segments and {} events", directory, segments.size(),
+                segments.stream().mapToLong(JournalSegment::count).sum());
+    }
+
+    private JournalSegment activeSegment() throws IOException {
+        if (segments.isEmpty() || segments.getLast().isFull()) {
+            return rollSegment();
+        }
+        return segments.getLast();
+    }
+
+    private JournalSegment rollSegment() throws IOException {
+        JournalSegment segment = JournalSegment.create(
+                segmentFile(nextSegmentNumber, SEGMENT_SUFFIX), nextSegmentNumber, segmentRecords);
+        nextSegmentNumber++;
+        segments.add(segment);
+        log.debug("Audit journal rolled to {}", segment.file());
+        return segment;
+    }
+
+    private JournalSegment compact(JournalSegment segment, long cutoffNanos) throws IOException {
+        Path target = segmentFile(segment.number(), COMPACTING_SUFFIX);
+        Files.deleteIfExists(target);
+        JournalSegment compacted = segment.compactInto(target, cutoffNanos);
+        // The rename replaces the original atomically, so a crash leaves one of the two complete files
+        compacted.moveTo(segment.file());
+        return compacted;
+    }
+
+    private void replace(JournalSegment segment, JournalSegment compacted) throws IOException {
+        segments.set(segments.indexOf(segment), compacted);
+        segment.close();
+        log.debug("Audit journal compacted {} from {} to {} events", compacted.file(), segment.count(), compacted.count());
+    }
+
+    private Path segmentFile(long number, String suffix) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%020d", number) + suffix);
+    }
+}
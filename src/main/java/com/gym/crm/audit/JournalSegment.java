@@ -0,0 +1,330 @@
+package com.gym.crm.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * One memory-mapped file of the audit journal holding a fixed number of fixed-size records.
+ * A record is only counted if its magic number and checksum are intact, so a record torn by a
+ * crash ends the segment on recovery and is overwritten by the next append.
+ * <p>
+ * Two in-memory indexes are rebuilt from the file when it is opened: the latest timestamp of
+ * every block of {@value #BLOCK_SIZE} records, which lets time range scans skip whole blocks,
+ * and the record positions of every principal. Not thread-safe; the journal guards access.
+ */
+final class JournalSegment implements Closeable {
+
+    static final int RECORD_SIZE = 512;
+    static final int BLOCK_SIZE = 256;
+    static final int MAX_PRINCIPAL_BYTES = 128;
+    static final int MAX_TYPE_BYTES = 64;
+
+    private static final int MAGIC = 0x41554431;
+    private static final int CRC_OFFSET = 4;
+    private static final int SECONDS_OFFSET = 8;
+    private static final int NANOS_OFFSET = 16;
+    private static final int PRINCIPAL_OFFSET = 20;
+    private static final int TYPE_OFFSET = PRINCIPAL_OFFSET + 2 + MAX_PRINCIPAL_BYTES;
+    private static final int DATA_OFFSET = TYPE_OFFSET + 2 + MAX_TYPE_BYTES;
+    static final int MAX_DATA_BYTES = RECORD_SIZE - DATA_OFFSET - 2;
+    private static final byte[] TRUNCATED_DATA = "{\"truncated\":true}".getBytes(UTF_8);
+
+    private final long number;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long[] blockMaxNanos;
+    private final Map<String, IntList> positionsByPrincipal = new HashMap<>();
+    private Path file;
+    private int count;
+    private long minNanos = Long.MAX_VALUE;
+    private long maxNanos = Long.MIN_VALUE;
+
+    private JournalSegment(Path file, long number, FileChannel channel, int capacity) throws IOException {
+        this.file = file;
+        this.number = number;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+        this.blockMaxNanos = new long[(capacity + BLOCK_SIZE - 1) / BLOCK_SIZE];
+    }
+
+    static JournalSegment create(Path file, long number, int capacity) throws IOException {
+        return new JournalSegment(file, number, FileChannel.open(file, CREATE_NEW, READ, WRITE), capacity);
+    }
+
+    static JournalSegment open(Path file, long number) throws IOException {
+        FileChannel channel = FileChannel.open(file, READ, WRITE);
+        JournalSegment segment = new JournalSegment(file, number, channel, (int) (channel.size() / RECORD_SIZE));
+        segment.recover();
+        return segment;
+    }
+
+    /**
+     * Encodes an event into {@code record}; returns {@code false} if the data did not fit and
+     * was replaced by a truncation marker. Principal and type are cut at a character boundary.
+     */
+    static boolean encode(byte[] record, Instant timestamp, String principal, String type, String data) {
+        Arrays.fill(record, (byte) 0);
+        ByteBuffer target = ByteBuffer.wrap(record);
+        target.putInt(0, MAGIC);
+        target.putLong(SECONDS_OFFSET, timestamp.getEpochSecond());
+        target.putInt(NANOS_OFFSET, timestamp.getNano());
+        putBytes(target, PRINCIPAL_OFFSET, utf8(principal, MAX_PRINCIPAL_BYTES));
+        putBytes(target, TYPE_OFFSET, utf8(type, MAX_TYPE_BYTES));
+        byte[] dataBytes = data.getBytes(UTF_8);
+        boolean fits = dataBytes.length <= MAX_DATA_BYTES;
+        putBytes(target, DATA_OFFSET, fits ? dataBytes : TRUNCATED_DATA);
+        CRC32 crc = new CRC32();
+        crc.update(record, SECONDS_OFFSET, RECORD_SIZE - SECONDS_OFFSET);
+        target.putInt(CRC_OFFSET, (int) crc.getValue());
+        return fits;
+    }
+
+    /**
+     * The principal as it is stored and indexed.
+     */
+    static String storedPrincipal(String principal) {
+        return new String(utf8(principal, MAX_PRINCIPAL_BYTES), UTF_8);
+    }
+
+    static byte[] storedType(String type) {
+        return utf8(type, MAX_TYPE_BYTES);
+    }
+
+    static long toNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    void append(byte[] record) {
+        int position = count;
+        buffer.put(position * RECORD_SIZE, record);
+        ByteBuffer source = ByteBuffer.wrap(record);
+        index(position, timestampNanos(source, 0), readString(source, PRINCIPAL_OFFSET));
+        count++;
+    }
+
+    /**
+     * Writes records {@code [from, to)} through to the file.
+     */
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from * RECORD_SIZE, (to - from) * RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Adds the records newer than {@code afterNanos} that match the principal (already in its
+     * stored form) and type to {@code results}; {@code null} matches anything.
+     *
+     * @return number of records read to answer the query
+     */
+    int find(String principal, long afterNanos, byte[] type, List<JournalRecord> results) {
+        if (count == 0 || maxNanos <= afterNanos) {
+            return 0;
+        }
+        if (principal != null) {
+            IntList positions = positionsByPrincipal.get(principal);
+            if (positions == null) {
+                return 0;
+            }
+            for (int i = 0; i < positions.size; i++) {
+                collect(positions.values[i], afterNanos, type, results);
+            }
+            return positions.size;
+        }
+        int scanned = 0;
+        for (int block = 0; block * BLOCK_SIZE < count; block++) {
+            if (blockMaxNanos[block] <= afterNanos) {
+                continue;
+            }
+            int end = Math.min(count, (block + 1) * BLOCK_SIZE);
+            for (int position = block * BLOCK_SIZE; position < end; position++) {
+                collect(position, afterNanos, type, results);
+            }
+            scanned += end - block * BLOCK_SIZE;
+        }
+        return scanned;
+    }
+
+    int countOlderThan(long cutoffNanos) {
+        if (minNanos >= cutoffNanos) {
+            return 0;
+        }
+        if (maxNanos < cutoffNanos) {
+            return count;
+        }
+        int older = 0;
+        for (int position = 0; position < count; position++) {
+            if (timestampNanos(buffer, position * RECORD_SIZE) < cutoffNanos) {
+                older++;
+            }
+        }
+        return older;
+    }
+
+    /**
+     * Copies the records not older than {@code cutoffNanos} into a new segment file of exactly
+     * their size, keeping their order.
+     */
+    JournalSegment compactInto(Path target, long cutoffNanos) throws IOException {
+        JournalSegment compacted = create(target, number, count - countOlderThan(cutoffNanos));
+        byte[] record = new byte[RECORD_SIZE];
+        for (int position = 0; position < count; position++) {
+            int offset = position * RECORD_SIZE;
+            if (timestampNanos(buffer, offset) >= cutoffNanos) {
+                buffer.get(offset, record);
+                compacted.append(record);
+            }
+        }
+        compacted.force(0, compacted.count);
+        return compacted;
+    }
+
+    void moveTo(Path target) throws IOException {
+        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        file = target;
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            force(0, count);
+            channel.close();
+        }
+    }
+
+    long number() {
+        return number;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    long maxNanos() {
+        return maxNanos;
+    }
+
+    private void recover() {
+        while (count < capacity && isValid(count * RECORD_SIZE)) {
+            int offset = count * RECORD_SIZE;
+            index(count, timestampNanos(buffer, offset), readString(buffer, offset + PRINCIPAL_OFFSET));
+            count++;
+        }
+    }
+
+    private boolean isValid(int offset) {
+        if (buffer.getInt(offset) != MAGIC) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + SECONDS_OFFSET, RECORD_SIZE - SECONDS_OFFSET));
+        return buffer.getInt(offset + CRC_OFFSET) == (int) crc.getValue();
+    }
+
+    private void index(int position, long nanos, String principal) {
+        int block = position / BLOCK_SIZE;
+        blockMaxNanos[block] = position % BLOCK_SIZE == 0 ? nanos : Math.max(blockMaxNanos[block], nanos);
+        minNanos = Math.min(minNanos, nanos);
+        maxNanos = Math.max(maxNanos, nanos);
+        positionsByPrincipal.computeIfAbsent(principal, key -> new IntList()).add(position);
+    }
+
+    private void collect(int position, long afterNanos, byte[] type, List<JournalRecord> results) {
+        int offset = position * RECORD_SIZE;
+        if (timestampNanos(buffer, offset) > afterNanos && (type == null || typeMatches(offset, type))) {
+            results.add(new JournalRecord(
+                    Instant.ofEpochSecond(buffer.getLong(offset + SECONDS_OFFSET), buffer.getInt(offset + NANOS_OFFSET)),
+                    readString(buffer, offset + PRINCIPAL_OFFSET),
+                    readString(buffer, offset + TYPE_OFFSET),
+                    readString(buffer, offset + DATA_OFFSET)));
+        }
+    }
+
+    private boolean typeMatches(int offset, byte[] type) {
+        int typeOffset = offset + TYPE_OFFSET;
+        if (buffer.getShort(typeOffset) != type.length) {
+            return false;
+        }
+        for (int i = 0; i < type.length; i++) {
+            if (buffer.get(typeOffset + 2 + i) != type[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long timestampNanos(ByteBuffer source, int offset) {
+        return source.getLong(offset + SECONDS_OFFSET) * 1_000_000_000L + source.getInt(offset + NANOS_OFFSET);
+    }
+
+    private static String readString(ByteBuffer source, int offset) {
+        byte[] bytes = new byte[source.getShort(offset)];
+        source.get(offset + 2, bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer target, int offset, byte[] bytes) {
+        target.putShort(offset, (short) bytes.length);
+        target.put(offset + 2, bytes);
+    }
+
+    private static byte[] utf8(String value, int maxBytes) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(UTF_8);
+        if (bytes.length <= maxBytes) {
+            return bytes;
+        }
+        int end = maxBytes;
+        // Do not split a multi-byte character
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+
+    record JournalRecord(Instant timestamp, String principal, String type, String data) {
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.gym.crm.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.audit.AuditEventStore;
+import com.gym.crm.audit.JdbcAuditEventStore;
+import com.gym.crm.audit.JournalAuditEventStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * Selects the durable store behind the asynchronous audit event repository. JDBC keeps events
+ * in the {@code audit_event} table; JOURNAL keeps them in memory-mapped segment files on the
+ * local disk, indexed by principal and time.
+ */
+@Configuration
+@Slf4j
+public class AuditStorageConfig {
+
+    @Value("${audit.store:JDBC}")
+    private AuditStorage storage;
+
+    @Value("${audit.journal.path:data/audit-journal}")
+    private Path journalPath;
+
+    @Value("${audit.journal.segment-records:65536}")
+    private int segmentRecords;
+
+    @Bean
+    public AuditEventStore auditEventStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        log.info("Audit events use {} storage", storage);
+        if (storage == AuditStorage.JOURNAL) {
+            return new JournalAuditEventStore(journalPath, segmentRecords, objectMapper);
+        }
+        return new JdbcAuditEventStore(jdbcTemplate, objectMapper);
+    }
+
+    public enum AuditStorage {
+        JDBC,
+        JOURNAL
+    }
+}
@@ -0,0 +1,20 @@
+package com.gym.crm.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate side of the database metrics. Statistics, the slow query log and the connection
+ * pool meters are switched on in the properties; this registers the statement counter behind
+ * the per-request statement budget.
+ */
+@Configuration
+public class HibernateMetricsConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+}
@@ -1,35 +1,42 @@
 package com.gym.crm.config;
 
+import com.gym.crm.util.ContextPropagatingTaskDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.boot.actuate.audit.AuditEventRepository;
-import org.springframework.boot.actuate.audit.InMemoryAuditEventRepository;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.core.task.TaskDecorator;
 
 /**
  * Configuration class for enhanced logging and monitoring features
  */
 @Configuration
+@EnableConfigurationProperties(PerformanceMonitoringProperties.class)
 public class LoggingConfiguration {
 
     /**
-     * Configures audit event repository for security and operational auditing
+     * Registers performance monitoring filter
      */
     @Bean
-    public AuditEventRepository auditEventRepository() {
-        return new InMemoryAuditEventRepository(1000); // Keep last 1000 audit events
+    public FilterRegistrationBean<PerformanceLoggingFilter> performanceLoggingFilter(
+            MeterRegistry meterRegistry, PerformanceMonitoringProperties performanceProperties) {
+        FilterRegistrationBean<PerformanceLoggingFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new PerformanceLoggingFilter(meterRegistry, performanceProperties));
+        registrationBean.addUrlPatterns("/api/*");
+        // Wraps the security filter chain, so JWT authentication is part of the request timing
+        registrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registrationBean;
     }
 
     /**
-     * Registers performance monitoring filter
+     * Carries the transaction id and MDC into executor threads. Spring Boot applies it to the
+     * auto-configured task executor; application executors set it themselves.
      */
     @Bean
-    public FilterRegistrationBean<PerformanceLoggingFilter> performanceLoggingFilter() {
-        FilterRegistrationBean<PerformanceLoggingFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new PerformanceLoggingFilter());
-        registrationBean.addUrlPatterns("/api/*");
-        registrationBean.setOrder(2); // After transaction interceptor
-        return registrationBean;
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
     }
 }
 
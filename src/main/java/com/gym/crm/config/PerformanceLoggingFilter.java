@@ -1,72 +1,201 @@
 package com.gym.crm.config;
 
+import com.gym.crm.logging.LogFields;
+import com.gym.crm.util.RequestTiming;
+import com.gym.crm.util.RequestTiming.StageTotal;
 import com.gym.crm.util.TransactionContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Filter to log performance metrics for API requests
+ * Times API requests and records them in the {@value #METRIC_NAME} timer, tagged by route
+ * template, method, status and outcome, with SLO buckets and a percentile histogram. Route
+ * templates keep the tag cardinality bounded no matter how many usernames appear in paths.
+ * Logging is an optional sink on top: slow requests (per-route thresholds) and server errors
+ * are always logged, other requests only at the configured sample rate.
+ * <p>
+ * The filter also owns the {@link RequestTiming} recording of the request: each stage's total
+ * is recorded in the {@value #STAGE_METRIC_NAME} timer, tagged by route template and stage.
+ * The SQL statements of the request go to {@value #STATEMENTS_METRIC_NAME}; requests above the
+ * statement threshold are logged and counted in {@value #STATEMENTS_EXCEEDED_METRIC_NAME}.
  */
 @Slf4j
 public class PerformanceLoggingFilter implements Filter {
 
+    static final String METRIC_NAME = "gym.api.requests";
+    static final String STAGE_METRIC_NAME = "gym.api.request.stages";
+    static final String STATEMENTS_METRIC_NAME = "gym.api.request.statements";
+    static final String STATEMENTS_EXCEEDED_METRIC_NAME = "gym.api.request.statements.exceeded";
+
+    private final MeterRegistry meterRegistry;
+    private final PerformanceMonitoringProperties properties;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<StageKey, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> statementSummaries = new ConcurrentHashMap<>();
+    private final Map<String, Counter> statementsExceeded = new ConcurrentHashMap<>();
+
+    public PerformanceLoggingFilter(MeterRegistry meterRegistry, PerformanceMonitoringProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
-        
+
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
-        
-        String transactionId = TransactionContext.getTransactionId();
-        String method = httpRequest.getMethod();
-        String uri = httpRequest.getRequestURI();
-        String queryString = httpRequest.getQueryString();
-        
-        long startTime = System.currentTimeMillis();
-        
+
+        long startNanos = System.nanoTime();
+        long startStatements = SqlStatementCounter.current();
+        RequestTiming.begin();
+
         try {
             chain.doFilter(request, response);
         } finally {
-            long duration = System.currentTimeMillis() - startTime;
+            Map<String, StageTotal> stages = RequestTiming.end();
+            long durationNanos = System.nanoTime() - startNanos;
             int status = httpResponse.getStatus();
-            
-            // Log performance metrics
-            if (duration > 1000) { // Slow requests (>1s)
-                log.warn("SLOW_REQUEST [{}]: {} {} {} - Status: {}, Duration: {}ms", 
-                        transactionId, method, uri, 
-                        queryString != null ? "?" + queryString : "", 
-                        status, duration);
-            } else if (duration > 500) { // Moderate requests (>500ms)
-                log.info("MODERATE_REQUEST [{}]: {} {} {} - Status: {}, Duration: {}ms", 
-                        transactionId, method, uri, 
-                        queryString != null ? "?" + queryString : "", 
-                        status, duration);
-            } else {
-                log.debug("FAST_REQUEST [{}]: {} {} {} - Status: {}, Duration: {}ms", 
-                        transactionId, method, uri, 
-                        queryString != null ? "?" + queryString : "", 
-                        status, duration);
+            String route = route(httpRequest, status);
+
+            timers.computeIfAbsent(new TimerKey(route, httpRequest.getMethod(), status), this::timer)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+            stages.forEach((stage, total) -> stageTimers.computeIfAbsent(new StageKey(route, stage), this::stageTimer)
+                    .record(total.nanos(), TimeUnit.NANOSECONDS));
+            if (properties.isServerTiming() && !stages.isEmpty() && !httpResponse.isCommitted()) {
+                httpResponse.setHeader(ServerTimingResponseAdvice.SERVER_TIMING_HEADER, RequestTiming.toServerTiming(stages));
             }
-            
-            // Log error responses
-            if (status >= 400) {
-                if (status >= 500) {
-                    log.error("SERVER_ERROR [{}]: {} {} {} - Status: {}, Duration: {}ms", 
-                            transactionId, method, uri, 
-                            queryString != null ? "?" + queryString : "", 
-                            status, duration);
-                } else {
-                    log.warn("CLIENT_ERROR [{}]: {} {} {} - Status: {}, Duration: {}ms", 
-                            transactionId, method, uri, 
-                            queryString != null ? "?" + queryString : "", 
-                            status, duration);
-                }
+            recordStatements(httpRequest, route, SqlStatementCounter.current() - startStatements);
+
+            if (properties.getLog().isEnabled()) {
+                logRequest(httpRequest, httpResponse, route, status, durationNanos);
             }
         }
     }
+
+    private void recordStatements(HttpServletRequest request, String route, long statements) {
+        statementSummaries.computeIfAbsent(route, uri -> DistributionSummary.builder(STATEMENTS_METRIC_NAME)
+                        .description("SQL statements run per API request")
+                        .tag("uri", uri)
+                        .register(meterRegistry))
+                .record(statements);
+
+        if (statements > properties.getStatementThreshold()) {
+            statementsExceeded.computeIfAbsent(route, uri -> Counter.builder(STATEMENTS_EXCEEDED_METRIC_NAME)
+                            .description("API requests that ran more SQL statements than the threshold")
+                            .tag("uri", uri)
+                            .register(meterRegistry))
+                    .increment();
+            log.warn("STATEMENT_THRESHOLD_EXCEEDED [{}]: {} {} ({}) - Statements: {}, Threshold: {}",
+                    TransactionContext.getTransactionId(), request.getMethod(), request.getRequestURI(), route,
+                    statements, properties.getStatementThreshold());
+        }
+    }
+
+    private void logRequest(HttpServletRequest request, HttpServletResponse response, String route, int status,
+                            long durationNanos) {
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        Duration threshold = properties.slowThresholdFor(route);
+        // The transaction context has been cleared by the time the chain returns; the response header has not
+        String transactionId = response.getHeader(TransactionContext.HEADER);
+        boolean slow = durationNanos > threshold.toNanos();
+        if (!slow && status < 500 && ThreadLocalRandom.current().nextDouble() >= properties.getLog().getSampleRate()) {
+            return;
+        }
+
+        // Typed fields for the JSON log encoder; removed again so they do not leak into later lines
+        MDC.put(LogFields.ROUTE, route);
+        MDC.put(LogFields.STATUS, String.valueOf(status));
+        MDC.put(LogFields.DURATION_MS, String.valueOf(durationMillis));
+        try {
+            if (slow) {
+                log.warn("SLOW_REQUEST [{}]: {} {} ({}) - Status: {}, Duration: {}ms, Threshold: {}ms",
+                        transactionId, request.getMethod(), request.getRequestURI(), route, status,
+                        durationMillis, threshold.toMillis());
+            } else if (status >= 500) {
+                log.error("SERVER_ERROR [{}]: {} {} ({}) - Status: {}, Duration: {}ms",
+                        transactionId, request.getMethod(), request.getRequestURI(), route, status, durationMillis);
+            } else {
+                log.info("REQUEST [{}]: {} {} ({}) - Status: {}, Duration: {}ms",
+                        transactionId, request.getMethod(), request.getRequestURI(), route, status, durationMillis);
+            }
+        } finally {
+            MDC.remove(LogFields.ROUTE);
+            MDC.remove(LogFields.STATUS);
+            MDC.remove(LogFields.DURATION_MS);
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder(METRIC_NAME)
+                .description("API request latency")
+                .tag("uri", key.route())
+                .tag("method", key.method())
+                .tag("status", String.valueOf(key.status()))
+                .tag("outcome", outcome(key.status()))
+                .serviceLevelObjectives(properties.getSlo().toArray(Duration[]::new))
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry);
+    }
+
+    private Timer stageTimer(StageKey key) {
+        return Timer.builder(STAGE_METRIC_NAME)
+                .description("Time spent per request in one stage of its processing")
+                .tag("uri", key.route())
+                .tag("stage", key.stage())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Route template matched by Spring MVC; requests that never reached a handler are grouped
+     * the way Spring Boot groups them, so raw paths never become tag values.
+     */
+    private static String route(HttpServletRequest request, int status) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        if (status == 404) {
+            return "NOT_FOUND";
+        }
+        if (status >= 300 && status < 400) {
+            return "REDIRECTION";
+        }
+        return "UNKNOWN";
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        if (status >= 300) {
+            return "REDIRECTION";
+        }
+        return "SUCCESS";
+    }
+
+    private record TimerKey(String route, String method, int status) {
+    }
+
+    private record StageKey(String route, String stage) {
+    }
 }
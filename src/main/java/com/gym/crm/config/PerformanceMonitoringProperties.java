@@ -0,0 +1,72 @@
+package com.gym.crm.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings of the API request timing recorded by {@link PerformanceLoggingFilter}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gym.performance")
+public class PerformanceMonitoringProperties {
+
+    /**
+     * Service level objective boundaries published as histogram buckets.
+     */
+    private List<Duration> slo = new ArrayList<>(List.of(
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofSeconds(2)));
+
+    /**
+     * Whether to publish a percentile histogram, from which the monitoring backend computes percentiles.
+     */
+    private boolean percentileHistogram = true;
+
+    /**
+     * Requests taking longer than this count as slow, unless their route has its own threshold.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Slow thresholds per route template, e.g. {@code route-thresholds[/api/trainees/{username}]=2s}.
+     */
+    private Map<String, Duration> routeThresholds = new LinkedHashMap<>();
+
+    /**
+     * Whether the per-stage breakdown of a request is returned in a {@code Server-Timing} header.
+     * Off by default since it tells any client how the request was processed; the local and
+     * dev profiles turn it on.
+     */
+    private boolean serverTiming = false;
+
+    /**
+     * Requests running more SQL statements than this are logged and counted as likely N+1 query patterns.
+     */
+    private int statementThreshold = 20;
+
+    private final Log log = new Log();
+
+    public Duration slowThresholdFor(String route) {
+        return routeThresholds.getOrDefault(route, slowThreshold);
+    }
+
+    @Data
+    public static class Log {
+
+        /**
+         * Whether request timings are written to the log at all; metrics are always recorded.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Fraction of regular requests that are logged. Slow requests and server errors are always logged.
+         */
+        private double sampleRate = 0.01;
+    }
+}
@@ -0,0 +1,31 @@
+package com.gym.crm.config;
+
+import com.gym.crm.util.RequestTiming;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts every call of a Spring Data repository, JPA or Mongo, as the
+ * {@value RequestTiming#DB} stage of the current request. The advice is added in front of the
+ * proxy's own interceptors, so transaction handling and exception translation are included.
+ */
+@Component
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    private static final MethodInterceptor DB_STAGE = invocation -> {
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.DB)) {
+            return invocation.proceed();
+        }
+    };
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository<?, ?> && bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, DB_STAGE);
+        }
+        return bean;
+    }
+}
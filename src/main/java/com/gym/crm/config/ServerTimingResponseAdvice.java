@@ -0,0 +1,46 @@
+package com.gym.crm.config;
+
+import com.gym.crm.util.RequestTiming;
+import com.gym.crm.util.RequestTiming.StageTotal;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Map;
+
+/**
+ * Adds the stages recorded so far as a {@code Server-Timing} header just before a response
+ * body is written, which is the last moment headers can still be changed. Responses without a
+ * body get the header from {@link PerformanceLoggingFilter} instead.
+ */
+@ControllerAdvice
+public class ServerTimingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final PerformanceMonitoringProperties properties;
+
+    public ServerTimingResponseAdvice(PerformanceMonitoringProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isServerTiming();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Map<String, StageTotal> stages = RequestTiming.snapshot();
+        if (!stages.isEmpty()) {
+            response.getHeaders().set(SERVER_TIMING_HEADER, RequestTiming.toServerTiming(stages));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,23 @@
+package com.gym.crm.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on each thread. The count only ever grows, so
+ * scopes nest freely: a scope remembers {@link #current()} when it starts and subtracts it
+ * when it ends, the way {@link PerformanceLoggingFilter} does for a request.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> statementCount = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static long current() {
+        return statementCount.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statementCount.get()[0]++;
+        return sql;
+    }
+}
@@ -1,5 +1,6 @@
 package com.gym.crm.config;
 
+import com.gym.crm.logging.LogFields;
 import com.gym.crm.util.TransactionContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -14,11 +15,16 @@ public class TransactionInterceptor implements HandlerInterceptor {
     
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        String transactionId = TransactionContext.generateTransactionId();
+        // Adopt the caller's id so one transaction can be followed across services
+        String transactionId = TransactionContext.acceptInbound(request.getHeader(TransactionContext.HEADER));
+        if (transactionId == null) {
+            transactionId = TransactionContext.generateTransactionId();
+        }
         TransactionContext.setTransactionId(transactionId);
+        response.setHeader(TransactionContext.HEADER, transactionId);
         
         // Add transaction ID to MDC for logging
-        MDC.put("transactionId", transactionId);
+        MDC.put(LogFields.TRANSACTION_ID, transactionId);
         
         log.info("Transaction started [{}]: {} {}", transactionId, request.getMethod(), request.getRequestURI());
         
@@ -39,9 +45,9 @@ public class TransactionInterceptor implements HandlerInterceptor {
                         transactionId, request.getMethod(), request.getRequestURI(), response.getStatus());
             }
         } finally {
-            // Clean up
+            // Clean up only what was set here; other MDC keys belong to the filters around us
             TransactionContext.clear();
-            MDC.clear();
+            MDC.remove(LogFields.TRANSACTION_ID);
         }
     }
 }
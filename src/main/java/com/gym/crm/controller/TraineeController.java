@@ -7,6 +7,7 @@ import com.gym.crm.facade.GymCrmFacade;
 import com.gym.crm.model.Trainee;
 import com.gym.crm.model.Trainer;
 import com.gym.crm.model.Training;
+import com.gym.crm.util.RequestTiming;
 import com.gym.crm.util.TransactionContext;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -89,23 +90,26 @@ public class TraineeController {
         }
         
         Trainee trainee = traineeOpt.get();
-        List<TrainerSummaryDto> trainers = trainee.getTrainers().stream()
-                .map(trainer -> new TrainerSummaryDto(
-                        trainer.getUsername(),
-                        trainer.getFirstName(),
-                        trainer.getLastName(),
-                        trainer.getSpecialization().getTrainingTypeName()
-                ))
-                .collect(Collectors.toList());
+        TraineeProfileResponse response;
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.MAPPING)) {
+            List<TrainerSummaryDto> trainers = trainee.getTrainers().stream()
+                    .map(trainer -> new TrainerSummaryDto(
+                            trainer.getUsername(),
+                            trainer.getFirstName(),
+                            trainer.getLastName(),
+                            trainer.getSpecialization().getTrainingTypeName()
+                    ))
+                    .collect(Collectors.toList());
         
-        TraineeProfileResponse response = new TraineeProfileResponse(
-                trainee.getFirstName(),
-                trainee.getLastName(),
-                trainee.getDateOfBirth(),
-                trainee.getAddress(),
-                trainee.getIsActive(),
-                trainers
-        );
+            response = new TraineeProfileResponse(
+                    trainee.getFirstName(),
+                    trainee.getLastName(),
+                    trainee.getDateOfBirth(),
+                    trainee.getAddress(),
+                    trainee.getIsActive(),
+                    trainers
+            );
+        }
         
         log.info("Trainee profile retrieved [{}]: {}", transactionId, username);
         return ResponseEntity.ok(response);
@@ -205,16 +209,19 @@ public class TraineeController {
         List<Training> trainings = gymCrmFacade.getTraineeTrainingsList(
                 username, password, periodFrom, periodTo, trainerName, trainingType);
         
-        List<TrainingDto> response = trainings.stream()
-                .map(training -> new TrainingDto(
-                        training.getTrainingName(),
-                        training.getTrainingDate(),
-                        training.getTrainingType().getTrainingTypeName(),
-                        training.getTrainingDuration(),
-                        training.getTrainer().getFirstName() + " " + training.getTrainer().getLastName(),
-                        null // trainee name not needed for trainee's own trainings
-                ))
-                .collect(Collectors.toList());
+        List<TrainingDto> response;
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.MAPPING)) {
+            response = trainings.stream()
+                    .map(training -> new TrainingDto(
+                            training.getTrainingName(),
+                            training.getTrainingDate(),
+                            training.getTrainingType().getTrainingTypeName(),
+                            training.getTrainingDuration(),
+                            training.getTrainer().getFirstName() + " " + training.getTrainer().getLastName(),
+                            null // trainee name not needed for trainee's own trainings
+                    ))
+                    .collect(Collectors.toList());
+        }
         
         log.info("Retrieved {} trainings for trainee [{}]: {}", response.size(), transactionId, username);
         return ResponseEntity.ok(response);
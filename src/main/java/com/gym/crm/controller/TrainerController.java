@@ -8,6 +8,7 @@ import com.gym.crm.model.Trainee;
 import com.gym.crm.model.Trainer;
 import com.gym.crm.model.Training;
 import com.gym.crm.model.TrainingType;
+import com.gym.crm.util.RequestTiming;
 import com.gym.crm.util.TransactionContext;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -96,21 +97,24 @@ public class TrainerController {
         }
         
         Trainer trainer = trainerOpt.get();
-        List<TraineeSummaryDto> trainees = trainer.getTrainees().stream()
-                .map(trainee -> new TraineeSummaryDto(
-                        trainee.getUsername(),
-                        trainee.getFirstName(),
-                        trainee.getLastName()
-                ))
-                .collect(Collectors.toList());
+        TrainerProfileResponse response;
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.MAPPING)) {
+            List<TraineeSummaryDto> trainees = trainer.getTrainees().stream()
+                    .map(trainee -> new TraineeSummaryDto(
+                            trainee.getUsername(),
+                            trainee.getFirstName(),
+                            trainee.getLastName()
+                    ))
+                    .collect(Collectors.toList());
         
-        TrainerProfileResponse response = new TrainerProfileResponse(
-                trainer.getFirstName(),
-                trainer.getLastName(),
-                trainer.getSpecialization().getTrainingTypeName(),
-                trainer.getIsActive(),
-                trainees
-        );
+            response = new TrainerProfileResponse(
+                    trainer.getFirstName(),
+                    trainer.getLastName(),
+                    trainer.getSpecialization().getTrainingTypeName(),
+                    trainer.getIsActive(),
+                    trainees
+            );
+        }
         
         log.info("Trainer profile retrieved [{}]: {}", transactionId, username);
         return ResponseEntity.ok(response);
@@ -224,16 +228,19 @@ public class TrainerController {
         List<Training> trainings = gymCrmFacade.getTrainerTrainingsList(
                 username, password, periodFrom, periodTo, traineeName);
         
-        List<TrainingDto> response = trainings.stream()
-                .map(training -> new TrainingDto(
-                        training.getTrainingName(),
-                        training.getTrainingDate(),
-                        training.getTrainingType().getTrainingTypeName(),
-                        training.getTrainingDuration(),
-                        null, // trainer name not needed for trainer's own trainings
-                        training.getTrainee().getFirstName() + " " + training.getTrainee().getLastName()
-                ))
-                .collect(Collectors.toList());
+        List<TrainingDto> response;
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.MAPPING)) {
+            response = trainings.stream()
+                    .map(training -> new TrainingDto(
+                            training.getTrainingName(),
+                            training.getTrainingDate(),
+                            training.getTrainingType().getTrainingTypeName(),
+                            training.getTrainingDuration(),
+                            null, // trainer name not needed for trainer's own trainings
+                            training.getTrainee().getFirstName() + " " + training.getTrainee().getLastName()
+                    ))
+                    .collect(Collectors.toList());
+        }
         
         log.info("Retrieved {} trainings for trainer [{}]: {}", response.size(), transactionId, username);
         return ResponseEntity.ok(response);
@@ -0,0 +1,115 @@
+package com.gym.crm.controller;
+
+import com.gym.crm.dto.response.ErrorResponse;
+import com.gym.crm.dto.response.MonthlyWorkloadDto;
+import com.gym.crm.dto.response.TrainerWorkloadResponse;
+import com.gym.crm.exception.UserNotFoundException;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.service.TrainerSummaryQueryService;
+import com.gym.crm.util.RequestTiming;
+import com.gym.crm.util.TransactionContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/workload/trainers")
+@Tag(name = "Trainer Workload", description = "APIs for reading monthly training totals of trainers")
+@Slf4j
+public class TrainerWorkloadController {
+
+    private static final int MAX_TRAINERS_PER_REQUEST = 100;
+    private static final YearMonth EARLIEST = YearMonth.of(1900, 1);
+    private static final YearMonth LATEST = YearMonth.of(9999, 12);
+
+    @Autowired
+    private TrainerSummaryQueryService summaryQueryService;
+
+    @Operation(summary = "Get trainer workload", description = "Retrieves the monthly training totals of a trainer within an optional month range")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Workload retrieved successfully",
+                content = @Content(schema = @Schema(implementation = TrainerWorkloadResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid month range",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "No trainings of the trainer in the range",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{username}")
+    public ResponseEntity<TrainerWorkloadResponse> getTrainerWorkload(
+            @Parameter(description = "Trainer username") @PathVariable String username,
+            @Parameter(description = "First month, inclusive (yyyy-MM)") @RequestParam(required = false) String from,
+            @Parameter(description = "Last month, inclusive (yyyy-MM)") @RequestParam(required = false) String to) {
+
+        String transactionId = TransactionContext.getTransactionId();
+        log.info("Getting trainer workload [{}]: {} from={} to={}", transactionId, username, from, to);
+
+        TrainerTrainingSummary summary = summaryQueryService
+                .findMonthlyTotals(List.of(username), parseMonth(from, EARLIEST), parseMonth(to, LATEST))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new UserNotFoundException("No workload found for trainer: " + username));
+
+        return ResponseEntity.ok(RequestTiming.time(RequestTiming.MAPPING, () -> toResponse(summary)));
+    }
+
+    @Operation(summary = "Get workload of several trainers", description = "Retrieves the monthly training totals of several trainers within an optional month range")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Workload retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid month range or too many trainers",
+                content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping
+    public ResponseEntity<List<TrainerWorkloadResponse>> getTrainersWorkload(
+            @Parameter(description = "Trainer usernames, comma separated") @RequestParam List<String> usernames,
+            @Parameter(description = "First month, inclusive (yyyy-MM)") @RequestParam(required = false) String from,
+            @Parameter(description = "Last month, inclusive (yyyy-MM)") @RequestParam(required = false) String to) {
+
+        String transactionId = TransactionContext.getTransactionId();
+        log.info("Getting workload of {} trainers [{}] from={} to={}", usernames.size(), transactionId, from, to);
+
+        if (usernames.size() > MAX_TRAINERS_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_TRAINERS_PER_REQUEST + " trainers can be requested at once");
+        }
+
+        List<TrainerTrainingSummary> summaries = summaryQueryService
+                .findMonthlyTotals(usernames, parseMonth(from, EARLIEST), parseMonth(to, LATEST));
+        List<TrainerWorkloadResponse> response = RequestTiming.time(RequestTiming.MAPPING, () -> summaries.stream()
+                .map(TrainerWorkloadController::toResponse)
+                .toList());
+        return ResponseEntity.ok(response);
+    }
+
+    private static YearMonth parseMonth(String value, YearMonth defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid month '" + value + "', expected yyyy-MM");
+        }
+    }
+
+    private static TrainerWorkloadResponse toResponse(TrainerTrainingSummary summary) {
+        List<MonthlyWorkloadDto> months = summary.getYears().stream()
+                .flatMap(year -> year.getMonths().stream()
+                        .map(month -> new MonthlyWorkloadDto(year.getYear(), month.getMonth(), month.getTrainingsSummaryDuration())))
+                .sorted(Comparator.comparingInt(MonthlyWorkloadDto::getYear).thenComparingInt(MonthlyWorkloadDto::getMonth))
+                .toList();
+        return new TrainerWorkloadResponse(summary.getTrainerUsername(), summary.getTrainerFirstName(),
+                summary.getTrainerLastName(), summary.getTrainerStatus(), months);
+    }
+}
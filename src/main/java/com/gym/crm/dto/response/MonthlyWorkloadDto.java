@@ -0,0 +1,22 @@
+package com.gym.crm.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Training duration of a trainer in one month")
+public class MonthlyWorkloadDto {
+
+    @Schema(description = "Year", example = "2025")
+    private int year;
+
+    @Schema(description = "Month of the year", example = "5")
+    private int month;
+
+    @Schema(description = "Total training duration in minutes", example = "240")
+    private Integer trainingsSummaryDuration;
+}
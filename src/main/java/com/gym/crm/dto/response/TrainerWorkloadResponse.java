@@ -0,0 +1,30 @@
+package com.gym.crm.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Monthly training totals of a trainer")
+public class TrainerWorkloadResponse {
+
+    @Schema(description = "Trainer's username", example = "jane.smith")
+    private String username;
+
+    @Schema(description = "Trainer's first name", example = "Jane")
+    private String firstName;
+
+    @Schema(description = "Trainer's last name", example = "Smith")
+    private String lastName;
+
+    @Schema(description = "Whether the trainer is active", example = "true")
+    private Boolean isActive;
+
+    @Schema(description = "Months of the requested range with trainings, oldest first")
+    private List<MonthlyWorkloadDto> months;
+}
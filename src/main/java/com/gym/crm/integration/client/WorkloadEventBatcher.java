@@ -0,0 +1,96 @@
+package com.gym.crm.integration.client;
+
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces workload events per trainer and hands them over as one batch when either
+ * the batch reaches its maximum size or the oldest event has waited for the maximum delay.
+ * Events of one trainer are kept in the order they were added.
+ */
+@Slf4j
+public class WorkloadEventBatcher implements AutoCloseable {
+
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final Consumer<List<WorkloadRequestDto>> flushHandler;
+    private final ConcurrentHashMap<String, List<WorkloadRequestDto>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public WorkloadEventBatcher(int maxBatchSize, long maxDelayMillis, Consumer<List<WorkloadRequestDto>> flushHandler) {
+        if (maxBatchSize < 1 || maxDelayMillis < 1) {
+            throw new IllegalArgumentException("Batch size and delay must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMillis = maxDelayMillis;
+        this.flushHandler = flushHandler;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workload-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void add(WorkloadRequestDto event) {
+        List<List<WorkloadRequestDto>> full = new ArrayList<>(1);
+        pending.compute(event.getTrainerUsername(), (trainer, events) -> {
+            if (events == null) {
+                events = new ArrayList<>();
+                scheduler.schedule(() -> flush(trainer), maxDelayMillis, TimeUnit.MILLISECONDS);
+            }
+            events.add(event);
+            if (events.size() >= maxBatchSize) {
+                full.add(events);
+                return null;
+            }
+            return events;
+        });
+        if (!full.isEmpty()) {
+            handOver(full.getFirst());
+        }
+    }
+
+    /**
+     * Number of events currently waiting to be flushed.
+     */
+    public int pendingEvents() {
+        return pending.values().stream().mapToInt(List::size).sum();
+    }
+
+    public void flushAll() {
+        for (String trainer : pending.keySet()) {
+            flush(trainer);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        flushAll();
+    }
+
+    private void flush(String trainer) {
+        // A timer left over from an already flushed batch may flush a newer one early, which is harmless
+        List<WorkloadRequestDto> events = pending.remove(trainer);
+        if (events != null) {
+            handOver(events);
+        }
+    }
+
+    private void handOver(List<WorkloadRequestDto> events) {
+        try {
+            flushHandler.accept(events);
+        } catch (RuntimeException ex) {
+            log.error("Failed to flush {} workload events for trainer {}",
+                    events.size(), events.getFirst().getTrainerUsername(), ex);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.gym.crm.integration.client;
+
+import com.gym.crm.util.TransactionContext;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends workload messages to the workload queue through the {@code workloadService} retry
+ * (jittered exponential backoff) and circuit breaker. Failures are propagated to the caller
+ * once retries are exhausted or while the circuit is open.
+ */
+@Component
+@Slf4j
+public class WorkloadMessageSender {
+
+    static final String RESILIENCE_INSTANCE = "workloadService";
+
+    private final JmsTemplate jmsTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+
+    public WorkloadMessageSender(JmsTemplate jmsTemplate,
+                                 CircuitBreakerRegistry circuitBreakerRegistry,
+                                 RetryRegistry retryRegistry) {
+        this.jmsTemplate = jmsTemplate;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        this.retry = retryRegistry.retry(RESILIENCE_INSTANCE);
+        this.retry.getEventPublisher().onRetry(event -> log.warn("Retrying workload send, attempt {} after {}: {}",
+                event.getNumberOfRetryAttempts(), event.getWaitInterval(),
+                event.getLastThrowable() != null ? event.getLastThrowable().getMessage() : "unknown"));
+    }
+
+    /**
+     * @throws CallNotPermittedException while the circuit is open
+     * @throws org.springframework.jms.JmsException when every attempt failed
+     */
+    public void send(String destination, Object payload, String transactionId) {
+        Runnable send = () -> jmsTemplate.convertAndSend(destination, payload, message -> {
+            if (transactionId != null) {
+                message.setStringProperty(TransactionContext.HEADER, transactionId);
+            }
+            return message;
+        });
+        // Every attempt is recorded by the circuit breaker; once it opens the retry stops immediately
+        Retry.decorateRunnable(retry, CircuitBreaker.decorateRunnable(circuitBreaker, send)).run();
+    }
+
+    /**
+     * True when the broker is considered healthy, i.e. the circuit is closed.
+     */
+    public boolean isAvailable() {
+        return circuitBreaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+}
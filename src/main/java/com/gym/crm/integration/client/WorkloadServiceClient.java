@@ -1,36 +1,75 @@
 package com.gym.crm.integration.client;
 
+import com.gym.crm.integration.dto.WorkloadBatchDto;
 import com.gym.crm.integration.dto.WorkloadRequestDto;
+import com.gym.crm.integration.outbox.WorkloadOutbox;
+import com.gym.crm.metrics.DomainMetrics;
 import com.gym.crm.model.Training;
+import com.gym.crm.util.RequestTiming;
 import com.gym.crm.util.TransactionContext;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.jms.core.JmsTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Client responsible for notifying TRAINER-WORKLOAD-SERVICE via ActiveMQ about training add/delete events.
  * Sending is asynchronous and should never block or interrupt the main business flow.
+ * With the outbox enabled, training notifications are recorded in the caller's transaction
+ * and published by the outbox relay; otherwise they are sent one message per event, or
+ * coalesced per trainer into {@link WorkloadBatchDto} messages when batching is enabled.
+ * Batches change what goes over the queue: enable {@code workload.batch.enabled} only after
+ * every consumer of the queue (TRAINER-WORKLOAD-SERVICE first) accepts both message types. Direct sends that fail
+ * after retries, or while the circuit breaker is open, are kept in the {@link WorkloadSpillStore}.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class WorkloadServiceClient {
 
+    public static final String QUEUE_NAME = "trainer.workload.queue";
     private static final String ACTION_ADD = "ADD";
     private static final String ACTION_DELETE = "DELETE";
-    private static final String QUEUE_NAME = "trainer.workload.queue";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
 
-    private final JmsTemplate jmsTemplate;
-    @Qualifier("workloadTaskExecutor")
-    private final org.springframework.core.task.TaskExecutor taskExecutor;
+    private final WorkloadMessageSender messageSender;
+    private final WorkloadSpillStore spillStore;
+    private final TaskExecutor taskExecutor;
+    private final WorkloadOutbox outbox;
+    private final WorkloadEventBatcher batcher;
+    private final DomainMetrics domainMetrics;
+
+    public WorkloadServiceClient(WorkloadMessageSender messageSender,
+                                 WorkloadSpillStore spillStore,
+                                 DomainMetrics domainMetrics,
+                                 @Qualifier("workloadTaskExecutor") TaskExecutor taskExecutor,
+                                 Optional<WorkloadOutbox> outbox,
+                                 @Value("${workload.batch.enabled:false}") boolean batchEnabled,
+                                 @Value("${workload.batch.max-size:100}") int batchMaxSize,
+                                 @Value("${workload.batch.max-delay-ms:50}") long batchMaxDelayMillis) {
+        this.messageSender = messageSender;
+        this.spillStore = spillStore;
+        this.domainMetrics = domainMetrics;
+        this.taskExecutor = taskExecutor;
+        this.outbox = outbox.orElse(null);
+        this.batcher = batchEnabled && this.outbox == null
+                ? new WorkloadEventBatcher(batchMaxSize, batchMaxDelayMillis, this::sendBatchAsync)
+                : null;
+    }
+
+    @PreDestroy
+    public void flushPendingBatches() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
 
     /**
      * Notify workload service after a training is successfully created.
@@ -40,8 +79,7 @@ public class WorkloadServiceClient {
             log.warn("Skipping workload notification for training add due to missing trainer information");
             return;
         }
-        WorkloadRequestDto dto = buildDto(training, ACTION_ADD);
-        sendAsync(dto);
+        publish(buildDto(training, ACTION_ADD));
     }
 
     /**
@@ -52,8 +90,7 @@ public class WorkloadServiceClient {
             log.warn("Skipping workload notification for training delete due to missing trainer information");
             return;
         }
-        WorkloadRequestDto dto = buildDto(training, ACTION_DELETE);
-        sendAsync(dto);
+        publish(buildDto(training, ACTION_DELETE));
     }
 
     private WorkloadRequestDto buildDto(Training training, String actionType) {
@@ -66,12 +103,46 @@ public class WorkloadServiceClient {
                 .trainingDate(training.getTrainingDate().format(DATE_FORMATTER))
                 .trainingDuration(training.getTrainingDuration())
                 .actionType(actionType)
+                .trainingId(training.getId())
                 .transactionId(transactionId)
                 .build();
     }
 
+    private void publish(WorkloadRequestDto dto) {
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.MESSAGING)) {
+            if (outbox != null) {
+                outbox.append(dto);
+            } else if (batcher != null) {
+                batcher.add(dto);
+            } else {
+                sendAsync(dto);
+            }
+        }
+    }
+
+    private void sendBatchAsync(List<WorkloadRequestDto> events) {
+        WorkloadBatchDto batch = WorkloadBatchDto.builder()
+                .batchId(TransactionContext.generateTransactionId())
+                .trainerUsername(events.getFirst().getTrainerUsername())
+                .events(events)
+                .build();
+        try {
+            taskExecutor.execute(() -> sendBatch(batch));
+        } catch (TaskRejectedException ex) {
+            log.error("Workload executor saturated, spilling workload batch batchId={} trainer={} size={}",
+                    batch.getBatchId(), batch.getTrainerUsername(), events.size());
+            spillStore.spill(batch, events.getFirst().getTransactionId());
+        }
+    }
+
     private void sendAsync(WorkloadRequestDto dto) {
-        taskExecutor.execute(() -> send(dto));
+        try {
+            taskExecutor.execute(() -> send(dto));
+        } catch (TaskRejectedException ex) {
+            log.error("Workload executor saturated, spilling workload message transactionId={} trainer={}",
+                    dto.getTransactionId(), dto.getTrainerUsername());
+            spillStore.spill(dto, dto.getTransactionId());
+        }
     }
 
     /**
@@ -84,28 +155,46 @@ public class WorkloadServiceClient {
     private void send(WorkloadRequestDto dto) {
         Assert.notNull(dto, "WorkloadRequestDto must not be null");
         String txId = dto.getTransactionId() != null ? dto.getTransactionId() : resolveTransactionId();
-        log.info("Sending workload message to queue={} transactionId={} payload={}", QUEUE_NAME, txId, dto);
+        log.info("Sending workload message to queue={} transactionId={} trainer={} action={}",
+                QUEUE_NAME, txId, dto.getTrainerUsername(), dto.getActionType());
+        log.debug("Workload message payload transactionId={} payload={}", txId, dto);
 
         try {
-            jmsTemplate.convertAndSend(QUEUE_NAME, dto, message -> {
-                message.setStringProperty("X-Transaction-Id", txId);
-                return message;
-            });
-            log.info("Workload message sent transactionId={}", txId);
+            messageSender.send(QUEUE_NAME, dto, txId);
+            domainMetrics.workloadEventsSent(1);
+            log.debug("Workload message sent transactionId={}", txId);
         } catch (Exception ex) {
             log.error("Failed to send workload message transactionId={} reason={}", txId, ex.getMessage());
+            domainMetrics.workloadEventsFailed(1);
+            spillStore.spill(dto, txId);
         }
+    }
+
+    private void sendBatch(WorkloadBatchDto batch) {
+        // Events of one batch may come from several requests; the first one identifies the message
+        String txId = batch.getEvents().getFirst().getTransactionId();
+        log.info("Sending workload batch to queue={} batchId={} trainer={} size={}",
+                QUEUE_NAME, batch.getBatchId(), batch.getTrainerUsername(), batch.getEvents().size());
 
+        try {
+            messageSender.send(QUEUE_NAME, batch, txId);
+            domainMetrics.workloadEventsSent(batch.getEvents().size());
+            log.debug("Workload batch sent batchId={}", batch.getBatchId());
+        } catch (Exception ex) {
+            log.error("Failed to send workload batch batchId={} reason={}", batch.getBatchId(), ex.getMessage());
+            domainMetrics.workloadEventsFailed(batch.getEvents().size());
+            spillStore.spill(batch, txId);
+        }
     }
 
+    /**
+     * The current transaction id, or a new one for work that runs outside any transaction.
+     * The thread's context is left as it is: it belongs to whoever bound it, and worker threads
+     * get theirs from the executor's task decorator.
+     */
     private String resolveTransactionId() {
         String txId = TransactionContext.getTransactionId();
-        if (txId == null) {
-            txId = UUID.randomUUID().toString();
-            TransactionContext.setTransactionId(txId);
-        }
-        MDC.put("transactionId", txId);
-        return txId;
+        return txId != null ? txId : TransactionContext.generateTransactionId();
     }
 }
 
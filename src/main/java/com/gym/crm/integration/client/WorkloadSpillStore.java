@@ -0,0 +1,195 @@
+package com.gym.crm.integration.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.integration.dto.WorkloadBatchDto;
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local durable store for workload messages that could not be sent while the broker was
+ * unavailable. Messages are appended as JSON lines and synced to disk before {@link #spill}
+ * returns; once the circuit breaker is closed again they are replayed in their original order.
+ * <p>
+ * A replay first moves the spill file aside to a {@code .replaying} file, which is all it does
+ * under the lock, and sends from there; new messages keep going to a fresh spill file in the
+ * meantime. A {@code .replaying} file that is still present, after a failed replay or a crash,
+ * holds the oldest messages and is replayed before the spill file is moved again.
+ */
+@Component
+@Slf4j
+public class WorkloadSpillStore {
+
+    private static final String TYPE_BATCH = "batch";
+    private static final String TYPE_SINGLE = "single";
+
+    private final ObjectMapper objectMapper;
+    private final WorkloadMessageSender messageSender;
+    private final Path spillFile;
+    private final Path replayingFile;
+    private final Object lock = new Object();
+    private final AtomicBoolean replaying = new AtomicBoolean();
+    private final AtomicInteger pendingMessages = new AtomicInteger();
+    private final Counter spilledCounter;
+    private final Counter replayedCounter;
+
+    public WorkloadSpillStore(ObjectMapper objectMapper,
+                              WorkloadMessageSender messageSender,
+                              MeterRegistry meterRegistry,
+                              @Value("${workload.spill.path:data/workload-spill.jsonl}") Path spillFile) {
+        this.objectMapper = objectMapper;
+        this.messageSender = messageSender;
+        this.spillFile = spillFile;
+        this.replayingFile = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        this.pendingMessages.set(readLines(replayingFile).size() + readLines(spillFile).size());
+
+        Gauge.builder("workload.spill.pending", pendingMessages, AtomicInteger::get)
+                .description("Workload messages waiting in the local spill file")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("workload.spill.spilled")
+                .description("Workload messages written to the local spill file")
+                .register(meterRegistry);
+        this.replayedCounter = Counter.builder("workload.spill.replayed")
+                .description("Workload messages replayed from the local spill file")
+                .register(meterRegistry);
+    }
+
+    public void spill(Object payload, String transactionId) {
+        String type = payload instanceof WorkloadBatchDto ? TYPE_BATCH : TYPE_SINGLE;
+        String line;
+        try {
+            line = objectMapper.writeValueAsString(new SpilledMessage(type, transactionId,
+                    objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize workload message", e);
+        }
+
+        synchronized (lock) {
+            try {
+                Files.createDirectories(spillFile.toAbsolutePath().getParent());
+                Files.writeString(spillFile, line + System.lineSeparator(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write workload spill file " + spillFile, e);
+            }
+            pendingMessages.incrementAndGet();
+        }
+        spilledCounter.increment();
+        log.warn("Workload message spilled to {} transactionId={}", spillFile, transactionId);
+    }
+
+    public int pendingMessages() {
+        return pendingMessages.get();
+    }
+
+    /**
+     * Replays spilled messages in order while the broker is reachable. Messages are sent
+     * without holding the spill lock, so spilling never waits for the broker. Whatever could
+     * not be sent stays in the {@code .replaying} file for the next replay.
+     */
+    @Scheduled(initialDelayString = "${workload.spill.replay-interval-ms:5000}",
+               fixedDelayString = "${workload.spill.replay-interval-ms:5000}")
+    public void replay() {
+        if (pendingMessages.get() == 0 || !messageSender.isAvailable() || !replaying.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (!Files.exists(replayingFile)) {
+                synchronized (lock) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    moveAside();
+                }
+            }
+
+            List<String> lines = readLines(replayingFile);
+            int sent = 0;
+            try {
+                for (String line : lines) {
+                    send(line);
+                    sent++;
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Workload spill replay stopped after {} of {} messages: {}", sent, lines.size(), ex.getMessage());
+            } finally {
+                rewriteReplaying(lines.subList(sent, lines.size()));
+                pendingMessages.addAndGet(-sent);
+                replayedCounter.increment(sent);
+            }
+            if (sent > 0) {
+                log.info("Replayed {} spilled workload messages", sent);
+            }
+        } finally {
+            replaying.set(false);
+        }
+    }
+
+    private void send(String line) {
+        SpilledMessage message;
+        Object payload;
+        try {
+            message = objectMapper.readValue(line, SpilledMessage.class);
+            payload = objectMapper.readValue(message.payload(),
+                    TYPE_BATCH.equals(message.type()) ? WorkloadBatchDto.class : WorkloadRequestDto.class);
+        } catch (JsonProcessingException e) {
+            log.error("Discarding unreadable spilled workload message: {}", line, e);
+            return;
+        }
+        messageSender.send(WorkloadServiceClient.QUEUE_NAME, payload, message.transactionId());
+    }
+
+    private void moveAside() {
+        try {
+            Files.move(spillFile, replayingFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to move workload spill file " + spillFile + " aside for replay", e);
+        }
+    }
+
+    private static List<String> readLines(Path file) {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                    .filter(line -> !line.isBlank())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read workload spill file " + file, e);
+        }
+    }
+
+    private void rewriteReplaying(List<String> remaining) {
+        try {
+            if (remaining.isEmpty()) {
+                Files.deleteIfExists(replayingFile);
+            } else {
+                Files.write(replayingFile, remaining, StandardCharsets.UTF_8,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to rewrite workload spill file " + replayingFile, e);
+        }
+    }
+
+    record SpilledMessage(String type, String transactionId, String payload) {
+    }
+}
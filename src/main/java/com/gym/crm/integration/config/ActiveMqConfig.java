@@ -1,17 +1,28 @@
 package com.gym.crm.integration.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.jms.ConnectionFactory;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.jms.annotation.EnableJms;
 import org.springframework.jms.core.JmsTemplate;
 import org.springframework.jms.support.converter.MappingJackson2MessageConverter;
 import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.jms.support.converter.MessageType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ActiveMQ configuration for asynchronous workload notifications.
@@ -20,14 +31,72 @@ import org.springframework.jms.support.converter.MessageType;
 @EnableJms
 public class ActiveMqConfig {
 
+    private static final String EXECUTOR_METRIC_PREFIX = "workload.executor";
+
     @Value("${spring.activemq.broker-url}")
     private String brokerUrl;
 
+    @Value("${workload.jms.async-send:false}")
+    private boolean asyncSend;
+
+    @Value("${workload.jms.producer-window-size:1048576}")
+    private int producerWindowSize;
+
+    @Value("${workload.jms.pool.max-connections:1}")
+    private int poolMaxConnections;
+
+    @Value("${workload.jms.pool.max-sessions-per-connection:50}")
+    private int poolMaxSessionsPerConnection;
+
+    @Value("${workload.executor.core-pool-size:2}")
+    private int executorCorePoolSize;
+
+    @Value("${workload.executor.max-pool-size:8}")
+    private int executorMaxPoolSize;
+
+    @Value("${workload.executor.queue-capacity:1000}")
+    private int executorQueueCapacity;
+
+    /**
+     * CALLER_RUNS applies back-pressure by running the send on the submitting thread,
+     * ABORT rejects the task so the client spills the message. There is no policy that drops
+     * sends: a dropped task never reaches the client, so the event would be lost.
+     */
+    @Value("${workload.executor.rejection-policy:CALLER_RUNS}")
+    private RejectionPolicy executorRejectionPolicy;
+
+    @Value("${workload.executor.virtual-threads:false}")
+    private boolean executorVirtualThreads;
+
+    /**
+     * Pooled connection factory: connections, sessions and producers are reused across
+     * JmsTemplate sends instead of being opened and closed for every message.
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(name = "workload.jms.pool.enabled", havingValue = "true", matchIfMissing = true)
+    public JmsPoolConnectionFactory pooledConnectionFactory() {
+        JmsPoolConnectionFactory pooled = new JmsPoolConnectionFactory();
+        pooled.setConnectionFactory(activeMqConnectionFactory());
+        pooled.setMaxConnections(poolMaxConnections);
+        pooled.setMaxSessionsPerConnection(poolMaxSessionsPerConnection);
+        pooled.setBlockIfSessionPoolIsFull(true);
+        pooled.setUseAnonymousProducers(true);
+        return pooled;
+    }
+
     @Bean
+    @ConditionalOnProperty(name = "workload.jms.pool.enabled", havingValue = "false")
     public ConnectionFactory connectionFactory() {
+        return activeMqConnectionFactory();
+    }
+
+    ActiveMQConnectionFactory activeMqConnectionFactory() {
         ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory();
         factory.setBrokerURL(brokerUrl);
         factory.setTrustAllPackages(true);
+        // Async sends do not wait for the broker receipt; the window bounds unacknowledged bytes in flight
+        factory.setUseAsyncSend(asyncSend);
+        factory.setProducerWindowSize(producerWindowSize);
         return factory;
     }
 
@@ -47,10 +116,79 @@ public class ActiveMqConfig {
         return template;
     }
 
+    /**
+     * Bounded executor for workload message sends so bulk operations cannot spawn
+     * an unbounded number of threads. In virtual-thread mode every send gets its own
+     * virtual thread, bounded by the max pool size as a concurrency limit. Sends run with the
+     * transaction id and MDC of the request that submitted them.
+     */
     @Bean(name = "workloadTaskExecutor")
-    public TaskExecutor workloadTaskExecutor() {
-        // Simple async executor to avoid blocking main flow during message send
-        return new SimpleAsyncTaskExecutor("workload-");
+    public TaskExecutor workloadTaskExecutor(MeterRegistry meterRegistry, TaskDecorator contextPropagatingTaskDecorator) {
+        Counter rejected = Counter.builder(EXECUTOR_METRIC_PREFIX + ".rejected")
+                .description("Workload sends rejected by the executor")
+                .register(meterRegistry);
+
+        if (executorVirtualThreads) {
+            return virtualThreadExecutor(meterRegistry, contextPropagatingTaskDecorator);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("workload-");
+        executor.setTaskDecorator(contextPropagatingTaskDecorator);
+        executor.setCorePoolSize(executorCorePoolSize);
+        executor.setMaxPoolSize(executorMaxPoolSize);
+        executor.setQueueCapacity(executorQueueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        RejectedExecutionHandler delegate = executorRejectionPolicy.handler();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, pool);
+        });
+
+        Gauge.builder(EXECUTOR_METRIC_PREFIX + ".active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Workload sends currently running")
+                .register(meterRegistry);
+        Gauge.builder(EXECUTOR_METRIC_PREFIX + ".queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Workload sends waiting in the executor queue")
+                .register(meterRegistry);
+        return executor;
     }
-}
 
+    private TaskExecutor virtualThreadExecutor(MeterRegistry meterRegistry, TaskDecorator contextDecorator) {
+        AtomicInteger active = new AtomicInteger();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("workload-");
+        executor.setVirtualThreads(true);
+        // Submitters block once the limit is reached, which is the back-pressure in this mode
+        executor.setConcurrencyLimit(executorMaxPoolSize);
+        executor.setTaskDecorator(task -> {
+            Runnable withContext = contextDecorator.decorate(task);
+            return () -> {
+                active.incrementAndGet();
+                try {
+                    withContext.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            };
+        });
+
+        // No queued gauge here: there is no queue, sends over the limit wait in the submitting thread
+        Gauge.builder(EXECUTOR_METRIC_PREFIX + ".active", active, AtomicInteger::get)
+                .description("Workload sends currently running")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    public enum RejectionPolicy {
+        CALLER_RUNS,
+        ABORT;
+
+        RejectedExecutionHandler handler() {
+            return switch (this) {
+                case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+                case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            };
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.gym.crm.integration.config;
+
+import jakarta.jms.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQPrefetchPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.support.converter.MessageConverter;
+
+/**
+ * Listener container for applying workload events to the local trainer summaries.
+ * Disabled by default because the queue is normally consumed by TRAINER-WORKLOAD-SERVICE.
+ */
+@Configuration
+@ConditionalOnProperty(name = "workload.listener.enabled", havingValue = "true")
+@Slf4j
+public class WorkloadListenerConfig {
+
+    @Value("${spring.activemq.broker-url}")
+    private String brokerUrl;
+
+    /**
+     * Fixed ("4") or elastic ("1-4") number of concurrent consumers.
+     */
+    @Value("${workload.listener.concurrency:1-4}")
+    private String concurrency;
+
+    /**
+     * Messages the broker pushes to each consumer ahead of acknowledgement.
+     */
+    @Value("${workload.listener.prefetch:100}")
+    private int prefetch;
+
+    /**
+     * CLIENT acknowledges each message (a whole batch of events) after it has been applied;
+     * DUPS_OK lets the broker client acknowledge lazily in groups, trading possible
+     * redelivery on a crash for fewer acknowledgement round trips.
+     */
+    @Value("${workload.listener.acknowledge-mode:CLIENT}")
+    private AcknowledgeMode acknowledgeMode;
+
+    @Bean
+    public DefaultJmsListenerContainerFactory workloadListenerContainerFactory(MessageConverter messageConverter) {
+        // Consumers get their own connection factory: the pooled producer factory is not meant for long-lived consumers
+        ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(brokerUrl);
+        connectionFactory.setTrustAllPackages(true);
+        ActiveMQPrefetchPolicy prefetchPolicy = new ActiveMQPrefetchPolicy();
+        prefetchPolicy.setQueuePrefetch(prefetch);
+        connectionFactory.setPrefetchPolicy(prefetchPolicy);
+
+        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setConcurrency(concurrency);
+        factory.setSessionTransacted(false);
+        factory.setSessionAcknowledgeMode(acknowledgeMode.sessionMode);
+        factory.setErrorHandler(ex -> log.error("Workload listener failed: {}", ex.getMessage(), ex));
+        return factory;
+    }
+
+    public enum AcknowledgeMode {
+        CLIENT(Session.CLIENT_ACKNOWLEDGE),
+        DUPS_OK(Session.DUPS_OK_ACKNOWLEDGE);
+
+        private final int sessionMode;
+
+        AcknowledgeMode(int sessionMode) {
+            this.sessionMode = sessionMode;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.gym.crm.integration.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batched message sent to TRAINER-WORKLOAD-SERVICE: several workload events of a single
+ * trainer, in the order they happened.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkloadBatchDto {
+    private String batchId;
+    private String trainerUsername;
+
+    @Builder.Default
+    private List<WorkloadRequestDto> events = new ArrayList<>();
+}
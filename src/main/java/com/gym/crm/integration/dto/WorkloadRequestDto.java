@@ -20,6 +20,7 @@ public class WorkloadRequestDto {
     private String trainingDate;      // yyyy-MM-dd
     private Integer trainingDuration; // minutes/hours as number
     private String actionType;        // ADD | DELETE
+    private Long trainingId;
     private String transactionId;
 }
 
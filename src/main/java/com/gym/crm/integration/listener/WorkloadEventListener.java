@@ -0,0 +1,72 @@
+package com.gym.crm.integration.listener;
+
+import com.gym.crm.integration.dto.WorkloadBatchDto;
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import com.gym.crm.logging.LogFields;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.service.TrainerTrainingSummaryService;
+import com.gym.crm.util.TransactionContext;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Applies workload messages from the workload queue to the trainer training summaries.
+ * Single events and batches are both accepted. A message is acknowledged only after it has
+ * been applied, so a failure leads to redelivery; messages that can never be applied are
+ * logged and dropped instead of being redelivered forever. The transaction id of the message
+ * is bound to the listener thread while it is applied, so the summary updates log under the
+ * id of the request that caused them.
+ */
+@Component
+@ConditionalOnProperty(name = "workload.listener.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class WorkloadEventListener {
+
+    private final TrainerTrainingSummaryService summaryService;
+    private final WorkloadEventMapper eventMapper;
+    private final MessageConverter messageConverter;
+
+    @JmsListener(destination = "${workload.listener.destination:trainer.workload.queue}",
+                 containerFactory = "workloadListenerContainerFactory")
+    public void onMessage(Message message) throws JMSException {
+        String transactionId = TransactionContext.acceptInbound(message.getStringProperty(TransactionContext.HEADER));
+        Object payload = messageConverter.fromMessage(message);
+
+        if (transactionId != null) {
+            TransactionContext.setTransactionId(transactionId);
+            MDC.put(LogFields.TRANSACTION_ID, transactionId);
+        }
+        try {
+            if (payload instanceof WorkloadBatchDto batch) {
+                List<TrainerTrainingEvent> events = batch.getEvents().stream()
+                        .map(dto -> eventMapper.toEvent(dto, transactionId))
+                        .toList();
+                summaryService.processTrainingEventBatch(events);
+            } else if (payload instanceof WorkloadRequestDto dto) {
+                summaryService.processTrainingEvent(eventMapper.toEvent(dto, transactionId));
+            } else {
+                log.error("Dropping unsupported workload message type {} transactionId={}",
+                        payload != null ? payload.getClass().getName() : "null", transactionId);
+            }
+        } catch (ConstraintViolationException | DateTimeParseException | IllegalArgumentException ex) {
+            log.error("Dropping invalid workload message transactionId={}: {}", transactionId, ex.getMessage());
+        } finally {
+            if (transactionId != null) {
+                TransactionContext.clear();
+                MDC.remove(LogFields.TRANSACTION_ID);
+            }
+        }
+    }
+}
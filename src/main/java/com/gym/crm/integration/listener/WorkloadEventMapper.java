@@ -0,0 +1,31 @@
+package com.gym.crm.integration.listener;
+
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.dto.TrainingActionType;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Converts workload messages into summary service events.
+ */
+@Component
+public class WorkloadEventMapper {
+
+    public TrainerTrainingEvent toEvent(WorkloadRequestDto dto, String fallbackTransactionId) {
+        return TrainerTrainingEvent.builder()
+                .trainerUsername(dto.getTrainerUsername())
+                .trainerFirstName(dto.getTrainerFirstName())
+                .trainerLastName(dto.getTrainerLastName())
+                .trainerStatus(dto.getIsActive())
+                .trainingDate(dto.getTrainingDate() != null ? LocalDate.parse(dto.getTrainingDate()) : null)
+                .trainingDuration(dto.getTrainingDuration())
+                .actionType(dto.getActionType() != null
+                        ? TrainingActionType.valueOf(dto.getActionType())
+                        : TrainingActionType.ADD)
+                .trainingId(dto.getTrainingId())
+                .transactionId(dto.getTransactionId() != null ? dto.getTransactionId() : fallbackTransactionId)
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.gym.crm.integration.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import com.gym.crm.model.WorkloadOutboxEvent;
+import com.gym.crm.repository.WorkloadOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Records workload events in the outbox table. Called from inside the business transaction,
+ * so an event exists if and only if the training change that caused it was committed.
+ */
+@Component
+@ConditionalOnProperty(name = "workload.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class WorkloadOutbox {
+
+    private final WorkloadOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public void append(WorkloadRequestDto dto) {
+        try {
+            outboxRepository.save(new WorkloadOutboxEvent(
+                    dto.getTrainerUsername(), objectMapper.writeValueAsString(dto), Instant.now()));
+            log.debug("Workload event queued in outbox transactionId={} trainer={}",
+                    dto.getTransactionId(), dto.getTrainerUsername());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize workload event", e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.gym.crm.integration.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.integration.client.WorkloadMessageSender;
+import com.gym.crm.integration.client.WorkloadServiceClient;
+import com.gym.crm.integration.dto.WorkloadBatchDto;
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import com.gym.crm.model.WorkloadOutboxEvent;
+import com.gym.crm.repository.WorkloadOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the workload outbox to the workload queue. Events are claimed in insertion order by
+ * a short transaction that puts a lease on them, sent per trainer with no transaction or row
+ * lock held, and deleted by a second short transaction only after the send succeeded, which
+ * gives at-least-once delivery with per-trainer ordering. Unsent events have their lease
+ * released right away; those of a relay that died mid-send are claimable once it expires. Each event is sent as its own
+ * {@link WorkloadRequestDto} message unless {@code workload.batch.enabled} is set, in which
+ * case a trainer's events go out as one {@link WorkloadBatchDto}; see the client for why that
+ * flag must only be turned on once every consumer of the queue understands batches.
+ * Sends go through the workload retry and circuit breaker; if sending a trainer's events still
+ * fails they stay in the outbox, which is already durable, and are retried on the next poll.
+ */
+@Component
+@ConditionalOnProperty(name = "workload.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class WorkloadOutboxRelay {
+
+    private static final String METRIC_PREFIX = "workload.outbox";
+
+    private final WorkloadOutboxRepository outboxRepository;
+    private final WorkloadMessageSender messageSender;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration leaseDuration;
+    private final boolean batchEnabled;
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer relayTimer;
+
+    public WorkloadOutboxRelay(WorkloadOutboxRepository outboxRepository,
+                               WorkloadMessageSender messageSender,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${workload.outbox.batch-size:500}") int batchSize,
+                               @Value("${workload.outbox.lease-duration:60s}") Duration leaseDuration,
+                               @Value("${workload.batch.enabled:false}") boolean batchEnabled) {
+        this.outboxRepository = outboxRepository;
+        this.messageSender = messageSender;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseDuration = leaseDuration;
+        this.batchEnabled = batchEnabled;
+
+        Gauge.builder(METRIC_PREFIX + ".pending", pendingEvents, AtomicLong::get)
+                .description("Workload events waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".lag.seconds", lagMillis, value -> value.get() / 1000.0)
+                .description("Age of the oldest workload event waiting in the outbox")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder(METRIC_PREFIX + ".published")
+                .description("Workload events published from the outbox")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + ".failed")
+                .description("Workload event sends from the outbox that failed and will be retried")
+                .register(meterRegistry);
+        this.relayTimer = Timer.builder(METRIC_PREFIX + ".relay")
+                .description("Time spent draining the workload outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${workload.outbox.poll-interval-ms:200}",
+               fixedDelayString = "${workload.outbox.poll-interval-ms:200}")
+    public void relayPending() {
+        relayTimer.record(() -> {
+            RelayResult result;
+            do {
+                result = relayBatch();
+            } while (result.fetched() == batchSize && !result.failed());
+            refreshBacklogMetrics();
+        });
+    }
+
+    private RelayResult relayBatch() {
+        List<WorkloadOutboxEvent> events = transactionTemplate.execute(status -> claim());
+        if (events == null || events.isEmpty()) {
+            return new RelayResult(0, false);
+        }
+
+        Map<String, List<WorkloadOutboxEvent>> eventsByTrainer = events.stream()
+                .collect(Collectors.groupingBy(WorkloadOutboxEvent::getTrainerUsername,
+                        LinkedHashMap::new, Collectors.toList()));
+
+        List<Long> processedIds = new ArrayList<>(events.size());
+        boolean failed = false;
+        for (Map.Entry<String, List<WorkloadOutboxEvent>> entry : eventsByTrainer.entrySet()) {
+            List<Long> done = send(entry.getKey(), entry.getValue());
+            processedIds.addAll(done);
+            if (done.size() < entry.getValue().size()) {
+                failed = true;
+            }
+        }
+
+        Set<Long> unsentIds = new HashSet<>();
+        events.forEach(event -> unsentIds.add(event.getId()));
+        processedIds.forEach(unsentIds::remove);
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxRepository.deleteAllByIdInBatch(processedIds);
+            if (!unsentIds.isEmpty()) {
+                outboxRepository.releaseLeases(unsentIds);
+            }
+        });
+        return new RelayResult(events.size(), failed);
+    }
+
+    private List<WorkloadOutboxEvent> claim() {
+        Instant now = Instant.now();
+        List<WorkloadOutboxEvent> events = outboxRepository.findClaimableForUpdate(now, PageRequest.of(0, batchSize));
+        Instant leaseUntil = now.plus(leaseDuration);
+        events.forEach(event -> event.setLeaseUntil(leaseUntil));
+        return events;
+    }
+
+    /**
+     * Sends one trainer's events in order and returns the ids of the outbox rows that are done
+     * with: sent, or unreadable and dropped. Sent one by one, a failure stops the trainer there
+     * so that its later events never overtake the failed one.
+     */
+    private List<Long> send(String trainerUsername, List<WorkloadOutboxEvent> outboxEvents) {
+        List<Long> done = new ArrayList<>(outboxEvents.size());
+        List<WorkloadOutboxEvent> readable = new ArrayList<>(outboxEvents.size());
+        List<WorkloadRequestDto> events = new ArrayList<>(outboxEvents.size());
+        for (WorkloadOutboxEvent outboxEvent : outboxEvents) {
+            try {
+                events.add(objectMapper.readValue(outboxEvent.getPayload(), WorkloadRequestDto.class));
+                readable.add(outboxEvent);
+            } catch (JsonProcessingException e) {
+                // An unreadable row would otherwise block the trainer forever; it is dropped
+                log.error("Discarding unreadable workload outbox event id={} trainer={}",
+                        outboxEvent.getId(), trainerUsername, e);
+                done.add(outboxEvent.getId());
+            }
+        }
+        if (events.isEmpty()) {
+            return done;
+        }
+
+        if (!batchEnabled) {
+            for (int i = 0; i < events.size(); i++) {
+                WorkloadRequestDto event = events.get(i);
+                if (!publish(event, event.getTransactionId(), 1,
+                        "event id=" + readable.get(i).getId() + " trainer=" + trainerUsername)) {
+                    break;
+                }
+                done.add(readable.get(i).getId());
+            }
+            return done;
+        }
+
+        // Derived from the outbox ids so that a redelivered batch carries the same id
+        String batchId = "outbox-" + readable.getFirst().getId() + "-" + readable.getLast().getId();
+        WorkloadBatchDto batch = WorkloadBatchDto.builder()
+                .batchId(batchId)
+                .trainerUsername(trainerUsername)
+                .events(events)
+                .build();
+        if (publish(batch, events.getFirst().getTransactionId(), events.size(),
+                "batch batchId=" + batchId + " trainer=" + trainerUsername)) {
+            readable.forEach(event -> done.add(event.getId()));
+        }
+        return done;
+    }
+
+    private boolean publish(Object payload, String txId, int size, String description) {
+        try {
+            messageSender.send(WorkloadServiceClient.QUEUE_NAME, payload, txId);
+            publishedCounter.increment(size);
+            log.debug("Relayed workload {} size={}", description, size);
+            return true;
+        } catch (RuntimeException ex) {
+            failedCounter.increment(size);
+            log.warn("Failed to relay workload {}, will retry: {}", description, ex.getMessage());
+            return false;
+        }
+    }
+
+    private void refreshBacklogMetrics() {
+        pendingEvents.set(outboxRepository.count());
+        lagMillis.set(outboxRepository.findOldestCreatedAt()
+                .map(oldest -> Math.max(0, Duration.between(oldest, Instant.now()).toMillis()))
+                .orElse(0L));
+    }
+
+    private record RelayResult(int fetched, boolean failed) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.gym.crm.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link AsyncAppender} that counts the events it does not pass on: events discarded because
+ * the queue filled past the discarding threshold, and, with {@code neverBlock}, events dropped
+ * because the queue was full. The count is published as a metric by {@code AsyncLoggingMetrics}.
+ */
+public class DiscardCountingAsyncAppender extends AsyncAppender {
+
+    private final AtomicLong discarded = new AtomicLong();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && isStarted() && getRemainingCapacity() == 0) {
+            discarded.incrementAndGet();
+            return;
+        }
+        super.append(event);
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        // Only asked once the queue is past the discarding threshold
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.incrementAndGet();
+        }
+        return discardable;
+    }
+
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+}
@@ -0,0 +1,233 @@
+package com.gym.crm.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes each event as one line of JSON: timestamp, level, thread, logger, message, every
+ * MDC entry as its own field and the stack trace if there is one. MDC fields listed with
+ * {@code <numericField>} are written as JSON numbers when their value is numeric, so
+ * {@code durationMs} or {@code status} can be aggregated without parsing.
+ * <p>
+ * The JSON is escaped and UTF-8 encoded in one pass into a per-thread byte buffer; the only
+ * allocation per event is the returned array. The formatted second of the timestamp is cached
+ * per thread, so only the milliseconds are written for events within the same second.
+ */
+public class JsonLineEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final DateTimeFormatter SECOND_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final Set<String> numericFields = new HashSet<>();
+    private final ThreadLocal<JsonWriter> writers = ThreadLocal.withInitial(JsonWriter::new);
+
+    public void addNumericField(String field) {
+        numericFields.add(field.trim());
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        JsonWriter json = writers.get();
+        json.reset();
+
+        json.ascii("{\"@timestamp\":\"");
+        json.timestamp(event.getTimeStamp());
+        json.ascii("\",\"level\":\"");
+        json.ascii(event.getLevel().toString());
+        json.ascii("\",\"thread\":");
+        json.string(event.getThreadName());
+        json.ascii(",\"logger\":");
+        json.string(event.getLoggerName());
+        json.ascii(",\"message\":");
+        json.string(event.getFormattedMessage());
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null) {
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                if (entry.getValue() == null) {
+                    continue;
+                }
+                json.raw((byte) ',');
+                json.string(entry.getKey());
+                json.raw((byte) ':');
+                if (numericFields.contains(entry.getKey()) && isNumber(entry.getValue())) {
+                    json.ascii(entry.getValue());
+                } else {
+                    json.string(entry.getValue());
+                }
+            }
+        }
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            json.ascii(",\"stack_trace\":");
+            json.string(ThrowableProxyUtil.asString(throwable));
+        }
+        json.ascii("}\n");
+        return json.toBytes();
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    static boolean isNumber(String value) {
+        int length = value.length();
+        int i = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+        if (i == length || (value.charAt(i) == '0' && i + 1 < length && value.charAt(i + 1) != '.')) {
+            // JSON numbers have no leading zeros
+            return false;
+        }
+        boolean digitSeen = false;
+        boolean pointSeen = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitSeen = true;
+            } else if (c == '.' && digitSeen && !pointSeen && i < length - 1) {
+                pointSeen = true;
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class JsonWriter {
+
+        private byte[] buffer = new byte[INITIAL_CAPACITY];
+        private int length;
+        private long cachedSecond = Long.MIN_VALUE;
+        private byte[] cachedSecondText;
+
+        void reset() {
+            if (buffer.length > MAX_RETAINED_CAPACITY) {
+                // Do not keep the buffer of one huge stack trace for the rest of the thread's life
+                buffer = new byte[INITIAL_CAPACITY];
+            }
+            length = 0;
+        }
+
+        byte[] toBytes() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        void raw(byte b) {
+            ensureCapacity(1);
+            buffer[length++] = b;
+        }
+
+        /**
+         * Appends text known to contain only ASCII characters that need no escaping.
+         */
+        void ascii(String text) {
+            int count = text.length();
+            ensureCapacity(count);
+            for (int i = 0; i < count; i++) {
+                buffer[length++] = (byte) text.charAt(i);
+            }
+        }
+
+        void timestamp(long epochMillis) {
+            long second = Math.floorDiv(epochMillis, 1000);
+            if (second != cachedSecond) {
+                cachedSecond = second;
+                cachedSecondText = SECOND_FORMAT.format(Instant.ofEpochSecond(second)).getBytes(StandardCharsets.US_ASCII);
+            }
+            int millis = (int) Math.floorMod(epochMillis, 1000);
+            ensureCapacity(cachedSecondText.length + 5);
+            System.arraycopy(cachedSecondText, 0, buffer, length, cachedSecondText.length);
+            length += cachedSecondText.length;
+            buffer[length++] = '.';
+            buffer[length++] = (byte) ('0' + millis / 100);
+            buffer[length++] = (byte) ('0' + millis / 10 % 10);
+            buffer[length++] = (byte) ('0' + millis % 10);
+            buffer[length++] = 'Z';
+        }
+
+        /**
+         * Appends a quoted JSON string, escaping and UTF-8 encoding it in one pass.
+         */
+        void string(String text) {
+            if (text == null) {
+                ascii("null");
+                return;
+            }
+            int count = text.length();
+            // Worst case per char: a 6 byte escape; surrogate pairs need 4 bytes for 2 chars
+            ensureCapacity(count * 6 + 2);
+            buffer[length++] = '"';
+            for (int i = 0; i < count; i++) {
+                char c = text.charAt(i);
+                if (c >= 0x20 && c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        buffer[length++] = '\\';
+                    }
+                    buffer[length++] = (byte) c;
+                } else if (c < 0x20) {
+                    escapeControl(c);
+                } else if (c < 0x800) {
+                    buffer[length++] = (byte) (0xC0 | (c >> 6));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer[length++] = '?';
+                } else {
+                    buffer[length++] = (byte) (0xE0 | (c >> 12));
+                    buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            buffer[length++] = '"';
+        }
+
+        private void escapeControl(char c) {
+            buffer[length++] = '\\';
+            switch (c) {
+                case '\n' -> buffer[length++] = 'n';
+                case '\r' -> buffer[length++] = 'r';
+                case '\t' -> buffer[length++] = 't';
+                case '\b' -> buffer[length++] = 'b';
+                case '\f' -> buffer[length++] = 'f';
+                default -> {
+                    buffer[length++] = 'u';
+                    buffer[length++] = '0';
+                    buffer[length++] = '0';
+                    buffer[length++] = HEX[c >> 4];
+                    buffer[length++] = HEX[c & 0xF];
+                }
+            }
+        }
+
+        private void ensureCapacity(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+}
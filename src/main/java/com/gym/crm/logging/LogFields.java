@@ -0,0 +1,17 @@
+package com.gym.crm.logging;
+
+/**
+ * MDC keys set on the request path. Each component removes the keys it put when its part of
+ * the request ends, so the MDC is never cleared wholesale under another component.
+ */
+public final class LogFields {
+
+    public static final String TRANSACTION_ID = "transactionId";
+    public static final String USER_ID = "userId";
+    public static final String ROUTE = "route";
+    public static final String STATUS = "status";
+    public static final String DURATION_MS = "durationMs";
+
+    private LogFields() {
+    }
+}
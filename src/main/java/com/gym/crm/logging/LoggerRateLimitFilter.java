@@ -0,0 +1,83 @@
+package com.gym.crm.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps how many events per second each matching logger may emit below WARN. Loggers are
+ * matched by name prefix ({@code <loggerPrefix>} elements in the configuration); every matching
+ * logger gets its own one-second window of {@code maxPerSecond} events and anything beyond
+ * that is denied before a logging event is even created. Warnings and errors always pass.
+ */
+public class LoggerRateLimitFilter extends TurboFilter {
+
+    private static final Window UNLIMITED = new Window();
+
+    private final List<String> loggerPrefixes = new ArrayList<>();
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong suppressed = new AtomicLong();
+    private int maxPerSecond = 100;
+
+    public void addLoggerPrefix(String loggerPrefix) {
+        loggerPrefixes.add(loggerPrefix.trim());
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // A null format is an isXxxEnabled() check, which must not use up the window
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), this::windowFor);
+        if (window == UNLIMITED || window.tryAcquire(System.currentTimeMillis() / 1000, maxPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    private Window windowFor(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return new Window();
+            }
+        }
+        return UNLIMITED;
+    }
+
+    /**
+     * Events admitted in the current second. Resetting on a new second is not atomic with the
+     * count, so a window boundary may admit a few events more than the limit.
+     */
+    private static final class Window {
+        private final AtomicLong second = new AtomicLong();
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean tryAcquire(long currentSecond, int limit) {
+            long windowSecond = second.get();
+            if (windowSecond != currentSecond && second.compareAndSet(windowSecond, currentSecond)) {
+                count.set(0);
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
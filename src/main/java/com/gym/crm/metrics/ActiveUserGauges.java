@@ -0,0 +1,51 @@
+package com.gym.crm.metrics;
+
+import com.gym.crm.repository.TraineeRepository;
+import com.gym.crm.repository.TrainerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauges of active trainees and trainers. The counts are queried on a schedule and cached,
+ * so a metrics scrape never runs a query; between refreshes the last counts are reported.
+ */
+@Component
+@Slf4j
+public class ActiveUserGauges {
+
+    private final TraineeRepository traineeRepository;
+    private final TrainerRepository trainerRepository;
+    private final AtomicLong activeTrainees = new AtomicLong();
+    private final AtomicLong activeTrainers = new AtomicLong();
+
+    public ActiveUserGauges(TraineeRepository traineeRepository,
+                            TrainerRepository trainerRepository,
+                            MeterRegistry meterRegistry) {
+        this.traineeRepository = traineeRepository;
+        this.trainerRepository = trainerRepository;
+
+        Gauge.builder("gym.trainees.active", activeTrainees, AtomicLong::get)
+                .description("Active trainees, refreshed on a schedule")
+                .register(meterRegistry);
+        Gauge.builder("gym.trainers.active", activeTrainers, AtomicLong::get)
+                .description("Active trainers, refreshed on a schedule")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${gym.metrics.active-users.initial-delay-ms:10000}",
+               fixedDelayString = "${gym.metrics.active-users.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            activeTrainees.set(traineeRepository.countByIsActiveTrue());
+            activeTrainers.set(trainerRepository.countByIsActiveTrue());
+        } catch (DataAccessException e) {
+            log.warn("Unable to refresh active user gauges, keeping the last counts: {}", e.getMessage());
+        }
+    }
+}
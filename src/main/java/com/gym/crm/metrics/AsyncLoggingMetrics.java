@@ -0,0 +1,76 @@
+package com.gym.crm.metrics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import com.gym.crm.logging.DiscardCountingAsyncAppender;
+import com.gym.crm.logging.LoggerRateLimitFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Queue depth and losses of the asynchronous log appenders, and the events held back by the
+ * per-logger rate limit, as configured in {@code logback-spring.xml}.
+ */
+@Component
+@Slf4j
+public class AsyncLoggingMetrics {
+
+    public AsyncLoggingMetrics(MeterRegistry meterRegistry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            log.debug("Logback is not the active logging backend, no async logging metrics");
+            return;
+        }
+
+        asyncAppenders(loggerContext).forEach((name, appender) -> {
+            Gauge.builder("logback.async.queue.size", appender, AsyncAppenderBase::getNumberOfElementsInQueue)
+                    .tag("appender", name)
+                    .description("Log events waiting in the queue of an asynchronous appender")
+                    .register(meterRegistry);
+            Gauge.builder("logback.async.queue.capacity", appender, AsyncAppenderBase::getQueueSize)
+                    .tag("appender", name)
+                    .description("Queue capacity of an asynchronous appender")
+                    .register(meterRegistry);
+            if (appender instanceof DiscardCountingAsyncAppender counting) {
+                FunctionCounter.builder("logback.async.discarded", counting,
+                                DiscardCountingAsyncAppender::getDiscardedCount)
+                        .tag("appender", name)
+                        .description("Log events an asynchronous appender discarded because its queue was filling up")
+                        .register(meterRegistry);
+            }
+        });
+
+        for (TurboFilter filter : loggerContext.getTurboFilterList()) {
+            if (filter instanceof LoggerRateLimitFilter rateLimit) {
+                FunctionCounter.builder("logback.events.rate.limited", rateLimit, LoggerRateLimitFilter::getSuppressedCount)
+                        .tag("filter", filter.getName() != null ? filter.getName() : "rateLimit")
+                        .description("Log events dropped by the per-logger rate limit")
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    private static Map<String, AsyncAppenderBase<ILoggingEvent>> asyncAppenders(LoggerContext loggerContext) {
+        Map<String, AsyncAppenderBase<ILoggingEvent>> appenders = new LinkedHashMap<>();
+        for (Logger logger : loggerContext.getLoggerList()) {
+            Iterator<Appender<ILoggingEvent>> iterator = logger.iteratorForAppenders();
+            while (iterator.hasNext()) {
+                if (iterator.next() instanceof AsyncAppenderBase<ILoggingEvent> async) {
+                    appenders.putIfAbsent(async.getName(), async);
+                }
+            }
+        }
+        return appenders;
+    }
+}
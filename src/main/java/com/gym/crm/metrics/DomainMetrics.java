@@ -0,0 +1,128 @@
+package com.gym.crm.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Business throughput of the CRM: registrations, logins, trainings and the workload
+ * messages and summary updates they cause. Meters are created once, so recording is a plain
+ * counter increment on the hot path.
+ */
+@Component
+public class DomainMetrics {
+
+    private final Counter traineeRegistrations;
+    private final Counter trainerRegistrations;
+    private final Counter loginSuccesses;
+    private final Counter loginFailures;
+    private final Counter trainingsAdded;
+    private final Counter trainingsDeleted;
+    private final Counter workloadEventsSent;
+    private final Counter workloadEventsFailed;
+    private final Counter summaryEventsApplied;
+    private final Counter summaryEventsDuplicate;
+    private final Timer singleSummaryUpdates;
+    private final Timer batchSummaryUpdates;
+
+    public DomainMetrics(MeterRegistry meterRegistry) {
+        this.traineeRegistrations = registrations(meterRegistry, "trainee");
+        this.trainerRegistrations = registrations(meterRegistry, "trainer");
+        this.loginSuccesses = logins(meterRegistry, "success");
+        this.loginFailures = logins(meterRegistry, "failure");
+        this.trainingsAdded = trainings(meterRegistry, "added");
+        this.trainingsDeleted = trainings(meterRegistry, "deleted");
+        this.workloadEventsSent = workloadEvents(meterRegistry, "sent");
+        this.workloadEventsFailed = workloadEvents(meterRegistry, "failed");
+        this.summaryEventsApplied = summaryEvents(meterRegistry, "applied");
+        this.summaryEventsDuplicate = summaryEvents(meterRegistry, "duplicate");
+        this.singleSummaryUpdates = summaryUpdates(meterRegistry, "single");
+        this.batchSummaryUpdates = summaryUpdates(meterRegistry, "batch");
+    }
+
+    public void traineeRegistered() {
+        traineeRegistrations.increment();
+    }
+
+    public void trainerRegistered() {
+        trainerRegistrations.increment();
+    }
+
+    public void loginSucceeded() {
+        loginSuccesses.increment();
+    }
+
+    public void loginFailed() {
+        loginFailures.increment();
+    }
+
+    public void trainingAdded() {
+        trainingsAdded.increment();
+    }
+
+    public void trainingsDeleted(int count) {
+        trainingsDeleted.increment(count);
+    }
+
+    public void workloadEventsSent(int count) {
+        workloadEventsSent.increment(count);
+    }
+
+    public void workloadEventsFailed(int count) {
+        workloadEventsFailed.increment(count);
+    }
+
+    /**
+     * Records one call that updated trainer summaries: a single event or a whole batch.
+     */
+    public void summaryUpdated(boolean batch, long durationNanos, int appliedEvents, int duplicateEvents) {
+        (batch ? batchSummaryUpdates : singleSummaryUpdates).record(durationNanos, TimeUnit.NANOSECONDS);
+        summaryEventsApplied.increment(appliedEvents);
+        summaryEventsDuplicate.increment(duplicateEvents);
+    }
+
+    private static Counter registrations(MeterRegistry meterRegistry, String userType) {
+        return Counter.builder("gym.registrations")
+                .description("Registered trainee and trainer profiles")
+                .tag("type", userType)
+                .register(meterRegistry);
+    }
+
+    private static Counter logins(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gym.logins")
+                .description("Login attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter trainings(MeterRegistry meterRegistry, String action) {
+        return Counter.builder("gym.trainings")
+                .description("Trainings added and deleted")
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+
+    private static Counter workloadEvents(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gym.workload.events")
+                .description("Workload events sent directly to the broker, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter summaryEvents(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gym.workload.summary.events")
+                .description("Training events applied to trainer summaries, or skipped as already applied")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer summaryUpdates(MeterRegistry meterRegistry, String mode) {
+        return Timer.builder("gym.workload.summary.updates")
+                .description("Time to apply a training event or a batch of events to trainer summaries")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
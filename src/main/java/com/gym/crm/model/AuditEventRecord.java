@@ -0,0 +1,40 @@
+package com.gym.crm.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Audit event kept for the retention window. The entity only defines the table; rows are
+ * inserted in JDBC batches and read by {@code JdbcAuditEventStore}.
+ */
+@Entity
+@Table(name = "audit_event", indexes = {
+        @Index(name = "idx_audit_event_time", columnList = "event_time"),
+        @Index(name = "idx_audit_event_principal", columnList = "principal, event_time")
+})
+@Data
+@NoArgsConstructor
+public class AuditEventRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_time", nullable = false)
+    private Instant eventTime;
+
+    @Column(name = "principal", nullable = false)
+    private String principal;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    /**
+     * Event data serialized as a JSON object.
+     */
+    @Column(name = "event_data", columnDefinition = "text")
+    private String eventData;
+}
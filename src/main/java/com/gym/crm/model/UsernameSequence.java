@@ -0,0 +1,25 @@
+package com.gym.crm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-base-name counter of the last username suffix handed out, e.g. "John.Doe" -> 3
+ * once John.Doe, John.Doe2 and John.Doe3 have been allocated.
+ */
+@Entity
+@Table(name = "username_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsernameSequence {
+
+    @Id
+    @Column(name = "base_username", nullable = false)
+    private String baseUsername;
+
+    @Column(name = "last_suffix", nullable = false)
+    private Integer lastSuffix;
+}
@@ -0,0 +1,46 @@
+package com.gym.crm.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Workload event waiting to be published to TRAINER-WORKLOAD-SERVICE. Rows are written in
+ * the same transaction as the training change and removed once the relay has sent them.
+ * While a relay is sending a row it holds a lease on it until {@code leaseUntil}.
+ */
+@Entity
+@Table(name = "workload_outbox", indexes = @Index(name = "idx_workload_outbox_trainer", columnList = "trainer_username"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkloadOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "trainer_username", nullable = false)
+    private String trainerUsername;
+
+    /**
+     * Serialized WorkloadRequestDto.
+     */
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    public WorkloadOutboxEvent(String trainerUsername, String payload, Instant createdAt) {
+        this.trainerUsername = trainerUsername;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.gym.crm.mongo.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports DOWN while any index declared on the trainer summary documents is missing. It is
+ * part of the readiness group, so an instance without its indexes does not receive traffic.
+ */
+@Component
+@ConditionalOnEnabledHealthIndicator("mongo-index")
+@RequiredArgsConstructor
+public class MongoIndexHealthIndicator extends AbstractHealthIndicator {
+
+    private final MongoIndexInitializer indexInitializer;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        Map<String, List<String>> missing = indexInitializer.missingIndexes();
+        if (missing.isEmpty()) {
+            builder.up();
+        } else {
+            builder.down().withDetail("missingIndexes", missing);
+        }
+    }
+}
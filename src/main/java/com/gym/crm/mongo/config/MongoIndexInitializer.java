@@ -0,0 +1,105 @@
+package com.gym.crm.mongo.config;
+
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared on the trainer summary documents at startup, so that every
+ * summary lookup and upsert goes through an index instead of a collection scan. Mongo's
+ * own index auto-creation stays disabled; the same declarations drive
+ * {@link MongoIndexHealthIndicator}.
+ */
+@Component
+@Slf4j
+public class MongoIndexInitializer {
+
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(TrainerTrainingSummary.class, TrainerMonthlySummary.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoPersistentEntityIndexResolver indexResolver;
+    private final boolean ensureOnStartup;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate,
+                                 MongoMappingContext mappingContext,
+                                 @Value("${workload.summary.ensure-indexes:true}") boolean ensureOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexResolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        this.ensureOnStartup = ensureOnStartup;
+    }
+
+    @PostConstruct
+    public void ensureOnStartup() {
+        if (ensureOnStartup) {
+            ensureIndexes();
+        }
+    }
+
+    /**
+     * Creates missing indexes. A failure, e.g. duplicate trainer documents preventing a unique
+     * index, is logged and left to the health check rather than stopping the application.
+     */
+    public void ensureIndexes() {
+        for (Class<?> document : INDEXED_DOCUMENTS) {
+            for (IndexDefinition index : indexResolver.resolveIndexFor(document)) {
+                try {
+                    mongoTemplate.indexOps(document).ensureIndex(index);
+                } catch (DataAccessException e) {
+                    log.error("Unable to create index {} on {}: {}",
+                            index.getIndexOptions().get("name"), mongoTemplate.getCollectionName(document), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Declared indexes that are absent, or present without the declared uniqueness, per collection.
+     */
+    public Map<String, List<String>> missingIndexes() {
+        Map<String, List<String>> missing = new LinkedHashMap<>();
+        for (Class<?> document : INDEXED_DOCUMENTS) {
+            Set<String> existing = mongoTemplate.indexOps(document).getIndexInfo().stream()
+                    .map(MongoIndexInitializer::signature)
+                    .collect(Collectors.toSet());
+            List<String> absent = new ArrayList<>();
+            for (IndexDefinition index : indexResolver.resolveIndexFor(document)) {
+                if (!existing.contains(signature(index))) {
+                    absent.add(String.valueOf(index.getIndexOptions().get("name")));
+                }
+            }
+            if (!absent.isEmpty()) {
+                missing.put(mongoTemplate.getCollectionName(document), absent);
+            }
+        }
+        return missing;
+    }
+
+    private static String signature(IndexDefinition index) {
+        Document keys = index.getIndexKeys();
+        return String.join(",", keys.keySet()) + (Boolean.TRUE.equals(index.getIndexOptions().get("unique")) ? ":unique" : "");
+    }
+
+    private static String signature(IndexInfo index) {
+        return index.getIndexFields().stream()
+                .map(IndexField::getKey)
+                .collect(Collectors.joining(",")) + (index.isUnique() ? ":unique" : "");
+    }
+}
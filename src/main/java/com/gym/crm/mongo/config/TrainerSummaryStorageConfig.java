@@ -0,0 +1,43 @@
+package com.gym.crm.mongo.config;
+
+import com.gym.crm.mongo.service.FlatTrainerSummaryStore;
+import com.gym.crm.mongo.service.NestedTrainerSummaryStore;
+import com.gym.crm.mongo.service.TrainerSummaryStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Selects the storage layout of trainer summaries. NESTED keeps one document per trainer
+ * with years and months as arrays; FLAT keeps one document per trainer and month.
+ */
+@Configuration
+@Slf4j
+public class TrainerSummaryStorageConfig {
+
+    @Value("${workload.summary.storage:NESTED}")
+    private SummaryStorage storage;
+
+    @Value("${workload.summary.ensure-indexes:true}")
+    private boolean ensureIndexes;
+
+    @Bean
+    public TrainerSummaryStore trainerSummaryStore(MongoTemplate mongoTemplate) {
+        log.info("Trainer summaries use {} storage", storage);
+        if (storage == SummaryStorage.FLAT) {
+            FlatTrainerSummaryStore store = new FlatTrainerSummaryStore(mongoTemplate);
+            if (ensureIndexes) {
+                store.ensureIndexes();
+            }
+            return store;
+        }
+        return new NestedTrainerSummaryStore(mongoTemplate);
+    }
+
+    public enum SummaryStorage {
+        NESTED,
+        FLAT
+    }
+}
@@ -38,6 +38,16 @@ public class TrainerTrainingEvent {
     @Min(1)
     private Integer trainingDuration;
 
+    @NotNull
+    @Builder.Default
+    private TrainingActionType actionType = TrainingActionType.ADD;
+
+    /**
+     * Identifier of the training in the CRM; together with the transaction id it identifies
+     * the event so that redelivered messages are applied only once.
+     */
+    private Long trainingId;
+
     /**
      * Propagated transaction identifier for distributed logging.
      */
@@ -0,0 +1,9 @@
+package com.gym.crm.mongo.dto;
+
+/**
+ * Whether a training event adds to or removes from the trainer's monthly total.
+ */
+public enum TrainingActionType {
+    ADD,
+    DELETE
+}
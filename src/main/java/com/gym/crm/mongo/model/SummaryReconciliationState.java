@@ -0,0 +1,31 @@
+package com.gym.crm.mongo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of the trainer summary reconciliation: trainings up to {@code lastTrainingId}
+ * have been compared with the summaries.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "summary_reconciliation_state")
+public class SummaryReconciliationState {
+
+    @Id
+    private String id;
+
+    private long lastTrainingId;
+
+    private Instant lastRunAt;
+
+    private String lastRunMode;
+}
@@ -0,0 +1,73 @@
+package com.gym.crm.mongo.model;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MongoDB document holding the aggregated training duration of one trainer in one month.
+ * Flat alternative to the nested {@link TrainerTrainingSummary}: documents stay small and
+ * every update or range read goes through the unique (trainer, year, month) index.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "trainer_monthly_summary")
+@CompoundIndexes({
+        @CompoundIndex(name = "trainer_year_month_idx", def = "{'trainerUsername': 1, 'year': 1, 'month': 1}", unique = true)
+})
+public class TrainerMonthlySummary {
+
+    @Id
+    private String id;
+
+    @NotBlank
+    private String trainerUsername;
+
+    @NotBlank
+    private String trainerFirstName;
+
+    @NotBlank
+    private String trainerLastName;
+
+    @NotNull
+    private Boolean trainerStatus;
+
+    @Min(1900)
+    private int year;
+
+    @Min(1)
+    @Max(12)
+    private int month;
+
+    /**
+     * Aggregate duration (e.g., minutes) for the month.
+     */
+    @NotNull
+    private Integer trainingsSummaryDuration;
+
+    /**
+     * Time of the last change; the most recently changed month carries the current trainer profile.
+     */
+    private Instant updatedAt;
+
+    /**
+     * Keys of the most recently applied events of this month, used to ignore redelivered messages.
+     */
+    @Builder.Default
+    private List<String> processedEventKeys = new ArrayList<>();
+}
@@ -12,8 +12,10 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,6 +37,7 @@ public class TrainerTrainingSummary {
     private String id;
 
     @NotBlank
+    @Indexed(name = "trainer_username_idx", unique = true)
     private String trainerUsername;
 
     @NotBlank
@@ -50,6 +53,18 @@ public class TrainerTrainingSummary {
     @Valid
     private List<YearSummary> years = new ArrayList<>();
 
+    /**
+     * Time of the last change applied by an event, from the database clock; reconciliation
+     * leaves trainers changed during its run alone.
+     */
+    private Instant updatedAt;
+
+    /**
+     * Keys of the most recently applied events, used to ignore redelivered messages.
+     */
+    @Builder.Default
+    private List<String> processedEventKeys = new ArrayList<>();
+
     @Data
     @Builder
     @NoArgsConstructor
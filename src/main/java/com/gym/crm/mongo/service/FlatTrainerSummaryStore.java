@@ -0,0 +1,254 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.mongodb.bulk.BulkWriteError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores one {@link TrainerMonthlySummary} document per trainer and month. Every change is a
+ * single atomic update of that small document, located through the unique
+ * (trainer, year, month) index, so update cost does not grow with the trainer's history.
+ * Months that drop to zero keep their document and are hidden by {@link TrainerSummaryAssembler}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class FlatTrainerSummaryStore implements TrainerSummaryStore {
+
+    private static final String TRAINER_USERNAME = "trainerUsername";
+    private static final String YEAR = "year";
+    private static final String MONTH = "month";
+    private static final String DURATION = "trainingsSummaryDuration";
+    private static final String PROCESSED_EVENT_KEYS = "processedEventKeys";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final int PROCESSED_EVENT_WINDOW = 1000;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Creates the unique (trainer, year, month) index the upserts depend on.
+     */
+    public void ensureIndexes() {
+        mongoTemplate.indexOps(TrainerMonthlySummary.class).ensureIndex(new Index()
+                .on(TRAINER_USERNAME, Sort.Direction.ASC)
+                .on(YEAR, Sort.Direction.ASC)
+                .on(MONTH, Sort.Direction.ASC)
+                .unique()
+                .named("trainer_year_month_idx"));
+    }
+
+    @Override
+    public boolean applyDelta(TrainerTrainingEvent profile, int year, int month, int delta, List<String> keys) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                if (delta >= 0) {
+                    // A month already holding one of the keys does not match, so the upsert collides on the unique index
+                    mongoTemplate.upsert(Query.query(notProcessed(monthCriteria(profile, year, month), keys)),
+                            monthUpdate(profile, keys).inc(DURATION, delta), TrainerMonthlySummary.class);
+                    return true;
+                }
+                if (decrement(profile, year, month, -delta, keys)) {
+                    return true;
+                }
+            } catch (DuplicateKeyException e) {
+                log.debug("Monthly summary of trainer {} for {}-{} was created concurrently",
+                        profile.getTrainerUsername(), year, month);
+            }
+            if (alreadyProcessed(profile, year, month, keys)) {
+                return false;
+            }
+        }
+        throw new IllegalStateException("Unable to update training summary of trainer " + profile.getTrainerUsername());
+    }
+
+    /**
+     * Applies all increments as one unordered bulk of upserts. An upsert whose month already
+     * holds one of its keys, or whose document was created concurrently, fails on the unique
+     * index and is handed back to the caller.
+     */
+    @Override
+    public List<SummaryDelta> applyBatch(List<SummaryDelta> deltas) {
+        List<SummaryDelta> bulk = new ArrayList<>();
+        List<SummaryDelta> rejected = new ArrayList<>();
+        deltas.forEach(delta -> (delta.delta() >= 0 ? bulk : rejected).add(delta));
+        if (bulk.isEmpty()) {
+            return rejected;
+        }
+
+        BulkOperations upserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainerMonthlySummary.class);
+        for (SummaryDelta delta : bulk) {
+            upserts.upsert(Query.query(notProcessed(monthCriteria(delta.profile(), delta.year(), delta.month()), delta.keys())),
+                    monthUpdate(delta.profile(), delta.keys()).inc(DURATION, delta.delta()));
+        }
+        try {
+            upserts.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                rejected.add(bulk.get(error.getIndex()));
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Zero totals keep their document, which {@link TrainerSummaryAssembler} hides. A month
+     * changed since {@code unchangedSince} does not match its upsert, which then collides with
+     * that month on the unique index and is handed back.
+     */
+    @Override
+    public List<SummaryDelta> writeTotals(List<SummaryDelta> totals, Instant unchangedSince) {
+        if (totals.isEmpty()) {
+            return List.of();
+        }
+        Criteria unchanged = new Criteria().orOperator(
+                Criteria.where(UPDATED_AT).lt(unchangedSince), Criteria.where(UPDATED_AT).exists(false));
+        BulkOperations upserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainerMonthlySummary.class);
+        for (SummaryDelta total : totals) {
+            upserts.upsert(Query.query(new Criteria().andOperator(monthCriteria(total.profile(), total.year(), total.month()), unchanged)),
+                    monthUpdate(total.profile(), List.of()).set(DURATION, Math.max(0, total.delta())));
+        }
+        List<SummaryDelta> skipped = new ArrayList<>();
+        try {
+            upserts.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                skipped.add(totals.get(error.getIndex()));
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Subtracts the duration from a month holding at least that much, otherwise sets the month
+     * to zero. A month without a document gets a zero document that records the keys, so a
+     * later redelivery stays a no-op.
+     */
+    private boolean decrement(TrainerTrainingEvent profile, int year, int month, int duration, List<String> keys) {
+        Criteria sufficient = monthCriteria(profile, year, month).and(DURATION).gte(duration);
+        if (mongoTemplate.updateFirst(Query.query(notProcessed(sufficient, keys)),
+                monthUpdate(profile, keys).inc(DURATION, -duration), TrainerMonthlySummary.class).getMatchedCount() > 0) {
+            return true;
+        }
+        Criteria insufficient = monthCriteria(profile, year, month).and(DURATION).lt(duration);
+        if (mongoTemplate.updateFirst(Query.query(notProcessed(insufficient, keys)),
+                monthUpdate(profile, keys).set(DURATION, 0), TrainerMonthlySummary.class).getMatchedCount() > 0) {
+            return true;
+        }
+        if (mongoTemplate.exists(Query.query(monthCriteria(profile, year, month)), TrainerMonthlySummary.class)) {
+            // The month exists, so either the keys were applied or the total changed in between
+            return false;
+        }
+        log.warn("No training total for trainer {} in {}-{} to subtract {} from",
+                profile.getTrainerUsername(), year, month, duration);
+        mongoTemplate.upsert(Query.query(monthCriteria(profile, year, month)),
+                monthUpdate(profile, keys).setOnInsert(DURATION, 0), TrainerMonthlySummary.class);
+        return true;
+    }
+
+    private boolean alreadyProcessed(TrainerTrainingEvent profile, int year, int month, List<String> keys) {
+        return !keys.isEmpty() && mongoTemplate.exists(
+                Query.query(monthCriteria(profile, year, month).and(PROCESSED_EVENT_KEYS).in(keys)),
+                TrainerMonthlySummary.class);
+    }
+
+    private static Criteria monthCriteria(TrainerTrainingEvent profile, int year, int month) {
+        return Criteria.where(TRAINER_USERNAME).is(profile.getTrainerUsername()).and(YEAR).is(year).and(MONTH).is(month);
+    }
+
+    private static Criteria notProcessed(Criteria criteria, List<String> keys) {
+        return keys.isEmpty() ? criteria : criteria.and(PROCESSED_EVENT_KEYS).nin(keys);
+    }
+
+    /**
+     * Profile refresh, change timestamp and the record of the applied event keys.
+     */
+    private static Update monthUpdate(TrainerTrainingEvent profile, List<String> keys) {
+        Update update = new Update()
+                .set("trainerFirstName", profile.getTrainerFirstName())
+                .set("trainerLastName", profile.getTrainerLastName())
+                .set("trainerStatus", profile.getTrainerStatus())
+                .currentDate(UPDATED_AT);
+        if (!keys.isEmpty()) {
+            update.push(PROCESSED_EVENT_KEYS).slice(-PROCESSED_EVENT_WINDOW).each(keys.toArray());
+        }
+        return update;
+    }
+
+    @Override
+    public Optional<TrainerTrainingSummary> findByTrainerUsername(String trainerUsername) {
+        Query query = Query.query(Criteria.where(TRAINER_USERNAME).is(trainerUsername))
+                .with(Sort.by(YEAR, MONTH));
+        query.fields().exclude(PROCESSED_EVENT_KEYS);
+        return TrainerSummaryAssembler.assemble(mongoTemplate.find(query, TrainerMonthlySummary.class));
+    }
+
+    /**
+     * Reads only the non-empty monthly documents in range through the (trainer, year, month)
+     * index, without the recorded event keys.
+     */
+    @Override
+    public List<TrainerTrainingSummary> findMonthlyTotals(Collection<String> trainerUsernames, YearMonth from, YearMonth to) {
+        Criteria afterStart = new Criteria().orOperator(
+                Criteria.where(YEAR).gt(from.getYear()),
+                Criteria.where(YEAR).is(from.getYear()).and(MONTH).gte(from.getMonthValue()));
+        Criteria beforeEnd = new Criteria().orOperator(
+                Criteria.where(YEAR).lt(to.getYear()),
+                Criteria.where(YEAR).is(to.getYear()).and(MONTH).lte(to.getMonthValue()));
+        Query query = Query.query(Criteria.where(TRAINER_USERNAME).in(trainerUsernames)
+                        .and(YEAR).gte(from.getYear()).lte(to.getYear())
+                        .and(DURATION).gt(0)
+                        .andOperator(afterStart, beforeEnd))
+                .with(Sort.by(TRAINER_USERNAME, YEAR, MONTH));
+        query.fields().exclude(PROCESSED_EVENT_KEYS);
+
+        Map<String, List<TrainerMonthlySummary>> monthsByTrainer = mongoTemplate.find(query, TrainerMonthlySummary.class)
+                .stream()
+                .collect(Collectors.groupingBy(TrainerMonthlySummary::getTrainerUsername, LinkedHashMap::new, Collectors.toList()));
+        return monthsByTrainer.values().stream()
+                .flatMap(months -> TrainerSummaryAssembler.assemble(months).stream())
+                .toList();
+    }
+
+    /**
+     * Walks the non-empty monthly documents in trainer order along the (trainer, year, month)
+     * index, reading only the username.
+     */
+    @Override
+    public Stream<String> streamTrainerUsernames() {
+        Query query = Query.query(Criteria.where(DURATION).gt(0)).with(Sort.by(TRAINER_USERNAME));
+        query.fields().include(TRAINER_USERNAME);
+        return mongoTemplate.stream(query, TrainerMonthlySummary.class)
+                .map(TrainerMonthlySummary::getTrainerUsername)
+                .distinct();
+    }
+}
@@ -0,0 +1,436 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores all totals of a trainer in one {@link TrainerTrainingSummary} document with nested
+ * years and months. Changes are single atomic updates on the matching bucket through array
+ * filters; months and years left empty are pulled from the document. The keys of applied
+ * events are kept in a capped list on the trainer document.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class NestedTrainerSummaryStore implements TrainerSummaryStore {
+
+    private static final String TRAINER_USERNAME = "trainerUsername";
+    private static final String YEARS = "years";
+    private static final String MONTHS_OF_YEAR = "years.$[y].months";
+    private static final String MONTH_DURATION = "years.$[y].months.$[m].trainingsSummaryDuration";
+    private static final String PROCESSED_EVENT_KEYS = "processedEventKeys";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final int PROCESSED_EVENT_WINDOW = 1000;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean applyDelta(TrainerTrainingEvent profile, int year, int month, int delta, List<String> keys) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            if (delta >= 0 ? increment(profile, year, month, delta, keys) : decrement(profile, year, month, -delta, keys)) {
+                return true;
+            }
+            if (!keys.isEmpty() && mongoTemplate.exists(Query.query(Criteria.where(TRAINER_USERNAME)
+                    .is(profile.getTrainerUsername()).and(PROCESSED_EVENT_KEYS).in(keys)), TrainerTrainingSummary.class)) {
+                return false;
+            }
+            if (delta < 0) {
+                // Nothing recorded for this month; record the keys so a later redelivery stays a no-op
+                recordKeys(profile, keys);
+                log.warn("No training total for trainer {} in {}-{} to subtract {} from",
+                        profile.getTrainerUsername(), year, month, -delta);
+                return true;
+            }
+            ensureMonthBucket(profile, year, month);
+        }
+        throw new IllegalStateException("Unable to update training summary of trainer " + profile.getTrainerUsername());
+    }
+
+    /**
+     * Creates all missing trainer documents, years and month buckets with three unordered
+     * bulk writes, then applies every increment in one more. Updates guarded by the event keys
+     * that match nothing are found by reading back the recorded keys of the trainers; changes
+     * without keys leave no such trace, so they are handed back to be applied one by one.
+     */
+    @Override
+    public List<SummaryDelta> applyBatch(List<SummaryDelta> deltas) {
+        Map<String, Long> keysPerTrainer = deltas.stream().collect(Collectors.groupingBy(
+                delta -> delta.profile().getTrainerUsername(), Collectors.summingLong(delta -> delta.keys().size())));
+        List<SummaryDelta> bulk = new ArrayList<>();
+        List<SummaryDelta> rejected = new ArrayList<>();
+        for (SummaryDelta delta : deltas) {
+            // Beyond the key window the read-back below could not tell applied changes apart
+            boolean fitsWindow = keysPerTrainer.get(delta.profile().getTrainerUsername()) <= PROCESSED_EVENT_WINDOW;
+            (delta.delta() >= 0 && fitsWindow && !delta.keys().isEmpty() ? bulk : rejected).add(delta);
+        }
+        if (bulk.isEmpty()) {
+            return rejected;
+        }
+
+        ensureMonthBuckets(bulk);
+        BulkOperations increments = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainerTrainingSummary.class);
+        for (SummaryDelta delta : bulk) {
+            Criteria bucket = Criteria.where(TRAINER_USERNAME).is(delta.profile().getTrainerUsername())
+                    .and(YEARS).elemMatch(Criteria.where("year").is(delta.year()).and("months.month").is(delta.month()));
+            increments.updateOne(Query.query(notProcessed(bucket, delta.keys())),
+                    monthUpdate(delta.profile(), delta.year(), delta.month(), delta.keys()).inc(MONTH_DURATION, delta.delta()));
+        }
+        if (increments.execute().getMatchedCount() < bulk.size()) {
+            rejected.addAll(unapplied(bulk));
+        }
+        return rejected;
+    }
+
+    /**
+     * Trainers changed since {@code unchangedSince} are left out up front; every update is
+     * guarded by the same condition, so an event landing between that check and the write
+     * still wins, it is just not reported. The written totals do not move the change time, so
+     * the months of one trainer do not invalidate each other's guard.
+     */
+    @Override
+    public List<SummaryDelta> writeTotals(List<SummaryDelta> totals, Instant unchangedSince) {
+        if (totals.isEmpty()) {
+            return List.of();
+        }
+        Set<String> changed = changedTrainers(totals, unchangedSince);
+        List<SummaryDelta> skipped = new ArrayList<>();
+        List<SummaryDelta> writes = new ArrayList<>();
+        totals.forEach(total -> (changed.contains(total.profile().getTrainerUsername()) ? skipped : writes).add(total));
+        if (writes.isEmpty()) {
+            return skipped;
+        }
+        ensureMonthBuckets(writes.stream().filter(total -> total.delta() > 0).toList());
+
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainerTrainingSummary.class);
+        Set<TrainerMonth> emptied = new LinkedHashSet<>();
+        for (SummaryDelta total : writes) {
+            Criteria bucket = Criteria.where(TRAINER_USERNAME).is(total.profile().getTrainerUsername())
+                    .and(YEARS).elemMatch(Criteria.where("year").is(total.year()).and("months.month").is(total.month()));
+            updates.updateOne(Query.query(new Criteria().andOperator(bucket, unchangedBefore(unchangedSince))),
+                    profileUpdate(total.profile())
+                            .filterArray(Criteria.where("y.year").is(total.year()))
+                            .filterArray(Criteria.where("m.month").is(total.month()))
+                            .set(MONTH_DURATION, Math.max(0, total.delta())));
+            if (total.delta() <= 0) {
+                emptied.add(new TrainerMonth(total.profile().getTrainerUsername(), total.year(), total.month()));
+            }
+        }
+        updates.execute();
+        emptied.forEach(trainerMonth -> pruneEmptyBuckets(
+                trainerMonth.trainerUsername(), trainerMonth.year(), trainerMonth.month()));
+        return skipped;
+    }
+
+    private Set<String> changedTrainers(List<SummaryDelta> totals, Instant since) {
+        Set<String> trainers = totals.stream()
+                .map(total -> total.profile().getTrainerUsername())
+                .collect(Collectors.toSet());
+        Query query = Query.query(Criteria.where(TRAINER_USERNAME).in(trainers).and(UPDATED_AT).gte(since));
+        query.fields().include(TRAINER_USERNAME);
+        return mongoTemplate.find(query, TrainerTrainingSummary.class).stream()
+                .map(TrainerTrainingSummary::getTrainerUsername)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Documents written before the change time was recorded have none and count as unchanged.
+     */
+    private static Criteria unchangedBefore(Instant since) {
+        return new Criteria().orOperator(Criteria.where(UPDATED_AT).lt(since), Criteria.where(UPDATED_AT).exists(false));
+    }
+
+    /**
+     * A change that matched recorded all of its keys, so any change missing one of its keys
+     * matched nothing: it was rejected by the key guard or its bucket was pruned in between.
+     * Only changes with keys reach the bulk, see {@link #applyBatch}.
+     */
+    private List<SummaryDelta> unapplied(List<SummaryDelta> deltas) {
+        Set<String> trainers = deltas.stream()
+                .map(delta -> delta.profile().getTrainerUsername())
+                .collect(Collectors.toSet());
+        Query query = Query.query(Criteria.where(TRAINER_USERNAME).in(trainers));
+        query.fields().include(TRAINER_USERNAME, PROCESSED_EVENT_KEYS);
+        Map<String, Set<String>> recordedKeys = new HashMap<>();
+        mongoTemplate.find(query, TrainerTrainingSummary.class).forEach(summary ->
+                recordedKeys.put(summary.getTrainerUsername(), new HashSet<>(summary.getProcessedEventKeys())));
+
+        return deltas.stream()
+                .filter(delta -> !recordedKeys.getOrDefault(delta.profile().getTrainerUsername(), Set.of())
+                        .containsAll(delta.keys()))
+                .toList();
+    }
+
+    /**
+     * Bulk version of {@link #ensureMonthBucket}: trainer documents, then years, then months,
+     * each step guarded by its query.
+     */
+    private void ensureMonthBuckets(List<SummaryDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<String, TrainerTrainingEvent> profiles = new LinkedHashMap<>();
+        Set<TrainerYear> years = new LinkedHashSet<>();
+        deltas.forEach(delta -> {
+            profiles.putIfAbsent(delta.profile().getTrainerUsername(), delta.profile());
+            years.add(new TrainerYear(delta.profile().getTrainerUsername(), delta.year()));
+        });
+
+        BulkOperations trainers = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainerTrainingSummary.class);
+        profiles.forEach((username, profile) -> trainers.upsert(Query.query(Criteria.where(TRAINER_USERNAME).is(username)),
+                new Update()
+                        .setOnInsert("trainerFirstName", profile.getTrainerFirstName())
+                        .setOnInsert("trainerLastName", profile.getTrainerLastName())
+                        .setOnInsert("trainerStatus", profile.getTrainerStatus())
+                        .setOnInsert(YEARS, new ArrayList<>())
+                        .setOnInsert(PROCESSED_EVENT_KEYS, new ArrayList<>())));
+        executeIgnoringDuplicates(trainers);
+
+        BulkOperations yearBuckets = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainerTrainingSummary.class);
+        years.forEach(trainerYear -> yearBuckets.updateOne(
+                Query.query(Criteria.where(TRAINER_USERNAME).is(trainerYear.trainerUsername())
+                        .and("years.year").ne(trainerYear.year())),
+                new Update().push(YEARS, new Document("year", trainerYear.year()).append("months", new ArrayList<>()))));
+        yearBuckets.execute();
+
+        BulkOperations monthBuckets = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainerTrainingSummary.class);
+        deltas.forEach(delta -> monthBuckets.updateOne(
+                Query.query(Criteria.where(TRAINER_USERNAME).is(delta.profile().getTrainerUsername())
+                        .and(YEARS).elemMatch(Criteria.where("year").is(delta.year()).and("months.month").ne(delta.month()))),
+                new Update()
+                        .push(MONTHS_OF_YEAR, new Document("month", delta.month()).append("trainingsSummaryDuration", 0))
+                        .filterArray(Criteria.where("y.year").is(delta.year()))));
+        monthBuckets.execute();
+    }
+
+    private static void executeIgnoringDuplicates(BulkOperations operations) {
+        try {
+            operations.execute();
+        } catch (BulkOperationException e) {
+            // Documents created concurrently by another writer collide on the unique index
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    private boolean increment(TrainerTrainingEvent profile, int year, int month, int duration, List<String> keys) {
+        Criteria bucket = Criteria.where(TRAINER_USERNAME).is(profile.getTrainerUsername())
+                .and(YEARS).elemMatch(Criteria.where("year").is(year).and("months.month").is(month));
+        Update update = monthUpdate(profile, year, month, keys).inc(MONTH_DURATION, duration);
+        return mongoTemplate.updateFirst(Query.query(notProcessed(bucket, keys)), update, TrainerTrainingSummary.class)
+                .getMatchedCount() > 0;
+    }
+
+    /**
+     * Subtracts the duration from a month holding at least that much, otherwise sets the
+     * month to zero. Months and years that end up empty are pruned afterwards.
+     */
+    private boolean decrement(TrainerTrainingEvent profile, int year, int month, int duration, List<String> keys) {
+        boolean applied = false;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS && !applied; attempt++) {
+            Criteria sufficient = monthWithDuration(profile, year, month, Criteria.where("trainingsSummaryDuration").gte(duration));
+            applied = mongoTemplate.updateFirst(Query.query(notProcessed(sufficient, keys)),
+                    monthUpdate(profile, year, month, keys).inc(MONTH_DURATION, -duration),
+                    TrainerTrainingSummary.class).getMatchedCount() > 0;
+            if (!applied) {
+                Criteria insufficient = monthWithDuration(profile, year, month, Criteria.where("trainingsSummaryDuration").lt(duration));
+                applied = mongoTemplate.updateFirst(Query.query(notProcessed(insufficient, keys)),
+                        monthUpdate(profile, year, month, keys).set(MONTH_DURATION, 0),
+                        TrainerTrainingSummary.class).getMatchedCount() > 0;
+            }
+            if (!applied && !unprocessedMonthExists(profile.getTrainerUsername(), year, month, keys)) {
+                return false;
+            }
+        }
+        if (applied) {
+            pruneEmptyBuckets(profile.getTrainerUsername(), year, month);
+        }
+        return applied;
+    }
+
+    /**
+     * Pulls the given month if it is at zero, then its year if that left it without months.
+     * Other zero months are left alone: they may just have been created by a concurrent writer
+     * that is about to increment them.
+     */
+    private void pruneEmptyBuckets(String trainerUsername, int year, int month) {
+        Query trainer = Query.query(Criteria.where(TRAINER_USERNAME).is(trainerUsername));
+        mongoTemplate.updateFirst(trainer,
+                new Update()
+                        .pull(MONTHS_OF_YEAR, new Document("month", month).append("trainingsSummaryDuration", 0))
+                        .filterArray(Criteria.where("y.year").is(year)),
+                TrainerTrainingSummary.class);
+        mongoTemplate.updateFirst(trainer,
+                new Update().pull(YEARS, new Document("year", year).append("months", new Document("$size", 0))),
+                TrainerTrainingSummary.class);
+    }
+
+    private void recordKeys(TrainerTrainingEvent profile, List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Update update = new Update();
+        update.push(PROCESSED_EVENT_KEYS).slice(-PROCESSED_EVENT_WINDOW).each(keys.toArray());
+        mongoTemplate.updateFirst(Query.query(Criteria.where(TRAINER_USERNAME).is(profile.getTrainerUsername())),
+                update, TrainerTrainingSummary.class);
+    }
+
+    private boolean unprocessedMonthExists(String trainerUsername, int year, int month, List<String> keys) {
+        Criteria bucket = Criteria.where(TRAINER_USERNAME).is(trainerUsername)
+                .and(YEARS).elemMatch(Criteria.where("year").is(year).and("months.month").is(month));
+        return mongoTemplate.exists(Query.query(notProcessed(bucket, keys)), TrainerTrainingSummary.class);
+    }
+
+    private static Criteria monthWithDuration(TrainerTrainingEvent profile, int year, int month, Criteria duration) {
+        return Criteria.where(TRAINER_USERNAME).is(profile.getTrainerUsername())
+                .and(YEARS).elemMatch(Criteria.where("year").is(year)
+                        .and("months").elemMatch(Criteria.where("month").is(month).andOperator(duration)));
+    }
+
+    private static Criteria notProcessed(Criteria criteria, List<String> keys) {
+        return keys.isEmpty() ? criteria : criteria.and(PROCESSED_EVENT_KEYS).nin(keys);
+    }
+
+    /**
+     * Profile refresh, change timestamp, array filters for the month bucket and the record of
+     * the applied event keys.
+     */
+    private static Update monthUpdate(TrainerTrainingEvent profile, int year, int month, List<String> keys) {
+        Update update = profileUpdate(profile)
+                .currentDate(UPDATED_AT)
+                .filterArray(Criteria.where("y.year").is(year))
+                .filterArray(Criteria.where("m.month").is(month));
+        if (!keys.isEmpty()) {
+            update.push(PROCESSED_EVENT_KEYS).slice(-PROCESSED_EVENT_WINDOW).each(keys.toArray());
+        }
+        return update;
+    }
+
+    /**
+     * Creates the trainer document, the year and the month bucket if they do not exist yet.
+     * Each step is guarded by its query, so concurrent callers cannot create duplicates.
+     */
+    private void ensureMonthBucket(TrainerTrainingEvent profile, int year, int month) {
+        String username = profile.getTrainerUsername();
+        try {
+            mongoTemplate.upsert(Query.query(Criteria.where(TRAINER_USERNAME).is(username)),
+                    new Update()
+                            .setOnInsert("trainerFirstName", profile.getTrainerFirstName())
+                            .setOnInsert("trainerLastName", profile.getTrainerLastName())
+                            .setOnInsert("trainerStatus", profile.getTrainerStatus())
+                            .setOnInsert(YEARS, new ArrayList<>())
+                            .setOnInsert(PROCESSED_EVENT_KEYS, new ArrayList<>()),
+                    TrainerTrainingSummary.class);
+        } catch (DuplicateKeyException e) {
+            // Another event created the document concurrently
+            log.debug("Trainer summary for {} was created concurrently", username);
+        }
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where(TRAINER_USERNAME).is(username).and("years.year").ne(year)),
+                new Update().push(YEARS, new Document("year", year).append("months", new ArrayList<>())),
+                TrainerTrainingSummary.class);
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where(TRAINER_USERNAME).is(username)
+                        .and(YEARS).elemMatch(Criteria.where("year").is(year).and("months.month").ne(month))),
+                new Update()
+                        .push(MONTHS_OF_YEAR, new Document("month", month).append("trainingsSummaryDuration", 0))
+                        .filterArray(Criteria.where("y.year").is(year)),
+                TrainerTrainingSummary.class);
+    }
+
+    private static Update profileUpdate(TrainerTrainingEvent profile) {
+        // Keep trainer profile data up to date
+        return new Update()
+                .set("trainerFirstName", profile.getTrainerFirstName())
+                .set("trainerLastName", profile.getTrainerLastName())
+                .set("trainerStatus", profile.getTrainerStatus());
+    }
+
+    @Override
+    public Optional<TrainerTrainingSummary> findByTrainerUsername(String trainerUsername) {
+        Query query = Query.query(Criteria.where(TRAINER_USERNAME).is(trainerUsername));
+        query.fields().exclude(PROCESSED_EVENT_KEYS);
+        return Optional.ofNullable(mongoTemplate.findOne(query, TrainerTrainingSummary.class));
+    }
+
+    /**
+     * Trims the years and months arrays on the server with nested {@code $filter} stages, so
+     * only the requested months of the requested trainers are returned.
+     */
+    @Override
+    public List<TrainerTrainingSummary> findMonthlyTotals(Collection<String> trainerUsernames, YearMonth from, YearMonth to) {
+        Document monthPeriod = new Document("$add", List.of(new Document("$multiply", List.of("$$y.year", 100)), "$$m.month"));
+        Document monthInRange = new Document("$and", List.of(
+                new Document("$gt", List.of("$$m.trainingsSummaryDuration", 0)),
+                new Document("$gte", List.of(monthPeriod, period(from))),
+                new Document("$lte", List.of(monthPeriod, period(to)))));
+        Document yearInRange = new Document("$and", List.of(
+                new Document("$gte", List.of("$$y.year", from.getYear())),
+                new Document("$lte", List.of("$$y.year", to.getYear()))));
+        Document trimmedYears = new Document("$map", new Document("input", filter("$" + YEARS, "y", yearInRange))
+                .append("as", "y")
+                .append("in", new Document("year", "$$y.year").append("months", filter("$$y.months", "m", monthInRange))));
+        Document nonEmptyYears = filter(trimmedYears, "y", new Document("$gt", List.of(new Document("$size", "$$y.months"), 0)));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(TRAINER_USERNAME).in(trainerUsernames)),
+                context -> new Document("$project", new Document(TRAINER_USERNAME, 1)
+                        .append("trainerFirstName", 1)
+                        .append("trainerLastName", 1)
+                        .append("trainerStatus", 1)
+                        .append(YEARS, nonEmptyYears)),
+                Aggregation.match(Criteria.where(YEARS).ne(List.of())));
+        return mongoTemplate.aggregate(aggregation, TrainerTrainingSummary.class, TrainerTrainingSummary.class)
+                .getMappedResults();
+    }
+
+    @Override
+    public Stream<String> streamTrainerUsernames() {
+        Query query = new Query();
+        query.fields().include(TRAINER_USERNAME);
+        return mongoTemplate.stream(query, TrainerTrainingSummary.class).map(TrainerTrainingSummary::getTrainerUsername);
+    }
+
+    private static Document filter(Object input, String variable, Document condition) {
+        return new Document("$filter", new Document("input", input).append("as", variable).append("cond", condition));
+    }
+
+    private static int period(YearMonth yearMonth) {
+        return yearMonth.getYear() * 100 + yearMonth.getMonthValue();
+    }
+
+    private record TrainerYear(String trainerUsername, int year) {
+    }
+
+    private record TrainerMonth(String trainerUsername, int year, int month) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rebuilds the nested trainer summary from flat monthly documents. Months with a zero
+ * total are left out, and so are years without any remaining month.
+ */
+public final class TrainerSummaryAssembler {
+
+    private TrainerSummaryAssembler() {
+    }
+
+    public static Optional<TrainerTrainingSummary> assemble(List<TrainerMonthlySummary> months) {
+        if (months.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<TrainerMonthlySummary> ordered = months.stream()
+                .sorted(Comparator.comparingInt(TrainerMonthlySummary::getYear)
+                        .thenComparingInt(TrainerMonthlySummary::getMonth))
+                .toList();
+        // Only the month touched by an event gets the profile refresh, so the last changed month is the current one
+        TrainerMonthlySummary profile = months.stream()
+                .max(Comparator.comparing(TrainerMonthlySummary::getUpdatedAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .orElseThrow();
+
+        List<YearSummary> years = new ArrayList<>();
+        YearSummary current = null;
+        for (TrainerMonthlySummary month : ordered) {
+            if (month.getTrainingsSummaryDuration() == null || month.getTrainingsSummaryDuration() <= 0) {
+                continue;
+            }
+            if (current == null || current.getYear() != month.getYear()) {
+                current = YearSummary.builder().year(month.getYear()).months(new ArrayList<>()).build();
+                years.add(current);
+            }
+            current.getMonths().add(MonthSummary.builder()
+                    .month(month.getMonth())
+                    .trainingsSummaryDuration(month.getTrainingsSummaryDuration())
+                    .build());
+        }
+
+        return Optional.of(TrainerTrainingSummary.builder()
+                .trainerUsername(profile.getTrainerUsername())
+                .trainerFirstName(profile.getTrainerFirstName())
+                .trainerLastName(profile.getTrainerLastName())
+                .trainerStatus(profile.getTrainerStatus())
+                .years(years)
+                .build());
+    }
+}
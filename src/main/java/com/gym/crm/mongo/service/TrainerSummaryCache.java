@@ -0,0 +1,111 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-side cache of trainer summary query results, grouped per trainer so that the summary
+ * writer can drop everything cached for a trainer it has just changed. Every trainer entry
+ * carries a version that changes on invalidation; a result is only stored under the version
+ * seen before it was read, so a slow read can never put back totals older than the latest write.
+ * The least recently used trainers are dropped beyond the configured capacity.
+ * <p>
+ * Invalidation only reaches the cache of the node whose writer made the change, so results
+ * also expire a short, configured time after they were stored; that bounds how stale another
+ * node's answer can get.
+ */
+@Component
+public class TrainerSummaryCache {
+
+    private final int maxTrainers;
+    private final int maxRangesPerTrainer;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, TrainerEntry> entries;
+    private long lastVersion;
+
+    @Autowired
+    public TrainerSummaryCache(@Value("${workload.summary.cache.max-trainers:10000}") int maxTrainers,
+                               @Value("${workload.summary.cache.max-ranges-per-trainer:16}") int maxRangesPerTrainer,
+                               @Value("${workload.summary.cache.ttl:5s}") Duration ttl) {
+        this(maxTrainers, maxRangesPerTrainer, ttl, System::nanoTime);
+    }
+
+    TrainerSummaryCache(int maxTrainers, int maxRangesPerTrainer, Duration ttl, LongSupplier nanoClock) {
+        this.maxTrainers = maxTrainers;
+        this.maxRangesPerTrainer = maxRangesPerTrainer;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TrainerEntry> eldest) {
+                return size() > TrainerSummaryCache.this.maxTrainers;
+            }
+        };
+    }
+
+    public synchronized Optional<TrainerTrainingSummary> get(String trainerUsername, YearMonth from, YearMonth to) {
+        TrainerEntry entry = entries.get(trainerUsername);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        Range range = new Range(from, to);
+        CachedResult cached = entry.results().get(range);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (nanoClock.getAsLong() - cached.storedAt() >= ttlNanos) {
+            entry.results().remove(range);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cached.summary());
+    }
+
+    /**
+     * Version to pass to {@link #put} for a result read from the database after this call.
+     */
+    public synchronized long version(String trainerUsername) {
+        return entries.computeIfAbsent(trainerUsername, trainer -> new TrainerEntry(++lastVersion, new HashMap<>()))
+                .version();
+    }
+
+    public synchronized void put(String trainerUsername, long version, YearMonth from, YearMonth to,
+                                 TrainerTrainingSummary summary) {
+        TrainerEntry entry = entries.get(trainerUsername);
+        if (entry == null || entry.version() != version) {
+            return;
+        }
+        if (entry.results().size() >= maxRangesPerTrainer) {
+            entry.results().clear();
+        }
+        entry.results().put(new Range(from, to), new CachedResult(summary, nanoClock.getAsLong()));
+    }
+
+    /**
+     * Drops all cached results of the trainer and rejects results of reads still in flight.
+     */
+    public synchronized void invalidate(String trainerUsername) {
+        if (entries.containsKey(trainerUsername)) {
+            entries.put(trainerUsername, new TrainerEntry(++lastVersion, new HashMap<>()));
+        }
+    }
+
+    private record TrainerEntry(long version, Map<Range, CachedResult> results) {
+    }
+
+    private record CachedResult(TrainerTrainingSummary summary, long storedAt) {
+    }
+
+    private record Range(YearMonth from, YearMonth to) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * Copies nested trainer summaries into the flat per-month collection. Trainer documents are
+ * streamed with a cursor and written with unordered bulk upserts that set the month totals,
+ * so the job can be rerun safely and does not hold the whole collection in memory.
+ * Processed event keys are not copied: the nested layout keeps them per trainer rather than
+ * per month, so redelivery protection starts afresh in the flat layout.
+ */
+@Component
+@Slf4j
+public class TrainerSummaryMigrationJob {
+
+    private final MongoTemplate mongoTemplate;
+    private final int bulkSize;
+    private final boolean migrateOnStartup;
+
+    public TrainerSummaryMigrationJob(MongoTemplate mongoTemplate,
+                                      @Value("${workload.summary.migration.bulk-size:1000}") int bulkSize,
+                                      @Value("${workload.summary.migrate-on-startup:false}") boolean migrateOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.bulkSize = bulkSize;
+        this.migrateOnStartup = migrateOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (migrateOnStartup) {
+            migrate();
+        }
+    }
+
+    /**
+     * @return number of monthly documents written
+     */
+    public long migrate() {
+        new FlatTrainerSummaryStore(mongoTemplate).ensureIndexes();
+        long started = System.currentTimeMillis();
+        long trainers = 0;
+        long written = 0;
+        int pending = 0;
+        BulkOperations bulk = newBulk();
+
+        try (Stream<TrainerTrainingSummary> summaries = mongoTemplate.stream(new Query(), TrainerTrainingSummary.class)) {
+            for (TrainerTrainingSummary summary : (Iterable<TrainerTrainingSummary>) summaries::iterator) {
+                trainers++;
+                for (YearSummary year : summary.getYears()) {
+                    for (MonthSummary month : year.getMonths()) {
+                        bulk.upsert(Query.query(Criteria.where("trainerUsername").is(summary.getTrainerUsername())
+                                        .and("year").is(year.getYear())
+                                        .and("month").is(month.getMonth())),
+                                new Update()
+                                        .set("trainerFirstName", summary.getTrainerFirstName())
+                                        .set("trainerLastName", summary.getTrainerLastName())
+                                        .set("trainerStatus", summary.getTrainerStatus())
+                                        .set("trainingsSummaryDuration", month.getTrainingsSummaryDuration())
+                                        .currentDate("updatedAt"));
+                        if (++pending == bulkSize) {
+                            bulk.execute();
+                            written += pending;
+                            pending = 0;
+                            bulk = newBulk();
+                        }
+                    }
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+            written += pending;
+        }
+
+        log.info("Migrated {} trainer summaries into {} monthly documents in {} ms",
+                trainers, written, System.currentTimeMillis() - started);
+        return written;
+    }
+
+    private BulkOperations newBulk() {
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainerMonthlySummary.class);
+    }
+}
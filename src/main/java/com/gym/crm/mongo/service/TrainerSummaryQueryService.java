@@ -0,0 +1,66 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.util.RequestTiming;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Read side of the trainer summaries: monthly totals of one or more trainers within a month
+ * range, served from {@link TrainerSummaryCache} where possible. Trainers missing from the
+ * cache are read together in one query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrainerSummaryQueryService {
+
+    private final TrainerSummaryStore summaryStore;
+    private final TrainerSummaryCache summaryCache;
+
+    /**
+     * @return summaries in the order the trainers were requested; trainers without any
+     * training in the range are left out
+     */
+    public List<TrainerTrainingSummary> findMonthlyTotals(Collection<String> trainerUsernames, YearMonth from, YearMonth to) {
+        Objects.requireNonNull(trainerUsernames, "trainerUsernames must not be null");
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start " + from + " is after its end " + to);
+        }
+
+        Set<String> trainers = new LinkedHashSet<>(trainerUsernames);
+        Map<String, TrainerTrainingSummary> found = new LinkedHashMap<>();
+        Map<String, Long> misses = new LinkedHashMap<>();
+        for (String trainer : trainers) {
+            summaryCache.get(trainer, from, to).ifPresentOrElse(
+                    summary -> found.put(trainer, summary),
+                    () -> misses.put(trainer, summaryCache.version(trainer)));
+        }
+
+        if (!misses.isEmpty()) {
+            List<TrainerTrainingSummary> loaded = RequestTiming.time(RequestTiming.DB,
+                    () -> summaryStore.findMonthlyTotals(misses.keySet(), from, to));
+            for (TrainerTrainingSummary summary : loaded) {
+                summaryCache.put(summary.getTrainerUsername(), misses.get(summary.getTrainerUsername()), from, to, summary);
+                found.put(summary.getTrainerUsername(), summary);
+            }
+        }
+        log.debug("Trainer summary query {}..{}: trainers={}, cached={}, found={}",
+                from, to, trainers.size(), trainers.size() - misses.size(), found.size());
+
+        return trainers.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,358 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.SummaryReconciliationState;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.service.TrainerSummaryStore.SummaryDelta;
+import com.gym.crm.repository.TrainerMonthTotal;
+import com.gym.crm.repository.TrainingRepository;
+import com.gym.crm.repository.WorkloadOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds trainer summaries from the trainings table. Monthly totals are aggregated by the
+ * database and streamed ordered by trainer; they are compared with the stored summaries a
+ * chunk of trainers at a time, and every month that differs is overwritten with bulk writes.
+ * <p>
+ * A full run checks every trainer with trainings, then zeroes the stored months of trainers
+ * that have none left. An incremental run only checks the trainers of trainings added since
+ * the previous run, tracked by a watermark on the training id; deleted trainings are only
+ * caught by a full run. Trainers with workload events still waiting
+ * in the outbox are skipped, as the pending events would be counted twice.
+ * <p>
+ * The database time is taken before the trainings are read, and a total is only written if
+ * no event has changed the summary since then: the event may be missing from the totals read,
+ * and overwriting would drop it. Such trainers are left for the next run.
+ */
+@Component
+@Slf4j
+public class TrainerSummaryReconciliationJob {
+
+    private static final String METRIC_PREFIX = "workload.reconciliation";
+    private static final String STATE_ID = "trainer-summary";
+    private static final YearMonth EARLIEST = YearMonth.of(1900, 1);
+    private static final YearMonth LATEST = YearMonth.of(9999, 12);
+
+    private final TrainingRepository trainingRepository;
+    private final WorkloadOutboxRepository outboxRepository;
+    private final TrainerSummaryStore summaryStore;
+    private final TrainerSummaryCache summaryCache;
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong trainersChecked = new AtomicLong();
+    private final AtomicLong watermark = new AtomicLong();
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+    private final Counter rowsCounter;
+    private final Counter trainersCounter;
+    private final Counter repairedCounter;
+    private final Counter skippedCounter;
+
+    public TrainerSummaryReconciliationJob(TrainingRepository trainingRepository,
+                                           WorkloadOutboxRepository outboxRepository,
+                                           TrainerSummaryStore summaryStore,
+                                           TrainerSummaryCache summaryCache,
+                                           MongoTemplate mongoTemplate,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${workload.reconciliation.chunk-size:500}") int chunkSize) {
+        this.trainingRepository = trainingRepository;
+        this.outboxRepository = outboxRepository;
+        this.summaryStore = summaryStore;
+        this.summaryCache = summaryCache;
+        this.mongoTemplate = mongoTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+
+        Gauge.builder(METRIC_PREFIX + ".progress.trainers", trainersChecked, AtomicLong::get)
+                .description("Trainers checked by the current or last reconciliation run")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".watermark", watermark, AtomicLong::get)
+                .description("Highest training id covered by reconciliation")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".throughput", rowsPerSecond, AtomicLong::get)
+                .description("Aggregated trainer months compared per second in the last run")
+                .register(meterRegistry);
+        this.rowsCounter = Counter.builder(METRIC_PREFIX + ".rows")
+                .description("Aggregated trainer months read from the trainings table")
+                .register(meterRegistry);
+        this.trainersCounter = Counter.builder(METRIC_PREFIX + ".trainers")
+                .description("Trainers compared with their summaries")
+                .register(meterRegistry);
+        this.repairedCounter = Counter.builder(METRIC_PREFIX + ".repaired")
+                .description("Trainer months whose summary total was overwritten")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder(METRIC_PREFIX + ".skipped")
+                .description("Trainers skipped because workload events were pending or applied during the run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${workload.reconciliation.full-cron:-}")
+    public void scheduledFullRun() {
+        reconcileAll();
+    }
+
+    @Scheduled(cron = "${workload.reconciliation.incremental-cron:-}")
+    public void scheduledIncrementalRun() {
+        reconcileIncrementally();
+    }
+
+    /**
+     * @return number of repaired trainer months, or -1 if another run was in progress
+     */
+    public long reconcileAll() {
+        long upToId = trainingRepository.findMaxId().orElse(0L);
+        return run("full", upToId, true, () -> trainingRepository.streamMonthlyTotals());
+    }
+
+    /**
+     * @return number of repaired trainer months, or -1 if another run was in progress
+     */
+    public long reconcileIncrementally() {
+        long afterId = loadState().getLastTrainingId();
+        long upToId = trainingRepository.findMaxId().orElse(0L);
+        if (upToId <= afterId) {
+            watermark.set(afterId);
+            return 0;
+        }
+        List<String> trainers = trainingRepository.findTrainerUsernamesWithTrainingIdBetween(afterId, upToId);
+        // Trainers are queried in chunks to keep the IN lists bounded; chunks are disjoint, so rows stay grouped by trainer
+        List<List<String>> trainerChunks = new ArrayList<>();
+        for (int from = 0; from < trainers.size(); from += chunkSize) {
+            trainerChunks.add(trainers.subList(from, Math.min(trainers.size(), from + chunkSize)));
+        }
+        return run("incremental", upToId, false,
+                () -> trainerChunks.stream().flatMap(chunk -> trainingRepository.streamMonthlyTotals(chunk)));
+    }
+
+    private long run(String mode, long upToId, boolean full, Supplier<Stream<TrainerMonthTotal>> totals) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Trainer summary reconciliation already running, {} run skipped", mode);
+            return -1;
+        }
+        try {
+            trainersChecked.set(0);
+            long started = System.nanoTime();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Instant scanStarted = databaseTime();
+            RunResult result = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                RunResult reconciled;
+                try (Stream<TrainerMonthTotal> stream = totals.get()) {
+                    reconciled = reconcile(stream, scanStarted);
+                }
+                return full ? new RunResult(reconciled.rows(), reconciled.repaired() + reconcileWithoutTrainings())
+                        : reconciled;
+            }));
+            sample.stop(Timer.builder(METRIC_PREFIX + ".run")
+                    .description("Duration of trainer summary reconciliation runs")
+                    .tag("mode", mode)
+                    .register(meterRegistry));
+
+            long elapsedNanos = Math.max(1, System.nanoTime() - started);
+            rowsPerSecond.set(result.rows() * 1_000_000_000L / elapsedNanos);
+            saveState(upToId, mode);
+            watermark.set(upToId);
+            log.info("Trainer summary reconciliation ({}) checked {} trainers and {} months, repaired {} months in {} ms",
+                    mode, trainersChecked.get(), result.rows(), result.repaired(), elapsedNanos / 1_000_000);
+            return result.repaired();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private RunResult reconcile(Stream<TrainerMonthTotal> totals, Instant scanStarted) {
+        Map<String, List<TrainerMonthTotal>> chunk = new LinkedHashMap<>();
+        long rows = 0;
+        long repaired = 0;
+        for (TrainerMonthTotal total : (Iterable<TrainerMonthTotal>) totals::iterator) {
+            rows++;
+            rowsCounter.increment();
+            if (!chunk.containsKey(total.trainerUsername()) && chunk.size() == chunkSize) {
+                repaired += reconcileChunk(chunk, scanStarted);
+                chunk.clear();
+            }
+            chunk.computeIfAbsent(total.trainerUsername(), trainer -> new ArrayList<>()).add(total);
+        }
+        if (!chunk.isEmpty()) {
+            repaired += reconcileChunk(chunk, scanStarted);
+        }
+        return new RunResult(rows, repaired);
+    }
+
+    private long reconcileChunk(Map<String, List<TrainerMonthTotal>> expectedByTrainer, Instant scanStarted) {
+        Map<String, Map<YearMonth, Integer>> actualByTrainer = actualTotals(expectedByTrainer.keySet());
+        List<SummaryDelta> repairs = new ArrayList<>();
+
+        expectedByTrainer.forEach((trainer, expectedMonths) -> {
+            trainersChecked.incrementAndGet();
+            trainersCounter.increment();
+            if (outboxRepository.existsByTrainerUsername(trainer)) {
+                skippedCounter.increment();
+                return;
+            }
+            TrainerTrainingEvent profile = profile(expectedMonths.getFirst());
+            Map<YearMonth, Integer> actual = new HashMap<>(actualByTrainer.getOrDefault(trainer, Map.of()));
+            for (TrainerMonthTotal expected : expectedMonths) {
+                YearMonth month = YearMonth.of(expected.year(), expected.month());
+                int expectedTotal = Math.toIntExact(expected.totalDuration());
+                Integer actualTotal = actual.remove(month);
+                if (actualTotal == null || actualTotal != expectedTotal) {
+                    repairs.add(new SummaryDelta(profile, month.getYear(), month.getMonthValue(), expectedTotal, List.of()));
+                }
+            }
+            // Months left over have no trainings any more
+            actual.keySet().forEach(month ->
+                    repairs.add(new SummaryDelta(profile, month.getYear(), month.getMonthValue(), 0, List.of())));
+        });
+
+        return writeRepairs(repairs, expectedByTrainer.size(), scanStarted);
+    }
+
+    /**
+     * Stored trainers are not part of the aggregated totals once their last training is gone,
+     * so their summaries are walked separately and every month left is set to zero. Trainers
+     * are checked against the trainings table again right before, which leaves alone anyone
+     * who got a training after the totals were read.
+     */
+    private long reconcileWithoutTrainings() {
+        long repaired = 0;
+        List<String> chunk = new ArrayList<>();
+        try (Stream<String> stored = summaryStore.streamTrainerUsernames()) {
+            for (String trainer : (Iterable<String>) stored::iterator) {
+                chunk.add(trainer);
+                if (chunk.size() == chunkSize) {
+                    repaired += zeroTrainersWithoutTrainings(chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            repaired += zeroTrainersWithoutTrainings(chunk);
+        }
+        return repaired;
+    }
+
+    private long zeroTrainersWithoutTrainings(List<String> storedTrainers) {
+        Instant checkStarted = databaseTime();
+        Set<String> candidates = new HashSet<>(storedTrainers);
+        trainingRepository.findTrainerUsernamesWithTrainings(storedTrainers).forEach(candidates::remove);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        List<SummaryDelta> repairs = new ArrayList<>();
+        for (TrainerTrainingSummary summary : summaryStore.findMonthlyTotals(candidates, EARLIEST, LATEST)) {
+            trainersChecked.incrementAndGet();
+            trainersCounter.increment();
+            if (outboxRepository.existsByTrainerUsername(summary.getTrainerUsername())) {
+                skippedCounter.increment();
+                continue;
+            }
+            TrainerTrainingEvent profile = profile(summary);
+            summary.getYears().forEach(year -> year.getMonths().forEach(month ->
+                    repairs.add(new SummaryDelta(profile, year.getYear(), month.getMonth(), 0, List.of()))));
+        }
+        return writeRepairs(repairs, candidates.size(), checkStarted);
+    }
+
+    private long writeRepairs(List<SummaryDelta> repairs, int trainers, Instant unchangedSince) {
+        if (repairs.isEmpty()) {
+            return 0;
+        }
+        List<SummaryDelta> changed = summaryStore.writeTotals(repairs, unchangedSince);
+        repairs.stream().map(repair -> repair.profile().getTrainerUsername()).distinct()
+                .forEach(summaryCache::invalidate);
+        long changedTrainers = changed.stream().map(repair -> repair.profile().getTrainerUsername()).distinct().count();
+        skippedCounter.increment(changedTrainers);
+        int repaired = repairs.size() - changed.size();
+        repairedCounter.increment(repaired);
+        log.info("Repaired {} trainer months of {} trainers, left {} trainers changed during the run for the next one",
+                repaired, trainers, changedTrainers);
+        return repaired;
+    }
+
+    /**
+     * Current time of the database clock that stamps summary changes, so no clock skew
+     * between this node and the database can hide a change.
+     */
+    private Instant databaseTime() {
+        return mongoTemplate.executeCommand(new Document("hello", 1)).getDate("localTime").toInstant();
+    }
+
+    private Map<String, Map<YearMonth, Integer>> actualTotals(Collection<String> trainers) {
+        Map<String, Map<YearMonth, Integer>> actual = new HashMap<>();
+        for (TrainerTrainingSummary summary : summaryStore.findMonthlyTotals(trainers, EARLIEST, LATEST)) {
+            Map<YearMonth, Integer> months = new HashMap<>();
+            summary.getYears().forEach(year -> year.getMonths().forEach(month ->
+                    months.put(YearMonth.of(year.getYear(), month.getMonth()), month.getTrainingsSummaryDuration())));
+            actual.put(summary.getTrainerUsername(), months);
+        }
+        return actual;
+    }
+
+    private static TrainerTrainingEvent profile(TrainerMonthTotal total) {
+        return TrainerTrainingEvent.builder()
+                .trainerUsername(total.trainerUsername())
+                .trainerFirstName(total.trainerFirstName())
+                .trainerLastName(total.trainerLastName())
+                .trainerStatus(total.trainerActive())
+                .build();
+    }
+
+    private static TrainerTrainingEvent profile(TrainerTrainingSummary summary) {
+        return TrainerTrainingEvent.builder()
+                .trainerUsername(summary.getTrainerUsername())
+                .trainerFirstName(summary.getTrainerFirstName())
+                .trainerLastName(summary.getTrainerLastName())
+                .trainerStatus(summary.getTrainerStatus())
+                .build();
+    }
+
+    private SummaryReconciliationState loadState() {
+        SummaryReconciliationState state = mongoTemplate.findById(STATE_ID, SummaryReconciliationState.class);
+        return state != null ? state : SummaryReconciliationState.builder().id(STATE_ID).build();
+    }
+
+    private void saveState(long lastTrainingId, String mode) {
+        mongoTemplate.save(SummaryReconciliationState.builder()
+                .id(STATE_ID)
+                .lastTrainingId(lastTrainingId)
+                .lastRunAt(Instant.now())
+                .lastRunMode(mode)
+                .build());
+    }
+
+    private record RunResult(long rows, long repaired) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage layout for trainer monthly training totals.
+ */
+public interface TrainerSummaryStore {
+
+    /**
+     * Atomically applies a signed duration change to one month of a trainer, refreshes the
+     * trainer profile and records the event keys. A negative change never takes the total
+     * below zero.
+     *
+     * @return false if any of the keys had already been applied, in which case nothing changed
+     */
+    boolean applyDelta(TrainerTrainingEvent profile, int year, int month, int delta, List<String> keys);
+
+    /**
+     * Applies non-negative month changes of many trainers with unordered bulk writes instead
+     * of one round trip per change.
+     *
+     * @return the changes that were not applied, either because they are negative or because
+     * they contain an already applied event key; callers apply those through {@link #applyDelta}
+     */
+    List<SummaryDelta> applyBatch(List<SummaryDelta> deltas);
+
+    /**
+     * Overwrites month totals with bulk writes, creating missing months. A zero total removes
+     * the month from the trainer's summary. Recorded event keys are left untouched. A total is
+     * only written if no event has changed its month (in the nested layout: any month of the
+     * trainer) at or after {@code unchangedSince}, a time taken from the database clock.
+     *
+     * @return the totals that were not written because an event got there first
+     */
+    List<SummaryDelta> writeTotals(List<SummaryDelta> totals, Instant unchangedSince);
+
+    /**
+     * Totals of a trainer in the nested year/month shape, without empty months and years.
+     */
+    Optional<TrainerTrainingSummary> findByTrainerUsername(String trainerUsername);
+
+    /**
+     * Non-empty months between {@code from} and {@code to} inclusive of the given trainers, in the
+     * nested shape. Only the requested months are read from the database; trainers without any
+     * such month are left out.
+     */
+    List<TrainerTrainingSummary> findMonthlyTotals(Collection<String> trainerUsernames, YearMonth from, YearMonth to);
+
+    /**
+     * Usernames of all trainers with stored totals, each once and in no particular order. The
+     * stream holds a database cursor and has to be closed.
+     */
+    Stream<String> streamTrainerUsernames();
+
+    /**
+     * Net change, or for {@link #writeTotals} the new total, of one trainer month; the profile
+     * is taken from the latest event of the month.
+     */
+    record SummaryDelta(TrainerTrainingEvent profile, int year, int month, int delta, List<String> keys) {
+    }
+}
@@ -1,10 +1,11 @@
 package com.gym.crm.mongo.service;
 
+import com.gym.crm.logging.LogFields;
+import com.gym.crm.metrics.DomainMetrics;
 import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.dto.TrainingActionType;
 import com.gym.crm.mongo.model.TrainerTrainingSummary;
-import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
-import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
-import com.gym.crm.mongo.repository.TrainerTrainingSummaryRepository;
+import com.gym.crm.mongo.service.TrainerSummaryStore.SummaryDelta;
 import com.gym.crm.util.TransactionContext;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -14,120 +15,163 @@ import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
-import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
+/**
+ * Maintains per-trainer monthly training totals. Every change is a single atomic update
+ * in the configured {@link TrainerSummaryStore}, so concurrent events for the same trainer
+ * never lose updates and documents are never read into the application or rewritten as a whole.
+ * DELETE events decrement the total, clamping it at zero. Events that carry a transaction id
+ * and a training id are applied at most once: their key is recorded in the same update that
+ * changes the total.
+ */
 @Service
 @Validated
 @RequiredArgsConstructor
 @Slf4j
 public class TrainerTrainingSummaryService {
 
-    private final TrainerTrainingSummaryRepository repository;
+    private final TrainerSummaryStore summaryStore;
+    private final TrainerSummaryCache summaryCache;
+    private final DomainMetrics domainMetrics;
 
     /**
      * Process an incoming training event and update the aggregated monthly duration
-     * for the trainer. This method is idempotent for the same event payload and
-     * will create missing year/month buckets as needed.
+     * for the trainer. Missing trainer documents and year/month buckets are created as needed.
      */
-    public TrainerTrainingSummary processTrainingEvent(@Valid @NotNull TrainerTrainingEvent event) {
+    public void processTrainingEvent(@Valid @NotNull TrainerTrainingEvent event) {
         Objects.requireNonNull(event, "event must not be null");
 
         TransactionState txnState = resolveTransactionId(event.getTransactionId());
         log.info("Processing training event [{}] for trainer {}", txnState.transactionId(), event.getTrainerUsername());
 
+        long startNanos = System.nanoTime();
         try {
-            TrainerTrainingSummary summary = repository.findByTrainerUsername(event.getTrainerUsername())
-                    .orElseGet(() -> buildNewDocument(event));
-
-            // Keep trainer profile data up to date
-            summary.setTrainerUsername(event.getTrainerUsername());
-            summary.setTrainerFirstName(event.getTrainerFirstName());
-            summary.setTrainerLastName(event.getTrainerLastName());
-            summary.setTrainerStatus(event.getTrainerStatus());
-            if (summary.getYears() == null) {
-                summary.setYears(new ArrayList<>());
+            int year = event.getTrainingDate().getYear();
+            int month = event.getTrainingDate().getMonthValue();
+            boolean applied = summaryStore.applyDelta(event, year, month, signedDuration(event), eventKeys(List.of(event)));
+            summaryCache.invalidate(event.getTrainerUsername());
+            domainMetrics.summaryUpdated(false, System.nanoTime() - startNanos, applied ? 1 : 0, applied ? 0 : 1);
+            log.info("Trainer summary {} [{}]: year={}, month={}, action={}, duration={}",
+                    applied ? "updated" : "unchanged (duplicate event)", txnState.transactionId(),
+                    year, month, event.getActionType(), event.getTrainingDuration());
+        } finally {
+            if (txnState.createdHere()) {
+                MDC.remove(LogFields.TRANSACTION_ID);
+                TransactionContext.clear();
             }
+        }
+    }
 
-            int yearValue = event.getTrainingDate().getYear();
-            int monthValue = event.getTrainingDate().getMonthValue();
+    /**
+     * Process a batch of training events in one pass. Durations are summed per
+     * (trainer, year, month) first, and the sums are written with unordered bulk writes, so the
+     * number of round trips does not grow with the batch. A bucket containing an already
+     * applied event falls back to applying its events one by one. A bucket with a DELETE is
+     * applied event by event in batch order: the total clamps at zero after every decrement, so
+     * a sum would give a different total than the same events applied one at a time.
+     */
+    public void processTrainingEventBatch(@NotNull List<@Valid @NotNull TrainerTrainingEvent> events) {
+        Objects.requireNonNull(events, "events must not be null");
+        if (events.isEmpty()) {
+            return;
+        }
 
-            YearSummary yearSummary = findOrCreateYear(summary, yearValue);
-            MonthSummary monthSummary = findOrCreateMonth(yearSummary, monthValue);
+        TransactionState txnState = resolveTransactionId(events.getFirst().getTransactionId());
+        log.info("Processing batch of {} training events [{}]", events.size(), txnState.transactionId());
 
-            int previous = Optional.ofNullable(monthSummary.getTrainingsSummaryDuration()).orElse(0);
-            int updated = previous + event.getTrainingDuration();
-            monthSummary.setTrainingsSummaryDuration(updated);
+        long startNanos = System.nanoTime();
+        try {
+            Map<MonthKey, List<TrainerTrainingEvent>> eventsByMonth = new LinkedHashMap<>();
+            for (TrainerTrainingEvent event : events) {
+                MonthKey key = new MonthKey(event.getTrainerUsername(),
+                        event.getTrainingDate().getYear(), event.getTrainingDate().getMonthValue());
+                eventsByMonth.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+            }
 
-            TrainerTrainingSummary saved = repository.save(summary);
-            log.info("Trainer summary updated [{}]: year={}, month={}, previous={}, added={}, total={}",
-                    txnState.transactionId(), yearValue, monthValue, previous, event.getTrainingDuration(), updated);
-            return saved;
+            Map<SummaryDelta, List<TrainerTrainingEvent>> eventsByDelta = new LinkedHashMap<>();
+            List<List<TrainerTrainingEvent>> withDeletes = new ArrayList<>();
+            eventsByMonth.forEach((key, monthEvents) -> {
+                if (monthEvents.stream().anyMatch(event -> signedDuration(event) < 0)) {
+                    withDeletes.add(monthEvents);
+                    return;
+                }
+                eventsByDelta.put(new SummaryDelta(
+                        // The latest event of a trainer carries the most recent profile data
+                        monthEvents.getLast(), key.year(), key.month(),
+                        monthEvents.stream().mapToInt(TrainerTrainingSummaryService::signedDuration).sum(),
+                        eventKeys(monthEvents)), monthEvents);
+            });
+
+            List<SummaryDelta> remaining = summaryStore.applyBatch(List.copyOf(eventsByDelta.keySet()));
+            int duplicates = 0;
+            for (SummaryDelta delta : remaining) {
+                if (!summaryStore.applyDelta(delta.profile(), delta.year(), delta.month(), delta.delta(), delta.keys())) {
+                    duplicates += applyInOrder(eventsByDelta.get(delta));
+                }
+            }
+            for (List<TrainerTrainingEvent> monthEvents : withDeletes) {
+                duplicates += applyInOrder(monthEvents);
+            }
+            eventsByMonth.keySet().stream()
+                    .map(MonthKey::trainerUsername)
+                    .distinct()
+                    .forEach(summaryCache::invalidate);
+            domainMetrics.summaryUpdated(true, System.nanoTime() - startNanos, events.size() - duplicates, duplicates);
+            log.info("Trainer summaries updated [{}]: events={}, buckets={}, applied individually={}",
+                    txnState.transactionId(), events.size(), eventsByMonth.size(), remaining.size() + withDeletes.size());
         } finally {
-            MDC.remove("transactionId");
             if (txnState.createdHere()) {
+                MDC.remove(LogFields.TRANSACTION_ID);
                 TransactionContext.clear();
             }
         }
     }
 
-    private TrainerTrainingSummary buildNewDocument(TrainerTrainingEvent event) {
-        LocalDate date = event.getTrainingDate();
-        YearSummary yearSummary = YearSummary.builder()
-                .year(date.getYear())
-                .months(new ArrayList<>())
-                .build();
-
-        MonthSummary monthSummary = MonthSummary.builder()
-                .month(date.getMonthValue())
-                .trainingsSummaryDuration(0)
-                .build();
-
-        yearSummary.getMonths().add(monthSummary);
-
-        TrainerTrainingSummary summary = TrainerTrainingSummary.builder()
-                .trainerUsername(event.getTrainerUsername())
-                .trainerFirstName(event.getTrainerFirstName())
-                .trainerLastName(event.getTrainerLastName())
-                .trainerStatus(event.getTrainerStatus())
-                .years(new ArrayList<>())
-                .build();
-        summary.getYears().add(yearSummary);
-        return summary;
+    /**
+     * Applies the events of one month one at a time, in order.
+     *
+     * @return how many of them had already been applied
+     */
+    private int applyInOrder(List<TrainerTrainingEvent> monthEvents) {
+        int duplicates = 0;
+        for (TrainerTrainingEvent event : monthEvents) {
+            if (!summaryStore.applyDelta(event, event.getTrainingDate().getYear(),
+                    event.getTrainingDate().getMonthValue(), signedDuration(event), eventKeys(List.of(event)))) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+
+    private static int signedDuration(TrainerTrainingEvent event) {
+        return event.getActionType() == TrainingActionType.DELETE
+                ? -event.getTrainingDuration()
+                : event.getTrainingDuration();
     }
 
-    private YearSummary findOrCreateYear(TrainerTrainingSummary summary, int yearValue) {
-        YearSummary year = summary.getYears().stream()
-                .filter(y -> y.getYear() == yearValue)
-                .findFirst()
-                .orElseGet(() -> {
-                    YearSummary newYear = YearSummary.builder()
-                            .year(yearValue)
-                            .months(new ArrayList<>())
-                            .build();
-                    summary.getYears().add(newYear);
-                    return newYear;
-                });
-        if (year.getMonths() == null) {
-            year.setMonths(new ArrayList<>());
-        }
-        return year;
+    /**
+     * Keys of the events that can be identified; events without a transaction id or a
+     * training id cannot be told apart from a redelivery and are not deduplicated.
+     */
+    private static List<String> eventKeys(List<TrainerTrainingEvent> events) {
+        return events.stream()
+                .filter(event -> event.getTransactionId() != null && event.getTrainingId() != null)
+                .map(event -> event.getTransactionId() + ":" + event.getTrainingId() + ":" + event.getActionType())
+                .distinct()
+                .toList();
     }
 
-    private MonthSummary findOrCreateMonth(YearSummary yearSummary, int monthValue) {
-        return yearSummary.getMonths().stream()
-                .filter(m -> m.getMonth() == monthValue)
-                .findFirst()
-                .orElseGet(() -> {
-                    MonthSummary newMonth = MonthSummary.builder()
-                            .month(monthValue)
-                            .trainingsSummaryDuration(0)
-                            .build();
-                    yearSummary.getMonths().add(newMonth);
-                    return newMonth;
-                });
+    /**
+     * Current totals of a trainer in the nested year/month shape, whatever the storage layout.
+     */
+    public Optional<TrainerTrainingSummary> findByTrainerUsername(String trainerUsername) {
+        return summaryStore.findByTrainerUsername(trainerUsername);
     }
 
     private TransactionState resolveTransactionId(String incomingTransactionId) {
@@ -143,11 +187,16 @@ public class TrainerTrainingSummaryService {
             createdHere = true;
         }
 
-        MDC.put("transactionId", transactionId);
+        if (createdHere) {
+            MDC.put(LogFields.TRANSACTION_ID, transactionId);
+        }
         return new TransactionState(transactionId, createdHere);
     }
 
     private record TransactionState(String transactionId, boolean createdHere) {
     }
-}
 
+    private record MonthKey(String trainerUsername, int year, int month) {
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.gym.crm.repository;
+
+/**
+ * Sum of the training durations of one trainer in one month, computed by the database.
+ */
+public record TrainerMonthTotal(String trainerUsername,
+                                String trainerFirstName,
+                                String trainerLastName,
+                                Boolean trainerActive,
+                                Integer year,
+                                Integer month,
+                                Long totalDuration) {
+}
@@ -1,17 +1,25 @@
 package com.gym.crm.repository;
 
 import com.gym.crm.model.Training;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TrainingRepository extends JpaRepository<Training, Long> {
     
+    @EntityGraph(attributePaths = {"trainer", "trainingType"})
     @Query("SELECT t FROM Training t WHERE t.trainee.username = :traineeUsername " +
            "AND (:fromDate IS NULL OR t.trainingDate >= :fromDate) " +
            "AND (:toDate IS NULL OR t.trainingDate <= :toDate) " +
@@ -25,6 +33,7 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
         @Param("trainingTypeName") String trainingTypeName
     );
     
+    @EntityGraph(attributePaths = {"trainee", "trainingType"})
     @Query("SELECT t FROM Training t WHERE t.trainer.username = :trainerUsername " +
            "AND (:fromDate IS NULL OR t.trainingDate >= :fromDate) " +
            "AND (:toDate IS NULL OR t.trainingDate <= :toDate) " +
@@ -37,6 +46,35 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
     );
     
     List<Training> findByTraineeUsername(String traineeUsername);
+
+    String MONTHLY_TOTALS_SELECT = "SELECT new com.gym.crm.repository.TrainerMonthTotal(" +
+           "tr.username, tr.firstName, tr.lastName, tr.isActive, " +
+           "YEAR(t.trainingDate), MONTH(t.trainingDate), SUM(t.trainingDuration)) " +
+           "FROM Training t JOIN t.trainer tr ";
+    String MONTHLY_TOTALS_GROUPING = "GROUP BY tr.username, tr.firstName, tr.lastName, tr.isActive, " +
+           "YEAR(t.trainingDate), MONTH(t.trainingDate) " +
+           "ORDER BY tr.username";
+
+    /**
+     * Monthly duration totals of all trainers, aggregated by the database and streamed
+     * ordered by trainer. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(MONTHLY_TOTALS_SELECT + MONTHLY_TOTALS_GROUPING)
+    Stream<TrainerMonthTotal> streamMonthlyTotals();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(MONTHLY_TOTALS_SELECT + "WHERE tr.username IN :trainerUsernames " + MONTHLY_TOTALS_GROUPING)
+    Stream<TrainerMonthTotal> streamMonthlyTotals(@Param("trainerUsernames") Collection<String> trainerUsernames);
+
+    @Query("SELECT DISTINCT t.trainer.username FROM Training t WHERE t.id > :afterId AND t.id <= :upToId")
+    List<String> findTrainerUsernamesWithTrainingIdBetween(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    @Query("SELECT DISTINCT t.trainer.username FROM Training t WHERE t.trainer.username IN :trainerUsernames")
+    List<String> findTrainerUsernamesWithTrainings(@Param("trainerUsernames") Collection<String> trainerUsernames);
+
+    @Query("SELECT MAX(t.id) FROM Training t")
+    Optional<Long> findMaxId();
     
     void deleteByTraineeUsername(String traineeUsername);
 } 
\ No newline at end of file
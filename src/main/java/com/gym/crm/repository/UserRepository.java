@@ -2,8 +2,11 @@ package com.gym.crm.repository;
 
 import com.gym.crm.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +14,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByFirstNameAndLastName(String firstName, String lastName);
-} 
\ No newline at end of file
+
+    @Query("SELECT u.username FROM User u WHERE u.username LIKE :prefix ESCAPE '!'")
+    List<String> findUsernamesStartingWith(@Param("prefix") String prefix);
+
+    @Query("SELECT u.username AS username, u.firstName AS firstName, u.lastName AS lastName FROM User u")
+    List<UserIdentity> findAllIdentities();
+
+    /**
+     * Lightweight projection used to warm up in-memory lookup structures.
+     */
+    interface UserIdentity {
+        String getUsername();
+        String getFirstName();
+        String getLastName();
+    }
+}
@@ -0,0 +1,30 @@
+package com.gym.crm.repository;
+
+import com.gym.crm.model.UsernameSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UsernameSequenceRepository extends JpaRepository<UsernameSequence, String> {
+
+    @Modifying
+    @Query("UPDATE UsernameSequence s SET s.lastSuffix = s.lastSuffix + 1 WHERE s.baseUsername = :baseUsername")
+    int incrementLastSuffix(@Param("baseUsername") String baseUsername);
+
+    @Query("SELECT s.lastSuffix FROM UsernameSequence s WHERE s.baseUsername = :baseUsername")
+    Optional<Integer> findLastSuffix(@Param("baseUsername") String baseUsername);
+
+    /**
+     * Plain insert (no merge) so that a concurrent insert of the same base name fails
+     * on the primary key instead of silently overwriting the other counter.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO username_sequences (base_username, last_suffix) VALUES (:baseUsername, :lastSuffix)",
+           nativeQuery = true)
+    void insertSequence(@Param("baseUsername") String baseUsername, @Param("lastSuffix") int lastSuffix);
+}
@@ -0,0 +1,41 @@
+package com.gym.crm.repository;
+
+import com.gym.crm.model.WorkloadOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WorkloadOutboxRepository extends JpaRepository<WorkloadOutboxEvent, Long> {
+
+    /**
+     * Oldest events free to claim: not leased, or with an expired lease, and of a trainer none
+     * of whose events is leased, so a relay never overtakes another one sending the same
+     * trainer's earlier events. Locked so that concurrent claims wait for each other; the lock
+     * is only held by the short claiming transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM WorkloadOutboxEvent e WHERE (e.leaseUntil IS NULL OR e.leaseUntil < :now) " +
+            "AND NOT EXISTS (SELECT l.id FROM WorkloadOutboxEvent l " +
+            "WHERE l.trainerUsername = e.trainerUsername AND l.leaseUntil >= :now) ORDER BY e.id")
+    List<WorkloadOutboxEvent> findClaimableForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE WorkloadOutboxEvent e SET e.leaseUntil = NULL WHERE e.id IN :ids")
+    int releaseLeases(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MIN(e.createdAt) FROM WorkloadOutboxEvent e")
+    Optional<Instant> findOldestCreatedAt();
+
+    boolean existsByTrainerUsername(String trainerUsername);
+}
@@ -9,7 +9,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 
 /**
- * Service for handling brute force protection
+ * Service for handling brute force protection. Every decision is taken on the user row in the
+ * database; the per-node user existence filter is deliberately not consulted, since a user
+ * registered on another node is unknown to it and must still be locked out.
  */
 @Service
 @Slf4j
@@ -1,10 +1,13 @@
 package com.gym.crm.security;
 
+import com.gym.crm.logging.LogFields;
+import com.gym.crm.util.RequestTiming;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -54,8 +57,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        
-        try {
+        boolean authenticated = false;
+
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.AUTH)) {
             username = jwtService.extractUsername(jwt);
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -69,6 +73,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    MDC.put(LogFields.USER_ID, username);
+                    authenticated = true;
                     log.debug("Successfully authenticated user: {}", username);
                 }
             }
@@ -76,14 +82,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.error("Error processing JWT token: {}", e.getMessage());
         }
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (authenticated) {
+                MDC.remove(LogFields.USER_ID);
+            }
+        }
     }
 
     private boolean isPublicEndpoint(String requestPath) {
         return requestPath.startsWith("/api/trainees/register") ||
                requestPath.startsWith("/api/trainers/register") ||
                requestPath.equals("/api/login") ||
-               requestPath.startsWith("/actuator/") ||
+               (requestPath.startsWith("/actuator/") && !requestPath.startsWith("/actuator/auditevents")) ||
                requestPath.startsWith("/swagger-ui/") ||
                requestPath.startsWith("/v3/api-docs") ||
                requestPath.equals("/swagger-ui.html");
@@ -1,5 +1,6 @@
 package com.gym.crm.security;
 
+import com.gym.crm.util.RequestTiming;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -36,7 +37,7 @@ public class PasswordService {
     public String hashPassword(String rawPassword, String salt) {
         // BCrypt handles salt internally, but we store our own salt for additional security
         String saltedPassword = rawPassword + salt;
-        return passwordEncoder.encode(saltedPassword);
+        return RequestTiming.time(RequestTiming.HASHING, () -> passwordEncoder.encode(saltedPassword));
     }
 
     /**
@@ -44,7 +45,7 @@ public class PasswordService {
      */
     public boolean validatePassword(String rawPassword, String hashedPassword, String salt) {
         String saltedPassword = rawPassword + salt;
-        return passwordEncoder.matches(saltedPassword, hashedPassword);
+        return RequestTiming.time(RequestTiming.HASHING, () -> passwordEncoder.matches(saltedPassword, hashedPassword));
     }
 
     /**
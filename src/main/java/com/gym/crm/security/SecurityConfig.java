@@ -1,5 +1,6 @@
 package com.gym.crm.security;
 
+import com.gym.crm.util.TransactionContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -54,7 +55,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/logout").permitAll()
                         
-                        // Actuator endpoints
+                        // Actuator endpoints; audit events carry principals and login failures
+                        .requestMatchers("/actuator/auditevents/**").hasRole("ADMIN")
                         .requestMatchers("/actuator/**").permitAll()
                         
                         // Swagger endpoints
@@ -87,6 +89,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(List.of("*")); // In production, specify actual origins
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(List.of(TransactionContext.HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
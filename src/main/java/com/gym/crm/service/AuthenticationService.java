@@ -1,5 +1,6 @@
 package com.gym.crm.service;
 
+import com.gym.crm.metrics.DomainMetrics;
 import com.gym.crm.model.Trainee;
 import com.gym.crm.model.Trainer;
 import com.gym.crm.model.User;
@@ -9,6 +10,7 @@ import com.gym.crm.repository.UserRepository;
 import com.gym.crm.security.BruteForceProtectionService;
 import com.gym.crm.security.JwtService;
 import com.gym.crm.security.PasswordService;
+import com.gym.crm.util.RequestTiming;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,6 +30,7 @@ public class AuthenticationService {
     private UserRepository userRepository;
     private PasswordService passwordService;
     private JwtService jwtService;
+    private DomainMetrics domainMetrics;
     private BruteForceProtectionService bruteForceProtectionService;
     private AuthenticationManager authenticationManager;
     
@@ -66,6 +69,11 @@ public class AuthenticationService {
         this.authenticationManager = authenticationManager;
     }
     
+    @Autowired
+    public void setDomainMetrics(DomainMetrics domainMetrics) {
+        this.domainMetrics = domainMetrics;
+    }
+    
     
     /**
      * Authenticate user and return JWT token
@@ -76,10 +84,11 @@ public class AuthenticationService {
         // Check if account is locked
         if (bruteForceProtectionService.isAccountLocked(username)) {
             log.warn("Authentication failed - account locked for username: {}", username);
+            domainMetrics.loginFailed();
             throw new RuntimeException("Account is temporarily locked due to multiple failed login attempts");
         }
         
-        try {
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.AUTH)) {
             // Authenticate with Spring Security
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(username, password)
@@ -95,11 +104,13 @@ public class AuthenticationService {
             String token = jwtService.generateToken(username, userType);
             
             log.info("Authentication successful for username: {}", username);
+            domainMetrics.loginSucceeded();
             return token;
             
         } catch (AuthenticationException e) {
             // Record failed login attempt
             bruteForceProtectionService.recordFailedLogin(username);
+            domainMetrics.loginFailed();
             log.warn("Authentication failed for username: {}", username);
             throw new RuntimeException("Invalid credentials");
         }
@@ -108,10 +119,12 @@ public class AuthenticationService {
     public boolean authenticateTrainer(String username, String password) {
         log.debug("Authenticating trainer with username: {}", username);
         
-        Optional<Trainer> trainer = trainerRepository.findByUsername(username);
-        if (trainer.isPresent() && passwordService.validatePassword(password, trainer.get().getPassword(), trainer.get().getSalt())) {
-            log.info("Trainer authentication successful for username: {}", username);
-            return true;
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.AUTH)) {
+            Optional<Trainer> trainer = trainerRepository.findByUsername(username);
+            if (trainer.isPresent() && passwordService.validatePassword(password, trainer.get().getPassword(), trainer.get().getSalt())) {
+                log.info("Trainer authentication successful for username: {}", username);
+                return true;
+            }
         }
         
         log.warn("Trainer authentication failed for username: {}", username);
@@ -121,10 +134,12 @@ public class AuthenticationService {
     public boolean authenticateTrainee(String username, String password) {
         log.debug("Authenticating trainee with username: {}", username);
         
-        Optional<Trainee> trainee = traineeRepository.findByUsername(username);
-        if (trainee.isPresent() && passwordService.validatePassword(password, trainee.get().getPassword(), trainee.get().getSalt())) {
-            log.info("Trainee authentication successful for username: {}", username);
-            return true;
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.AUTH)) {
+            Optional<Trainee> trainee = traineeRepository.findByUsername(username);
+            if (trainee.isPresent() && passwordService.validatePassword(password, trainee.get().getPassword(), trainee.get().getSalt())) {
+                log.info("Trainee authentication successful for username: {}", username);
+                return true;
+            }
         }
         
         log.warn("Trainee authentication failed for username: {}", username);
@@ -1,6 +1,7 @@
 package com.gym.crm.service;
 
 import com.gym.crm.integration.client.WorkloadServiceClient;
+import com.gym.crm.metrics.DomainMetrics;
 import com.gym.crm.model.Trainee;
 import com.gym.crm.model.Trainer;
 import com.gym.crm.repository.TraineeRepository;
@@ -30,7 +31,10 @@ public class TraineeService {
     private UserCredentialGenerator credentialGenerator;
     private AuthenticationService authenticationService;
     private PasswordService passwordService;
+    private UserExistenceFilter userExistenceFilter;
+    private UsernameAllocationService usernameAllocationService;
     private WorkloadServiceClient workloadServiceClient;
+    private DomainMetrics domainMetrics;
     
     @Autowired
     public void setTraineeRepository(TraineeRepository traineeRepository) {
@@ -62,19 +66,30 @@ public class TraineeService {
         this.passwordService = passwordService;
     }
 
+    @Autowired
+    public void setUserExistenceFilter(UserExistenceFilter userExistenceFilter) {
+        this.userExistenceFilter = userExistenceFilter;
+    }
+
+    @Autowired
+    public void setUsernameAllocationService(UsernameAllocationService usernameAllocationService) {
+        this.usernameAllocationService = usernameAllocationService;
+    }
+
     @Autowired
     public void setWorkloadServiceClient(WorkloadServiceClient workloadServiceClient) {
         this.workloadServiceClient = workloadServiceClient;
     }
+
+    @Autowired
+    public void setDomainMetrics(DomainMetrics domainMetrics) {
+        this.domainMetrics = domainMetrics;
+    }
     
     public Trainee createTrainee(@Valid Trainee trainee) {
         log.info("Creating trainee profile for {} {}", trainee.getFirstName(), trainee.getLastName());
         
-        String username = credentialGenerator.generateUsername(
-                trainee.getFirstName(), 
-                trainee.getLastName(),
-                traineeRepository::existsByFirstNameAndLastName
-        );
+        String username = usernameAllocationService.allocateUsername(trainee.getFirstName(), trainee.getLastName());
         UserCredentialGenerator.PasswordInfo passwordInfo = credentialGenerator.generateSecurePassword();
         
         trainee.setUsername(username);
@@ -83,6 +98,8 @@ public class TraineeService {
         trainee.setIsActive(true);
         
         Trainee savedTrainee = traineeRepository.save(trainee);
+        userExistenceFilter.userAdded(username, savedTrainee.getFirstName(), savedTrainee.getLastName());
+        domainMetrics.traineeRegistered();
         // Set the raw password for the response (it will be cleared after response)
         savedTrainee.setPassword(passwordInfo.getRawPassword());
         log.info("Created trainee with id: {} and username: {}", savedTrainee.getId(), username);
@@ -127,6 +144,8 @@ public class TraineeService {
         }
         
         Trainee existingTrainee = trainee.get();
+        userExistenceFilter.nameChanged(existingTrainee.getFirstName(), existingTrainee.getLastName(),
+                updatedTrainee.getFirstName(), updatedTrainee.getLastName());
         existingTrainee.setFirstName(updatedTrainee.getFirstName());
         existingTrainee.setLastName(updatedTrainee.getLastName());
         existingTrainee.setDateOfBirth(updatedTrainee.getDateOfBirth());
@@ -176,10 +195,12 @@ public class TraineeService {
             // Cascade delete trainings
             trainingRepository.deleteByTraineeUsername(username);
             traineeRepository.deleteByUsername(username);
+            userExistenceFilter.userRemoved(username, trainee.get().getFirstName(), trainee.get().getLastName());
             log.info("Deleted trainee profile and related trainings for username: {}", username);
 
             // Notify workload service for each removed training (non-blocking for main flow)
             traineeTrainings.forEach(workloadServiceClient::notifyTrainingDeleted);
+            domainMetrics.trainingsDeleted(traineeTrainings.size());
             return true;
         }
         
@@ -1,5 +1,6 @@
 package com.gym.crm.service;
 
+import com.gym.crm.metrics.DomainMetrics;
 import com.gym.crm.model.Trainer;
 import com.gym.crm.model.TrainingType;
 import com.gym.crm.repository.TrainerRepository;
@@ -27,6 +28,9 @@ public class TrainerService {
     private UserCredentialGenerator credentialGenerator;
     private AuthenticationService authenticationService;
     private PasswordService passwordService;
+    private UserExistenceFilter userExistenceFilter;
+    private UsernameAllocationService usernameAllocationService;
+    private DomainMetrics domainMetrics;
     
     @Autowired
     public void setTrainerRepository(TrainerRepository trainerRepository) {
@@ -52,15 +56,26 @@ public class TrainerService {
     public void setPasswordService(PasswordService passwordService) {
         this.passwordService = passwordService;
     }
+
+    @Autowired
+    public void setUserExistenceFilter(UserExistenceFilter userExistenceFilter) {
+        this.userExistenceFilter = userExistenceFilter;
+    }
+
+    @Autowired
+    public void setUsernameAllocationService(UsernameAllocationService usernameAllocationService) {
+        this.usernameAllocationService = usernameAllocationService;
+    }
+
+    @Autowired
+    public void setDomainMetrics(DomainMetrics domainMetrics) {
+        this.domainMetrics = domainMetrics;
+    }
     
     public Trainer createTrainer(@Valid Trainer trainer) {
         log.info("Creating trainer profile for {} {}", trainer.getFirstName(), trainer.getLastName());
         
-        String username = credentialGenerator.generateUsername(
-                trainer.getFirstName(), 
-                trainer.getLastName(),
-                trainerRepository::existsByFirstNameAndLastName
-        );
+        String username = usernameAllocationService.allocateUsername(trainer.getFirstName(), trainer.getLastName());
         UserCredentialGenerator.PasswordInfo passwordInfo = credentialGenerator.generateSecurePassword();
         
         trainer.setUsername(username);
@@ -69,6 +84,8 @@ public class TrainerService {
         trainer.setIsActive(true);
         
         Trainer savedTrainer = trainerRepository.save(trainer);
+        userExistenceFilter.userAdded(username, savedTrainer.getFirstName(), savedTrainer.getLastName());
+        domainMetrics.trainerRegistered();
         // Set the raw password for the response (it will be cleared after response)
         savedTrainer.setPassword(passwordInfo.getRawPassword());
         log.info("Created trainer with id: {} and username: {}", savedTrainer.getId(), username);
@@ -113,6 +130,8 @@ public class TrainerService {
         }
         
         Trainer existingTrainer = trainer.get();
+        userExistenceFilter.nameChanged(existingTrainer.getFirstName(), existingTrainer.getLastName(),
+                updatedTrainer.getFirstName(), updatedTrainer.getLastName());
         existingTrainer.setFirstName(updatedTrainer.getFirstName());
         existingTrainer.setLastName(updatedTrainer.getLastName());
         existingTrainer.setSpecialization(updatedTrainer.getSpecialization());
@@ -5,6 +5,7 @@ import com.gym.crm.model.Trainer;
 import com.gym.crm.model.Training;
 import com.gym.crm.model.TrainingType;
 import com.gym.crm.integration.client.WorkloadServiceClient;
+import com.gym.crm.metrics.DomainMetrics;
 import com.gym.crm.repository.TraineeRepository;
 import com.gym.crm.repository.TrainerRepository;
 import com.gym.crm.repository.TrainingRepository;
@@ -32,6 +33,7 @@ public class TrainingService {
     private TrainingTypeRepository trainingTypeRepository;
     private AuthenticationService authenticationService;
     private WorkloadServiceClient workloadServiceClient;
+    private DomainMetrics domainMetrics;
     
     @Autowired
     public void setTrainingRepository(TrainingRepository trainingRepository) {
@@ -63,6 +65,11 @@ public class TrainingService {
         this.workloadServiceClient = workloadServiceClient;
     }
     
+    @Autowired
+    public void setDomainMetrics(DomainMetrics domainMetrics) {
+        this.domainMetrics = domainMetrics;
+    }
+    
     public Training addTraining(@Valid Training training) {
         log.info("Adding training session: {} for trainee {} and trainer {}", 
                 training.getTrainingName(), 
@@ -71,6 +78,7 @@ public class TrainingService {
         
         Training savedTraining = trainingRepository.save(training);
         log.info("Added training with id: {}", savedTraining.getId());
+        domainMetrics.trainingAdded();
 
         // Notify workload service after successful creation (non-blocking for main business flow)
         workloadServiceClient.notifyTrainingAdded(savedTraining);
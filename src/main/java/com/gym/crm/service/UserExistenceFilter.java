@@ -0,0 +1,170 @@
+package com.gym.crm.service;
+
+import com.gym.crm.repository.UserRepository;
+import com.gym.crm.util.CountingBloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * In-memory negative-lookup cache for usernames and first/last name pairs.
+ * A "no" is definitive only for this node's view: the users loaded at startup plus those
+ * added through this node. Users registered on other nodes are missing, so a "no" may only
+ * be used to skip optional work, never to decide uniqueness or a security check; a "yes"
+ * still has to be confirmed against the database.
+ * Until the filter has been built at startup every lookup answers "maybe".
+ */
+@Service
+@Slf4j
+public class UserExistenceFilter {
+
+    private static final char NAME_SEPARATOR = '\u0000';
+
+    private final UserRepository userRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final Object lock = new Object();
+
+    private volatile CountingBloomFilter usernames;
+    private volatile CountingBloomFilter names;
+    private volatile boolean ready;
+
+    // Filters being populated by a rebuild; concurrent mutations are applied to them as well
+    private CountingBloomFilter pendingUsernames;
+    private CountingBloomFilter pendingNames;
+
+    public UserExistenceFilter(UserRepository userRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${user.filter.expected-insertions:100000}") long expectedInsertions,
+                               @Value("${user.filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.userRepository = userRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.usernames = new CountingBloomFilter(expectedInsertions, falsePositiveProbability);
+        this.names = new CountingBloomFilter(expectedInsertions, falsePositiveProbability);
+
+        Gauge.builder("user.filter.false.positive.rate", this, f -> f.usernames.expectedFalsePositiveProbability())
+                .description("Estimated false positive rate of the username existence filter")
+                .tag("filter", "username")
+                .register(meterRegistry);
+        Gauge.builder("user.filter.false.positive.rate", this, f -> f.names.expectedFalsePositiveProbability())
+                .description("Estimated false positive rate of the first/last name existence filter")
+                .tag("filter", "name")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rebuilds both filters from the users table once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        CountingBloomFilter newUsernames = new CountingBloomFilter(expectedInsertions, falsePositiveProbability);
+        CountingBloomFilter newNames = new CountingBloomFilter(expectedInsertions, falsePositiveProbability);
+        synchronized (lock) {
+            pendingUsernames = newUsernames;
+            pendingNames = newNames;
+        }
+
+        List<UserRepository.UserIdentity> identities = userRepository.findAllIdentities();
+        for (UserRepository.UserIdentity identity : identities) {
+            newUsernames.add(identity.getUsername());
+            newNames.add(nameKey(identity.getFirstName(), identity.getLastName()));
+        }
+
+        synchronized (lock) {
+            usernames = newUsernames;
+            names = newNames;
+            pendingUsernames = null;
+            pendingNames = null;
+            ready = true;
+        }
+        log.info("User existence filter built with {} users", identities.size());
+    }
+
+    public boolean mightContainUsername(String username) {
+        return !ready || username == null || usernames.mightContain(username);
+    }
+
+    public boolean mightContainName(String firstName, String lastName) {
+        return !ready || firstName == null || lastName == null || names.mightContain(nameKey(firstName, lastName));
+    }
+
+    public void userAdded(String username, String firstName, String lastName) {
+        synchronized (lock) {
+            usernames.add(username);
+            names.add(nameKey(firstName, lastName));
+            if (pendingUsernames != null) {
+                pendingUsernames.add(username);
+                pendingNames.add(nameKey(firstName, lastName));
+            }
+        }
+    }
+
+    /**
+     * Removing a key early would cause false negatives if the surrounding transaction
+     * rolled back, so removals are applied only after a successful commit.
+     */
+    public void userRemoved(String username, String firstName, String lastName) {
+        afterCommit(() -> removeUser(username, firstName, lastName));
+    }
+
+    public void nameChanged(String oldFirstName, String oldLastName, String newFirstName, String newLastName) {
+        String oldKey = nameKey(oldFirstName, oldLastName);
+        String newKey = nameKey(newFirstName, newLastName);
+        if (oldKey.equals(newKey)) {
+            return;
+        }
+        synchronized (lock) {
+            names.add(newKey);
+            if (pendingNames != null) {
+                pendingNames.add(newKey);
+            }
+        }
+        afterCommit(() -> removeName(oldKey));
+    }
+
+    private void removeUser(String username, String firstName, String lastName) {
+        synchronized (lock) {
+            usernames.remove(username);
+            names.remove(nameKey(firstName, lastName));
+            if (pendingUsernames != null) {
+                pendingUsernames.remove(username);
+                pendingNames.remove(nameKey(firstName, lastName));
+            }
+        }
+    }
+
+    private void removeName(String key) {
+        synchronized (lock) {
+            names.remove(key);
+            if (pendingNames != null) {
+                pendingNames.remove(key);
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String nameKey(String firstName, String lastName) {
+        return firstName + NAME_SEPARATOR + lastName;
+    }
+}
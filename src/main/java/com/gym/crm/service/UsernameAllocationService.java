@@ -0,0 +1,103 @@
+package com.gym.crm.service;
+
+import com.gym.crm.repository.UserRepository;
+import com.gym.crm.repository.UsernameSequenceRepository;
+import com.gym.crm.util.UserCredentialGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Allocates unique usernames of the form First.Last, First.Last2, First.Last3, ...
+ * The next suffix is reserved with a single row-locking UPDATE on a per-base-name
+ * counter, so concurrent registrations on any number of nodes never get the same suffix.
+ * Reservations run in their own short transaction so the counter row is not kept
+ * locked while the registration itself (password hashing, insert) completes.
+ */
+@Service
+@Slf4j
+public class UsernameAllocationService {
+
+    private static final int MAX_ATTEMPTS = 10;
+
+    private final UsernameSequenceRepository sequenceRepository;
+    private final UserRepository userRepository;
+    private final UserExistenceFilter userExistenceFilter;
+    private final UserCredentialGenerator credentialGenerator;
+    private final TransactionTemplate transactionTemplate;
+
+    public UsernameAllocationService(UsernameSequenceRepository sequenceRepository,
+                                     UserRepository userRepository,
+                                     UserExistenceFilter userExistenceFilter,
+                                     UserCredentialGenerator credentialGenerator,
+                                     PlatformTransactionManager transactionManager) {
+        this.sequenceRepository = sequenceRepository;
+        this.userRepository = userRepository;
+        this.userExistenceFilter = userExistenceFilter;
+        this.credentialGenerator = credentialGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String allocateUsername(String firstName, String lastName) {
+        String baseUsername = credentialGenerator.baseUsername(firstName, lastName);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            Integer serialNumber;
+            try {
+                serialNumber = transactionTemplate.execute(
+                        status -> reserveNextSerialNumber(baseUsername, firstName, lastName));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the counter row first; the next attempt increments it
+                log.debug("Concurrent counter creation for base username {}, retrying", baseUsername);
+                continue;
+            }
+
+            String username = credentialGenerator.formatUsername(baseUsername, serialNumber);
+            // Guards against collisions with names such as John.Doe2 belonging to "John Doe2". Always
+            // asked of the database: the existence filter misses users registered on other nodes
+            if (!userRepository.existsByUsername(username)) {
+                log.debug("Allocated username: {} for {} {}", username, firstName, lastName);
+                return username;
+            }
+            log.warn("Username {} is already taken, reserving the next serial number", username);
+        }
+
+        throw new IllegalStateException("Unable to allocate a unique username for " + baseUsername);
+    }
+
+    private int reserveNextSerialNumber(String baseUsername, String firstName, String lastName) {
+        if (sequenceRepository.incrementLastSuffix(baseUsername) == 1) {
+            return sequenceRepository.findLastSuffix(baseUsername)
+                    .orElseThrow(() -> new IllegalStateException("Username counter vanished for " + baseUsername));
+        }
+
+        // First allocation for this base name: seed the counter from users created before it existed.
+        // Those were all loaded into the filter at startup; a wrong seed is caught by the existence check
+        int serialNumber = userExistenceFilter.mightContainName(firstName, lastName)
+                ? findHighestExistingSerialNumber(baseUsername) + 1
+                : 1;
+        sequenceRepository.insertSequence(baseUsername, serialNumber);
+        return serialNumber;
+    }
+
+    private int findHighestExistingSerialNumber(String baseUsername) {
+        int highest = 0;
+        for (String username : userRepository.findUsernamesStartingWith(escapeLike(baseUsername) + "%")) {
+            String serial = username.substring(baseUsername.length());
+            if (serial.isEmpty()) {
+                highest = Math.max(highest, 1);
+            } else if (serial.length() < 10 && serial.chars().allMatch(Character::isDigit)) {
+                highest = Math.max(highest, Integer.parseInt(serial));
+            }
+        }
+        return highest;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -0,0 +1,50 @@
+package com.gym.crm.util;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Carries the submitting thread's {@link TransactionContext} and MDC over to the thread that
+ * runs the task. Both are captured when the task is submitted, installed right before it runs
+ * and put back to what the running thread had before once it finishes, so a pooled worker
+ * keeps nothing from the task and a task run on the caller (caller-runs back-pressure) does
+ * not wipe the caller's own context.
+ * <p>
+ * Nothing is inherited from the thread that created the worker, which is what makes this safe
+ * for virtual threads, one of which is started per task. The context lives for exactly the
+ * task's run, the same extent a {@code ScopedValue} binding would have, so the thread-locals
+ * can be swapped for scoped values here once they are available without touching executors.
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        String transactionId = TransactionContext.getTransactionId();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            String previousTransactionId = TransactionContext.getTransactionId();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            install(transactionId, mdc);
+            try {
+                task.run();
+            } finally {
+                install(previousTransactionId, previousMdc);
+            }
+        };
+    }
+
+    private static void install(String transactionId, Map<String, String> mdc) {
+        if (transactionId != null) {
+            TransactionContext.setTransactionId(transactionId);
+        } else {
+            TransactionContext.clear();
+        }
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        } else {
+            MDC.clear();
+        }
+    }
+}
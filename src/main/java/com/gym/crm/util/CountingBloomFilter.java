@@ -0,0 +1,108 @@
+package com.gym.crm.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counting Bloom filter for string keys.
+ * Unlike a plain Bloom filter it supports removal, so it can track a mutable set
+ * such as the registered usernames. A negative answer is always exact; a positive
+ * answer may be a false positive with roughly the configured probability.
+ */
+public class CountingBloomFilter {
+
+    private final AtomicIntegerArray counters;
+    private final int numHashFunctions;
+    private final AtomicLong size = new AtomicLong();
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int numCounters = (int) Math.max(64, Math.min(bits, Integer.MAX_VALUE - 8));
+        this.counters = new AtomicIntegerArray(numCounters);
+        this.numHashFunctions = Math.max(1, (int) Math.round((double) numCounters / expectedInsertions * Math.log(2)));
+    }
+
+    public void add(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashFunctions; i++) {
+            counters.incrementAndGet(index(h1, h2, i));
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * Removes one occurrence of the key. Removing a key that was never added would
+     * introduce false negatives, so callers must only remove keys they added before.
+     */
+    public void remove(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashFunctions; i++) {
+            counters.getAndUpdate(index(h1, h2, i), value -> value > 0 ? value - 1 : 0);
+        }
+        size.updateAndGet(value -> value > 0 ? value - 1 : 0);
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashFunctions; i++) {
+            if (counters.get(index(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of keys currently tracked by the filter.
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * Estimated false positive probability for the current number of keys: (1 - e^(-kn/m))^k.
+     */
+    public double expectedFalsePositiveProbability() {
+        double exponent = -(double) numHashFunctions * size.get() / counters.length();
+        return Math.pow(1 - Math.exp(exponent), numHashFunctions);
+    }
+
+    private int index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        if (combined < 0) {
+            combined = ~combined;
+        }
+        return combined % counters.length();
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the murmur3 fmix64 step so that
+     * both 32-bit halves are usable as independent hashes (Kirsch-Mitzenmacher).
+     */
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
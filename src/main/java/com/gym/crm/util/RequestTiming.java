@@ -0,0 +1,114 @@
+package com.gym.crm.util;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Per-request breakdown of where the time goes. Like {@link TransactionContext} it is bound to
+ * the request thread: {@link #begin()} starts a recording, code on that thread wraps its work in
+ * named stages, and {@link #end()} hands back the accumulated durations. Repeated stages of the
+ * same name are summed; a stage nested in another stage of the same name is not counted twice,
+ * stages with different names may overlap (a query run while mapping counts for both).
+ * Outside a recording a stage costs a single thread-local lookup.
+ */
+public final class RequestTiming {
+
+    public static final String AUTH = "auth";
+    public static final String HASHING = "hashing";
+    public static final String DB = "db";
+    public static final String MAPPING = "mapping";
+    public static final String MESSAGING = "messaging";
+
+    private static final ThreadLocal<Recording> recordingHolder = new ThreadLocal<>();
+    private static final Stage NOOP = () -> { };
+
+    private RequestTiming() {
+    }
+
+    public static void begin() {
+        recordingHolder.set(new Recording());
+    }
+
+    /**
+     * Stops the recording of the current thread and returns the time spent per stage.
+     */
+    public static Map<String, StageTotal> end() {
+        Recording recording = recordingHolder.get();
+        recordingHolder.remove();
+        return recording == null ? Map.of() : Collections.unmodifiableMap(recording.totals);
+    }
+
+    /**
+     * Stages completed so far in the current recording.
+     */
+    public static Map<String, StageTotal> snapshot() {
+        Recording recording = recordingHolder.get();
+        return recording == null ? Map.of() : Map.copyOf(recording.totals);
+    }
+
+    public static Stage stage(String name) {
+        Recording recording = recordingHolder.get();
+        if (recording == null || !recording.active.add(name)) {
+            return NOOP;
+        }
+        long startNanos = System.nanoTime();
+        return () -> {
+            recording.active.remove(name);
+            recording.totals.merge(name, new StageTotal(System.nanoTime() - startNanos, 1), StageTotal::plus);
+        };
+    }
+
+    public static <T> T time(String name, Supplier<T> work) {
+        try (Stage ignored = stage(name)) {
+            return work.get();
+        }
+    }
+
+    public static void run(String name, Runnable work) {
+        try (Stage ignored = stage(name)) {
+            work.run();
+        }
+    }
+
+    /**
+     * Formats stage totals as a {@code Server-Timing} header value, durations in milliseconds.
+     */
+    public static String toServerTiming(Map<String, StageTotal> totals) {
+        StringBuilder header = new StringBuilder();
+        totals.forEach((name, total) -> {
+            if (!header.isEmpty()) {
+                header.append(", ");
+            }
+            header.append(name)
+                    .append(";dur=").append(String.format(Locale.ROOT, "%.1f", total.nanos() / 1_000_000.0))
+                    .append(";desc=\"").append(total.count()).append("x\"");
+        });
+        return header.toString();
+    }
+
+    /**
+     * A running stage; closing it adds its duration to the recording.
+     */
+    @FunctionalInterface
+    public interface Stage extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public record StageTotal(long nanos, int count) {
+
+        StageTotal plus(StageTotal other) {
+            return new StageTotal(nanos + other.nanos, count + other.count);
+        }
+    }
+
+    private static final class Recording {
+        private final Map<String, StageTotal> totals = new LinkedHashMap<>();
+        private final Set<String> active = new HashSet<>();
+    }
+}
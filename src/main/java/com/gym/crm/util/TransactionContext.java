@@ -1,23 +1,48 @@
 package com.gym.crm.util;
 
-import java.util.UUID;
-
 public class TransactionContext {
-    
+
+    /**
+     * Carries the transaction id on HTTP requests and responses and on workload JMS messages.
+     */
+    public static final String HEADER = "X-Transaction-Id";
+
+    private static final int MAX_INBOUND_LENGTH = 64;
+    private static final TransactionIdGenerator generator = TransactionIdGenerator.forThisNode();
     private static final ThreadLocal<String> transactionIdHolder = new ThreadLocal<>();
-    
+
     public static void setTransactionId(String transactionId) {
         transactionIdHolder.set(transactionId);
     }
-    
+
     public static String getTransactionId() {
         return transactionIdHolder.get();
     }
-    
+
     public static String generateTransactionId() {
-        return "txn-" + UUID.randomUUID().toString().substring(0, 8);
+        return generator.next();
+    }
+
+    /**
+     * Returns a transaction id received from a caller if it is safe to adopt, i.e. short and
+     * made only of letters, digits and {@code - _ . :}, so it cannot forge log lines or
+     * headers; {@code null} otherwise.
+     */
+    public static String acceptInbound(String transactionId) {
+        if (transactionId == null || transactionId.isEmpty() || transactionId.length() > MAX_INBOUND_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < transactionId.length(); i++) {
+            char c = transactionId.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == ':';
+            if (!allowed) {
+                return null;
+            }
+        }
+        return transactionId;
     }
-    
+
     public static void clear() {
         transactionIdHolder.remove();
     }
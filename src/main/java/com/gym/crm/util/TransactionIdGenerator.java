@@ -0,0 +1,83 @@
+package com.gym.crm.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * ULID-like transaction ids: 17 Crockford base32 characters made of the epoch milliseconds,
+ * a per-millisecond counter and a node id. Ids of one node sort in generation order and never
+ * repeat, even if the clock steps back or more than a million ids are taken in one millisecond
+ * (the counter then borrows from the next millisecond). No {@code SecureRandom} is involved,
+ * so generating an id never blocks on entropy; it costs one CAS and one small string.
+ * <p>
+ * The node id comes from the {@code transaction.node-id} system property or the
+ * {@code TRANSACTION_NODE_ID} environment variable (e.g. a pod ordinal); without either, or
+ * if the value is not a number in range, a random one is picked at startup. A bad value is
+ * logged rather than thrown, since the generator is created while {@link TransactionContext}
+ * is initialized and a failure there would break every request.
+ */
+@Slf4j
+public final class TransactionIdGenerator {
+
+    static final int COUNTER_BITS = 20;
+    static final int NODE_BITS = 20;
+    static final int LENGTH = 17;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int NODE_CHARS = NODE_BITS / 5;
+
+    private final int nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong last = new AtomicLong();
+
+    public TransactionIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + ((1 << NODE_BITS) - 1) + ", was " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public static TransactionIdGenerator forThisNode() {
+        String configured = System.getProperty("transaction.node-id", System.getenv("TRANSACTION_NODE_ID"));
+        return new TransactionIdGenerator(nodeId(configured), System::currentTimeMillis);
+    }
+
+    static int nodeId(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            try {
+                int nodeId = Integer.parseInt(configured.trim());
+                if (nodeId >= 0 && nodeId < 1 << NODE_BITS) {
+                    return nodeId;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below together with out-of-range values
+            }
+            log.error("Ignoring transaction node id '{}', expected a number between 0 and {}; using a random one",
+                    configured, (1 << NODE_BITS) - 1);
+        }
+        return ThreadLocalRandom.current().nextInt(1 << NODE_BITS);
+    }
+
+    public String next() {
+        long candidate = clock.getAsLong() << COUNTER_BITS;
+        long value = last.accumulateAndGet(candidate, (previous, now) -> Math.max(now, previous + 1));
+
+        char[] id = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= LENGTH - NODE_CHARS; i--) {
+            id[i] = ALPHABET[(nodeId >>> ((LENGTH - 1 - i) * 5)) & 0x1F];
+        }
+        for (int i = LENGTH - NODE_CHARS - 1; i >= 0; i--) {
+            id[i] = ALPHABET[(int) (value & 0x1F)];
+            value >>>= 5;
+        }
+        return new String(id);
+    }
+
+    int nodeId() {
+        return nodeId;
+    }
+}
@@ -5,7 +5,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
-import java.util.function.BiPredicate;
 
 @Component
 @Slf4j
@@ -20,23 +19,15 @@ public class UserCredentialGenerator {
         this.passwordService = passwordService;
     }
 
-    public String generateUsername(String firstName, String lastName, 
-                                 BiPredicate<String, String> existsChecker) {
-        String baseUsername = firstName + "." + lastName;
-        String username = baseUsername;
-        int serialNumber = 1;
-
-        while (existsChecker.test(firstName, lastName) && serialNumber == 1) {
-            serialNumber++;
-            break;
-        }
+    public String baseUsername(String firstName, String lastName) {
+        return firstName + "." + lastName;
+    }
 
-        if (serialNumber > 1) {
-            username = baseUsername + serialNumber;
-        }
-        
-        log.debug("Generated username: {} for {} {}", username, firstName, lastName);
-        return username;
+    /**
+     * The first user with a given base name gets it as is, the following ones get a serial number appended.
+     */
+    public String formatUsername(String baseUsername, int serialNumber) {
+        return serialNumber > 1 ? baseUsername + serialNumber : baseUsername;
     }
 
     public String generatePassword() {
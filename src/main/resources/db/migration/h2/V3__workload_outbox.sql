@@ -0,0 +1,11 @@
+-- Workload events waiting to be published by WorkloadOutboxRelay.
+-- H2 maps TEXT to a CLOB, so the payload is an unbounded CHARACTER VARYING here.
+CREATE TABLE workload_outbox (
+    id               BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    trainer_username VARCHAR(255) NOT NULL,
+    payload          CHARACTER VARYING NOT NULL,
+    created_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_workload_outbox_trainer ON workload_outbox (trainer_username);
@@ -0,0 +1,13 @@
+-- Audit events kept for the retention window (JdbcAuditEventStore)
+-- H2 maps TEXT to a CLOB, so the event data is an unbounded CHARACTER VARYING here.
+CREATE TABLE audit_event (
+    id         BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    event_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    principal  VARCHAR(255) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    event_data CHARACTER VARYING,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_audit_event_time ON audit_event (event_time);
+CREATE INDEX idx_audit_event_principal ON audit_event (principal, event_time);
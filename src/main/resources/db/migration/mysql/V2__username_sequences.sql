@@ -0,0 +1,6 @@
+-- Per-base-name counter of the last username suffix handed out (UsernameAllocationService)
+CREATE TABLE username_sequences (
+    base_username VARCHAR(255) NOT NULL,
+    last_suffix   INT NOT NULL,
+    PRIMARY KEY (base_username)
+);
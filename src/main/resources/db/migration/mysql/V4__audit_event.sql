@@ -0,0 +1,12 @@
+-- Audit events kept for the retention window (JdbcAuditEventStore)
+CREATE TABLE audit_event (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    event_time DATETIME(6)  NOT NULL,
+    principal  VARCHAR(255) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    event_data TEXT,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_audit_event_time ON audit_event (event_time);
+CREATE INDEX idx_audit_event_principal ON audit_event (principal, event_time);
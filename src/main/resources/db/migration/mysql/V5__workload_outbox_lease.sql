@@ -0,0 +1,2 @@
+-- Lease taken by WorkloadOutboxRelay on the events it is sending
+ALTER TABLE workload_outbox ADD COLUMN lease_until DATETIME(6) NULL;
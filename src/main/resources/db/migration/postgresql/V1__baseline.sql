@@ -0,0 +1,61 @@
+-- Schema as it was before migrations were introduced. Existing databases are baselined at
+-- version 1 (spring.flyway.baseline-on-migrate), so this script only runs on an empty schema.
+
+CREATE TABLE training_types (
+    id                 BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    training_type_name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_training_types_name UNIQUE (training_type_name)
+);
+
+CREATE TABLE users (
+    id                    BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    first_name            VARCHAR(255) NOT NULL,
+    last_name             VARCHAR(255) NOT NULL,
+    username              VARCHAR(255) NOT NULL,
+    password              VARCHAR(255) NOT NULL,
+    salt                  VARCHAR(255) NOT NULL,
+    failed_login_attempts INTEGER      NOT NULL,
+    account_locked_until  TIMESTAMP(6),
+    is_active             BOOLEAN      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE trainees (
+    id            BIGINT NOT NULL,
+    date_of_birth DATE,
+    address       VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trainees_user FOREIGN KEY (id) REFERENCES users (id)
+);
+
+CREATE TABLE trainers (
+    id                BIGINT NOT NULL,
+    specialization_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trainers_user FOREIGN KEY (id) REFERENCES users (id),
+    CONSTRAINT fk_trainers_specialization FOREIGN KEY (specialization_id) REFERENCES training_types (id)
+);
+
+CREATE TABLE trainee_trainer (
+    trainee_id BIGINT NOT NULL,
+    trainer_id BIGINT NOT NULL,
+    PRIMARY KEY (trainee_id, trainer_id),
+    CONSTRAINT fk_trainee_trainer_trainee FOREIGN KEY (trainee_id) REFERENCES trainees (id),
+    CONSTRAINT fk_trainee_trainer_trainer FOREIGN KEY (trainer_id) REFERENCES trainers (id)
+);
+
+CREATE TABLE trainings (
+    id                BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    trainee_id        BIGINT       NOT NULL,
+    trainer_id        BIGINT       NOT NULL,
+    training_name     VARCHAR(255) NOT NULL,
+    training_type_id  BIGINT       NOT NULL,
+    training_date     DATE         NOT NULL,
+    training_duration INTEGER      NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_trainings_trainee FOREIGN KEY (trainee_id) REFERENCES trainees (id),
+    CONSTRAINT fk_trainings_trainer FOREIGN KEY (trainer_id) REFERENCES trainers (id),
+    CONSTRAINT fk_trainings_type FOREIGN KEY (training_type_id) REFERENCES training_types (id)
+);
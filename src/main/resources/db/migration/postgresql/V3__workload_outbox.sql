@@ -0,0 +1,10 @@
+-- Workload events waiting to be published by WorkloadOutboxRelay
+CREATE TABLE workload_outbox (
+    id               BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    trainer_username VARCHAR(255) NOT NULL,
+    payload          TEXT         NOT NULL,
+    created_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_workload_outbox_trainer ON workload_outbox (trainer_username);
@@ -2,6 +2,9 @@ package com.gym.crm.actuator;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.actuate.audit.AuditEventRepository;
+import org.springframework.boot.actuate.audit.AuditEventsEndpoint;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -10,6 +13,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -22,6 +28,12 @@ class ActuatorEndpointsTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private AuditEventRepository auditEventRepository;
+
+    @Autowired
+    private AuditEventsEndpoint auditEventsEndpoint;
+
     private String getActuatorUrl(String endpoint) {
         return "http://localhost:" + port + "/actuator/" + endpoint;
     }
@@ -116,4 +128,25 @@ class ActuatorEndpointsTest {
         assertNotNull(specificMetricResponse.getBody());
         assertTrue(specificMetricResponse.getBody().contains("measurements"));
     }
+
+    @Test
+    void testAuditEventsEndpointRequiresAuthentication() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                getActuatorUrl("auditevents?principal=Audit.Endpoint"), String.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @Test
+    void testAuditEventsEndpointFiltersByPrincipalAndType() {
+        auditEventRepository.add(new AuditEvent("Audit.Endpoint", "PROFILE_UPDATE", Map.of("source", "test")));
+        auditEventRepository.add(new AuditEvent("Audit.Endpoint", "PASSWORD_CHANGE", Map.of()));
+        auditEventRepository.add(new AuditEvent("Someone.Else", "PROFILE_UPDATE", Map.of()));
+
+        List<AuditEvent> events = auditEventsEndpoint.events("Audit.Endpoint", null, "PROFILE_UPDATE").getEvents();
+
+        assertEquals(1, events.size());
+        assertEquals("Audit.Endpoint", events.getFirst().getPrincipal());
+        assertEquals("test", events.getFirst().getData().get("source"));
+    }
 }
@@ -0,0 +1,122 @@
+package com.gym.crm.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.audit.AuditEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAuditEventRepositoryTest {
+
+    private RecordingStore store;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        store = new RecordingStore();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testAddOnlyBuffersAndFindWritesOutPendingEvents() {
+        AsyncAuditEventRepository repository = repository(16, 4);
+
+        for (int i = 0; i < 10; i++) {
+            repository.add(new AuditEvent("John.Smith", "PROFILE_UPDATE", Map.of("sequence", i)));
+        }
+        assertTrue(store.batches.isEmpty());
+
+        List<AuditEvent> events = repository.find("John.Smith", Instant.now().minusSeconds(10), "PROFILE_UPDATE");
+
+        assertEquals(10, events.size());
+        assertEquals(List.of(4, 4, 2), store.batches.stream().map(List::size).toList());
+        assertEquals(10.0, meterRegistry.get("audit.events.written").counter().count());
+        assertEquals(0.0, meterRegistry.get("audit.buffer.size").gauge().value());
+    }
+
+    @Test
+    void testFullBufferDropsAndCountsInsteadOfBlocking() {
+        AsyncAuditEventRepository repository = repository(4, 100);
+
+        for (int i = 0; i < 6; i++) {
+            repository.add(new AuditEvent("John.Smith", "AUTHENTICATION_SUCCESS", Map.of()));
+        }
+        repository.flush();
+
+        assertEquals(4, store.events.size());
+        assertEquals(2.0, meterRegistry.get("audit.events.dropped").tag("reason", "overflow").counter().count());
+    }
+
+    @Test
+    void testRejectedBatchIsCountedAndPipelineKeepsRunning() {
+        AsyncAuditEventRepository repository = repository(16, 100);
+        store.failNextAppend = true;
+
+        repository.add(new AuditEvent("John.Smith", "PASSWORD_CHANGE", Map.of()));
+        repository.flush();
+        repository.add(new AuditEvent("John.Smith", "PASSWORD_CHANGE", Map.of()));
+        repository.flush();
+
+        assertEquals(1, store.events.size());
+        assertEquals(1.0, meterRegistry.get("audit.events.dropped").tag("reason", "write_failed").counter().count());
+    }
+
+    @Test
+    void testQueriesAndPurgeAreLimitedToRetentionWindow() {
+        AsyncAuditEventRepository repository = repository(16, 100);
+        Instant now = Instant.now();
+        repository.add(new AuditEvent(now.minus(Duration.ofDays(40)), "John.Smith", "USER_REGISTRATION", Map.of()));
+        repository.add(new AuditEvent(now.minus(Duration.ofDays(1)), "John.Smith", "PROFILE_UPDATE", Map.of()));
+
+        List<AuditEvent> events = repository.find("John.Smith", null, null);
+        assertEquals(List.of("PROFILE_UPDATE"), events.stream().map(AuditEvent::getType).toList());
+
+        repository.purgeExpired();
+        assertEquals(1, store.events.size());
+        assertEquals(1.0, meterRegistry.get("audit.events.purged").counter().count());
+    }
+
+    private AsyncAuditEventRepository repository(int capacity, int batchSize) {
+        return new AsyncAuditEventRepository(store, meterRegistry, capacity, batchSize, Duration.ofDays(30));
+    }
+
+    private static final class RecordingStore implements AuditEventStore {
+
+        private final List<List<AuditEvent>> batches = new ArrayList<>();
+        private final List<AuditEvent> events = new ArrayList<>();
+        private boolean failNextAppend;
+
+        @Override
+        public void append(List<AuditEvent> batch) {
+            if (failNextAppend) {
+                failNextAppend = false;
+                throw new IllegalStateException("store unavailable");
+            }
+            batches.add(List.copyOf(batch));
+            events.addAll(batch);
+        }
+
+        @Override
+        public List<AuditEvent> find(String principal, Instant after, String type) {
+            return events.stream()
+                    .filter(event -> principal == null || principal.equals(event.getPrincipal()))
+                    .filter(event -> type == null || type.equals(event.getType()))
+                    .filter(event -> event.getTimestamp().isAfter(after))
+                    .toList();
+        }
+
+        @Override
+        public int deleteOlderThan(Instant cutoff) {
+            int before = events.size();
+            events.removeIf(event -> event.getTimestamp().isBefore(cutoff));
+            return before - events.size();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.gym.crm.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    void testCapacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(8, new AuditRingBuffer<String>(5).capacity());
+        assertEquals(8, new AuditRingBuffer<String>(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer<String>(0));
+    }
+
+    @Test
+    void testDrainsInInsertionOrderAndRejectsWhenFull() {
+        AuditRingBuffer<String> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer("event" + i));
+        }
+        assertFalse(buffer.offer("overflow"));
+        assertEquals(4, buffer.size());
+
+        List<String> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertEquals(List.of("event0", "event1", "event2"), drained);
+
+        // Freed slots are reused on the next lap
+        assertTrue(buffer.offer("event4"));
+        drained.clear();
+        assertEquals(2, buffer.drainTo(drained, 10));
+        assertEquals(List.of("event3", "event4"), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothingThatWasAccepted() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 20_000;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        Set<Integer> accepted = ConcurrentHashMap.newKeySet();
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (buffer.offer(base + i)) {
+                        accepted.add(base + i);
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> drained = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drainTo(batch, 256);
+            for (Integer element : batch) {
+                assertTrue(drained.add(element), "Element drained twice: " + element);
+            }
+            batch.clear();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        buffer.drainTo(batch, Integer.MAX_VALUE);
+        drained.addAll(batch);
+
+        assertEquals(accepted, drained);
+    }
+}
@@ -0,0 +1,148 @@
+package com.gym.crm.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.audit.AuditEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalAuditEventStoreTest {
+
+    private static final Instant BASE = Instant.parse("2025-05-10T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private JournalAuditEventStore store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void testFindsByPrincipalTypeAndTimeWithOriginalDataTypes() {
+        store = open(100);
+        store.append(List.of(
+                event(0, "John.Smith", "AUTHENTICATION_SUCCESS", Map.of("source", "login", "success", true)),
+                event(1, "Jane.Doe", "PROFILE_UPDATE", Map.of("attempt", 2)),
+                event(2, "John.Smith", "PROFILE_UPDATE", Map.of()),
+                event(3, "John.Smith", "AUTHENTICATION_SUCCESS", Map.of())));
+
+        List<AuditEvent> johnLogins = store.find("John.Smith", BASE.minusSeconds(1), "AUTHENTICATION_SUCCESS");
+        assertEquals(2, johnLogins.size());
+        assertEquals(BASE, johnLogins.getFirst().getTimestamp());
+        assertEquals(Boolean.TRUE, johnLogins.getFirst().getData().get("success"));
+        assertEquals("login", johnLogins.getFirst().getData().get("source"));
+
+        assertEquals(List.of("Jane.Doe", "John.Smith"),
+                store.find(null, BASE, "PROFILE_UPDATE").stream().map(AuditEvent::getPrincipal).toList());
+        assertEquals(2, store.find(null, BASE.plusSeconds(1), null).size());
+        assertEquals(2, store.find("Jane.Doe", null, null).getFirst().getData().get("attempt"));
+        assertTrue(store.find("Nobody", null, null).isEmpty());
+    }
+
+    @Test
+    void testEventsSurviveReopenAndAppendsContinue() throws IOException {
+        store = open(3);
+        store.append(List.of(
+                event(0, "John.Smith", "USER_REGISTRATION", Map.of()),
+                event(1, "John.Smith", "PROFILE_UPDATE", Map.of()),
+                event(2, "Jane.Doe", "USER_REGISTRATION", Map.of()),
+                event(3, "John.Smith", "PASSWORD_CHANGE", Map.of())));
+        store.close();
+
+        store = open(3);
+        store.append(List.of(event(4, "John.Smith", "ACCOUNT_DEACTIVATED", Map.of())));
+
+        assertEquals(List.of("USER_REGISTRATION", "PROFILE_UPDATE", "PASSWORD_CHANGE", "ACCOUNT_DEACTIVATED"),
+                store.find("John.Smith", null, null).stream().map(AuditEvent::getType).toList());
+        assertEquals(2, segmentFiles().size());
+    }
+
+    @Test
+    void testRetentionDropsExpiredSegmentsAndCompactsMostlyExpiredOnes() throws IOException {
+        store = open(4);
+        List<AuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            events.add(event(i, "trainee" + (i % 2), "PROFILE_UPDATE", Map.of("sequence", i)));
+        }
+        store.append(events);
+        assertEquals(3, segmentFiles().size());
+
+        // Events 0-2 expire: the first segment keeps one of four, the others are untouched
+        assertEquals(3, store.deleteOlderThan(BASE.plusSeconds(3)));
+        assertEquals(7, store.find(null, null, null).size());
+        assertEquals(List.of(4, 6, 8), store.find("trainee0", BASE.plusSeconds(3), null).stream()
+                .map(event -> event.getData().get("sequence")).toList());
+
+        // Events 3-7 expire: both sealed segments only hold expired events and are dropped
+        assertEquals(5, store.deleteOlderThan(BASE.plusSeconds(8)));
+        assertEquals(1, segmentFiles().size());
+        store.close();
+
+        store = open(4);
+        assertEquals(List.of(8, 9), store.find(null, null, null).stream()
+                .map(event -> event.getData().get("sequence")).toList());
+    }
+
+    @Test
+    void testOversizedDataIsReplacedByMarker() {
+        store = open(10);
+        store.append(List.of(event(0, "John.Smith", "PROFILE_UPDATE", Map.of("note", "x".repeat(1_000)))));
+
+        assertEquals(Map.of("truncated", true), store.find("John.Smith", null, null).getFirst().getData());
+    }
+
+    @Test
+    void testQueriesOverManyEventsReadOnlyIndexedRecords() {
+        int total = 20_000;
+        store = open(5_000);
+        List<AuditEvent> batch = new ArrayList<>(1_000);
+        for (int i = 0; i < total; i++) {
+            batch.add(event(i, "user" + (i % 5_000), i % 2 == 0 ? "PROFILE_UPDATE" : "AUTHENTICATION_SUCCESS", Map.of()));
+            if (batch.size() == 1_000) {
+                store.append(batch);
+                batch.clear();
+            }
+        }
+
+        long scanned = store.recordsScanned();
+        assertEquals(4, store.find("user42", BASE, "PROFILE_UPDATE").size());
+        // Only the principal's own records are read
+        assertEquals(4, store.recordsScanned() - scanned);
+
+        scanned = store.recordsScanned();
+        assertEquals(10, store.find(null, BASE.plus(Duration.ofSeconds(total - 11)), null).size());
+        // Older segments and blocks are skipped
+        assertTrue(store.recordsScanned() - scanned <= JournalSegment.BLOCK_SIZE);
+    }
+
+    private JournalAuditEventStore open(int segmentRecords) {
+        return new JournalAuditEventStore(directory, segmentRecords, new ObjectMapper());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).toList();
+        }
+    }
+
+    private static AuditEvent event(int second, String principal, String type, Map<String, Object> data) {
+        return new AuditEvent(BASE.plusSeconds(second), principal, type, data);
+    }
+}
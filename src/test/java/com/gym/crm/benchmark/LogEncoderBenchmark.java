@@ -0,0 +1,94 @@
+package com.gym.crm.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.gym.crm.logging.JsonLineEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding one request log line with the file pattern from {@code logback-spring.xml}
+ * and with {@link JsonLineEncoder}. Both encode the same event, whose message is formatted
+ * once up front, so only the encoders are compared. Run {@link #main} from the IDE or with the
+ * test classpath; the GC profiler reports the bytes allocated per event next to the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LogEncoderBenchmark {
+
+    private static final String FILE_PATTERN =
+            "%d{ISO8601} [%thread] %-5level %logger{36} - [%X{transactionId}] [%X{userId}] %msg%n";
+
+    private PatternLayoutEncoder patternEncoder;
+    private JsonLineEncoder jsonEncoder;
+    private LoggingEvent event;
+
+    @Setup
+    public void setUp() {
+        LoggerContext loggerContext = new LoggerContext();
+
+        patternEncoder = new PatternLayoutEncoder();
+        patternEncoder.setContext(loggerContext);
+        patternEncoder.setPattern(FILE_PATTERN);
+        patternEncoder.start();
+
+        jsonEncoder = new JsonLineEncoder();
+        jsonEncoder.setContext(loggerContext);
+        jsonEncoder.addNumericField("status");
+        jsonEncoder.addNumericField("durationMs");
+        jsonEncoder.start();
+
+        Logger logger = loggerContext.getLogger("com.gym.crm.config.PerformanceLoggingFilter");
+        event = new LoggingEvent(Logger.class.getName(), logger, Level.INFO,
+                "REQUEST [{}]: {} {} ({}) - Status: {}, Duration: {}ms", null,
+                new Object[]{"0f8c2d4e-6b1a-4c3e-9d7f-2a5b8c1e4f6a", "GET", "/api/trainees/John.Smith",
+                        "/api/trainees/{username}", 200, 12});
+        event.setMDCPropertyMap(Map.of(
+                "transactionId", "0f8c2d4e-6b1a-4c3e-9d7f-2a5b8c1e4f6a",
+                "userId", "John.Smith",
+                "route", "/api/trainees/{username}",
+                "status", "200",
+                "durationMs", "12"));
+        event.getFormattedMessage();
+        event.getThreadName();
+    }
+
+    @Benchmark
+    public byte[] patternLayout() {
+        return patternEncoder.encode(event);
+    }
+
+    @Benchmark
+    public byte[] jsonLine() {
+        return jsonEncoder.encode(event);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LogEncoderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.gym.crm.benchmark;
+
+import com.gym.crm.metrics.DomainMetrics;
+import com.gym.crm.mongo.EmbeddedMongoSupport;
+import com.gym.crm.mongo.config.MongoIndexInitializer;
+import com.gym.crm.mongo.config.TrainerSummaryStorageConfig.SummaryStorage;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.service.FlatTrainerSummaryStore;
+import com.gym.crm.mongo.service.NestedTrainerSummaryStore;
+import com.gym.crm.mongo.service.TrainerSummaryCache;
+import com.gym.crm.mongo.service.TrainerSummaryStore;
+import com.gym.crm.mongo.service.TrainerTrainingSummaryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Events per second through {@link TrainerTrainingSummaryService#processTrainingEventBatch}, the
+ * unordered bulk write path, for both summary layouts against embedded MongoDB. Every batch
+ * spreads its events over many trainers and all months of a year and carries fresh event keys,
+ * so nothing is skipped as a duplicate. The target is 50k events/s. Run {@link #main} from the
+ * IDE or with the test classpath.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(TrainerSummaryBatchBenchmark.BATCH_SIZE)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class TrainerSummaryBatchBenchmark {
+
+    static final int BATCH_SIZE = 5_000;
+    private static final int TRAINERS = 500;
+
+    @Param({"NESTED", "FLAT"})
+    public SummaryStorage storage;
+
+    private TrainerTrainingSummaryService service;
+    private long batches;
+
+    @Setup
+    public void setUp() {
+        MongoTemplate mongoTemplate = EmbeddedMongoSupport.mongoTemplate();
+        mongoTemplate.dropCollection(TrainerTrainingSummary.class);
+        mongoTemplate.dropCollection(TrainerMonthlySummary.class);
+        new MongoIndexInitializer(mongoTemplate, new MongoMappingContext(), false).ensureIndexes();
+
+        TrainerSummaryStore store;
+        if (storage == SummaryStorage.FLAT) {
+            FlatTrainerSummaryStore flat = new FlatTrainerSummaryStore(mongoTemplate);
+            flat.ensureIndexes();
+            store = flat;
+        } else {
+            store = new NestedTrainerSummaryStore(mongoTemplate);
+        }
+        service = new TrainerTrainingSummaryService(store, new TrainerSummaryCache(100, 16, Duration.ofSeconds(5)),
+                new DomainMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public void processTrainingEventBatch() {
+        long batch = batches++;
+        List<TrainerTrainingEvent> events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(TrainerTrainingEvent.builder()
+                    .trainerUsername("bulk" + i % TRAINERS)
+                    .trainerFirstName("Bulk")
+                    .trainerLastName("Trainer")
+                    .trainerStatus(true)
+                    .trainingDate(LocalDate.of(2025, 1 + (i / TRAINERS) % 12, 1))
+                    .trainingDuration(1 + i % 90)
+                    .transactionId("txn-" + batch)
+                    .trainingId(batch * BATCH_SIZE + i)
+                    .build());
+        }
+        service.processTrainingEventBatch(events);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrainerSummaryBatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
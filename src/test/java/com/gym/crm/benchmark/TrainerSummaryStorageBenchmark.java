@@ -0,0 +1,122 @@
+package com.gym.crm.benchmark;
+
+import com.gym.crm.mongo.EmbeddedMongoSupport;
+import com.gym.crm.mongo.config.MongoIndexInitializer;
+import com.gym.crm.mongo.config.TrainerSummaryStorageConfig.SummaryStorage;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
+import com.gym.crm.mongo.service.FlatTrainerSummaryStore;
+import com.gym.crm.mongo.service.NestedTrainerSummaryStore;
+import com.gym.crm.mongo.service.TrainerSummaryMigrationJob;
+import com.gym.crm.mongo.service.TrainerSummaryStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one month update and of one full read in the nested and flat summary layouts, for
+ * trainers with ten years of monthly history in embedded MongoDB. An update is a single
+ * {@link TrainerSummaryStore#applyDelta} cycling over trainers and months; a read returns a
+ * trainer's whole history. Run {@link #main} from the IDE or with the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TrainerSummaryStorageBenchmark {
+
+    private static final int TRAINERS = 50;
+    private static final int FIRST_YEAR = 2016;
+    private static final int YEARS = 10;
+
+    @Param({"NESTED", "FLAT"})
+    public SummaryStorage storage;
+
+    private TrainerSummaryStore store;
+    private final List<TrainerTrainingEvent> profiles = new ArrayList<>(TRAINERS);
+    private int next;
+
+    @Setup
+    public void setUp() {
+        MongoTemplate mongoTemplate = EmbeddedMongoSupport.mongoTemplate();
+        mongoTemplate.dropCollection(TrainerTrainingSummary.class);
+        mongoTemplate.dropCollection(TrainerMonthlySummary.class);
+        new MongoIndexInitializer(mongoTemplate, new MongoMappingContext(), false).ensureIndexes();
+        for (int t = 0; t < TRAINERS; t++) {
+            mongoTemplate.insert(history("bench" + t));
+            profiles.add(TrainerTrainingEvent.builder()
+                    .trainerUsername("bench" + t)
+                    .trainerFirstName("Bench")
+                    .trainerLastName("Trainer")
+                    .trainerStatus(true)
+                    .build());
+        }
+
+        if (storage == SummaryStorage.FLAT) {
+            new TrainerSummaryMigrationJob(mongoTemplate, 1000, false).migrate();
+            FlatTrainerSummaryStore flat = new FlatTrainerSummaryStore(mongoTemplate);
+            flat.ensureIndexes();
+            store = flat;
+        } else {
+            store = new NestedTrainerSummaryStore(mongoTemplate);
+        }
+    }
+
+    @Benchmark
+    public boolean applyDelta() {
+        int i = next++;
+        return store.applyDelta(profiles.get(i % TRAINERS), FIRST_YEAR + i % YEARS, 1 + i % 12, 1, List.of());
+    }
+
+    @Benchmark
+    public Optional<TrainerTrainingSummary> read() {
+        return store.findByTrainerUsername(profiles.get(next++ % TRAINERS).getTrainerUsername());
+    }
+
+    private static TrainerTrainingSummary history(String trainerUsername) {
+        List<YearSummary> years = new ArrayList<>(YEARS);
+        for (int y = 0; y < YEARS; y++) {
+            List<MonthSummary> months = new ArrayList<>(12);
+            for (int m = 1; m <= 12; m++) {
+                months.add(MonthSummary.builder().month(m).trainingsSummaryDuration(60 + m).build());
+            }
+            years.add(YearSummary.builder().year(FIRST_YEAR + y).months(months).build());
+        }
+        return TrainerTrainingSummary.builder()
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("Bench")
+                .trainerLastName("Trainer")
+                .trainerStatus(true)
+                .years(years)
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TrainerSummaryStorageBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
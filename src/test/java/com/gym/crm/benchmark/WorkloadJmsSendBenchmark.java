@@ -0,0 +1,99 @@
+package com.gym.crm.benchmark;
+
+import com.gym.crm.integration.config.ActiveMqConfig;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Workload sends per second through {@link JmsTemplate} with the raw ActiveMQ connection
+ * factory, which opens a connection and session for every send, and with the pooled factory
+ * used by default, against an embedded non-persistent broker. A consumer drains the queue so
+ * the broker never throttles the producer, and its connection keeps the vm:// broker alive
+ * between raw sends. Run {@link #main} from the IDE or with the test classpath.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class WorkloadJmsSendBenchmark {
+
+    private static final String BROKER_URL = "vm://jms-benchmark?broker.persistent=false&useShutdownHook=false";
+    private static final String QUEUE = "workload.benchmark";
+
+    @Param({"raw", "pooled"})
+    public String factory;
+
+    private final Map<String, Object> payload = Map.of("trainerUsername", "John.Smith", "trainingDuration", 60);
+    private Connection drain;
+    private JmsPoolConnectionFactory pooled;
+    private JmsTemplate template;
+
+    @Setup
+    public void setUp() throws JMSException {
+        ActiveMqConfig config = new ActiveMqConfig();
+        ReflectionTestUtils.setField(config, "brokerUrl", BROKER_URL);
+        ReflectionTestUtils.setField(config, "asyncSend", false);
+        ReflectionTestUtils.setField(config, "producerWindowSize", 1024 * 1024);
+        ReflectionTestUtils.setField(config, "poolMaxConnections", 1);
+        ReflectionTestUtils.setField(config, "poolMaxSessionsPerConnection", 10);
+
+        drain = config.connectionFactory().createConnection();
+        Session session = drain.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        session.createConsumer(session.createQueue(QUEUE)).setMessageListener(message -> {
+        });
+        drain.start();
+
+        ConnectionFactory connectionFactory;
+        if ("pooled".equals(factory)) {
+            pooled = config.pooledConnectionFactory();
+            connectionFactory = pooled;
+        } else {
+            connectionFactory = config.connectionFactory();
+        }
+        template = config.jmsTemplate(connectionFactory, config.jacksonJmsMessageConverter());
+    }
+
+    @TearDown
+    public void tearDown() throws JMSException {
+        if (pooled != null) {
+            pooled.stop();
+        }
+        drain.close();
+    }
+
+    @Benchmark
+    public void send() {
+        template.convertAndSend(QUEUE, payload);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WorkloadJmsSendBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
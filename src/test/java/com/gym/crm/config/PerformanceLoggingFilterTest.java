@@ -0,0 +1,175 @@
+package com.gym.crm.config;
+
+import com.gym.crm.util.RequestTiming;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerformanceLoggingFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PerformanceMonitoringProperties properties;
+    private PerformanceLoggingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new PerformanceMonitoringProperties();
+        properties.getLog().setSampleRate(0);
+        filter = new PerformanceLoggingFilter(meterRegistry, properties);
+    }
+
+    @Test
+    void testRecordsTimerTaggedByRouteTemplate() throws Exception {
+        perform("GET", "/api/trainees/john.doe", "/api/trainees/{username}", 200);
+        perform("GET", "/api/trainees/jane.roe", "/api/trainees/{username}", 200);
+        perform("GET", "/api/trainees/jane.roe", "/api/trainees/{username}", 404);
+
+        Timer ok = meterRegistry.get(PerformanceLoggingFilter.METRIC_NAME)
+                .tags("uri", "/api/trainees/{username}", "method", "GET", "status", "200", "outcome", "SUCCESS")
+                .timer();
+        assertEquals(2, ok.count());
+        assertEquals(1, meterRegistry.get(PerformanceLoggingFilter.METRIC_NAME)
+                .tags("status", "404", "outcome", "CLIENT_ERROR").timer().count());
+        assertTrue(meterRegistry.find(PerformanceLoggingFilter.METRIC_NAME).tag("uri", "/api/trainees/john.doe").meters().isEmpty());
+    }
+
+    @Test
+    void testUnmatchedRequestsDoNotUseRawPath() throws Exception {
+        perform("GET", "/api/unknown/123", null, 404);
+        perform("POST", "/api/login", null, 401);
+
+        assertEquals(1, meterRegistry.get(PerformanceLoggingFilter.METRIC_NAME).tag("uri", "NOT_FOUND").timer().count());
+        assertEquals(1, meterRegistry.get(PerformanceLoggingFilter.METRIC_NAME).tag("uri", "UNKNOWN").timer().count());
+    }
+
+    @Test
+    void testPublishesConfiguredSloBuckets() throws Exception {
+        properties.setSlo(List.of(Duration.ofMillis(50), Duration.ofSeconds(5)));
+
+        perform("GET", "/api/trainers/jane", "/api/trainers/{username}", 200);
+
+        Timer timer = meterRegistry.get(PerformanceLoggingFilter.METRIC_NAME).timer();
+        double[] buckets = Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .mapToDouble(bucket -> bucket.bucket(TimeUnit.MILLISECONDS))
+                .toArray();
+        assertTrue(Arrays.stream(buckets).anyMatch(bucket -> bucket == 50.0));
+        assertTrue(Arrays.stream(buckets).anyMatch(bucket -> bucket == 5000.0));
+        CountAtBucket fiveSeconds = Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .filter(bucket -> bucket.bucket(TimeUnit.MILLISECONDS) == 5000.0)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, fiveSeconds.count());
+    }
+
+    @Test
+    void testRouteThresholdOverridesDefault() {
+        properties.getRouteThresholds().put("/api/workload/trainers", Duration.ofSeconds(3));
+
+        assertEquals(Duration.ofSeconds(3), properties.slowThresholdFor("/api/workload/trainers"));
+        assertEquals(Duration.ofSeconds(1), properties.slowThresholdFor("/api/trainers/{username}"));
+    }
+
+    @Test
+    void testRecordsStagesAsTimersAndServerTimingHeader() throws Exception {
+        properties.setServerTiming(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trainers/jane");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/trainers/{username}");
+                RequestTiming.run(RequestTiming.DB, () -> { });
+                RequestTiming.run(RequestTiming.DB, () -> { });
+                RequestTiming.run(RequestTiming.HASHING, () -> { });
+            }
+        };
+
+        filter.doFilter(request, response, chain);
+
+        // Repeated stages are summed and recorded once per request
+        assertEquals(1, meterRegistry.get(PerformanceLoggingFilter.STAGE_METRIC_NAME)
+                .tags("uri", "/api/trainers/{username}", "stage", RequestTiming.DB).timer().count());
+        assertEquals(1, meterRegistry.get(PerformanceLoggingFilter.STAGE_METRIC_NAME)
+                .tags("stage", RequestTiming.HASHING).timer().count());
+        String header = response.getHeader(ServerTimingResponseAdvice.SERVER_TIMING_HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("db;dur="), header);
+        assertTrue(header.contains(";desc=\"2x\""), header);
+        assertTrue(header.contains("hashing;dur="), header);
+        assertTrue(RequestTiming.snapshot().isEmpty(), "recording must not leak to the next request");
+    }
+
+    @Test
+    void testServerTimingHeaderIsOffByDefault() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                RequestTiming.run(RequestTiming.MAPPING, () -> { });
+            }
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/trainers/jane"), response, chain);
+
+        assertNull(response.getHeader(ServerTimingResponseAdvice.SERVER_TIMING_HEADER));
+        assertEquals(1, meterRegistry.get(PerformanceLoggingFilter.STAGE_METRIC_NAME)
+                .tags("stage", RequestTiming.MAPPING).timer().count());
+    }
+
+    @Test
+    void testCountsRequestsAboveStatementThreshold() throws Exception {
+        properties.setStatementThreshold(3);
+        SqlStatementCounter statementCounter = new SqlStatementCounter();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/trainees/{username}");
+                for (int i = 0; i < 5; i++) {
+                    statementCounter.inspect("select * from trainee");
+                }
+            }
+        };
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/trainees/john"), new MockHttpServletResponse(), chain);
+        perform("GET", "/api/trainees/jane", "/api/trainees/{username}", 200);
+
+        DistributionSummary statements = meterRegistry.get(PerformanceLoggingFilter.STATEMENTS_METRIC_NAME)
+                .tag("uri", "/api/trainees/{username}").summary();
+        assertEquals(2, statements.count());
+        assertEquals(5, statements.max());
+        assertEquals(1, meterRegistry.get(PerformanceLoggingFilter.STATEMENTS_EXCEEDED_METRIC_NAME)
+                .tag("uri", "/api/trainees/{username}").counter().count());
+    }
+
+    private void perform(String method, String uri, String pattern, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                if (pattern != null) {
+                    req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+                }
+                ((MockHttpServletResponse) res).setStatus(status);
+            }
+        };
+        filter.doFilter(request, response, chain);
+    }
+}
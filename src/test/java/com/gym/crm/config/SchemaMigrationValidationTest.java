@@ -0,0 +1,52 @@
+package com.gym.crm.config;
+
+import com.gym.crm.audit.AuditEventStore;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds the schema from the Flyway scripts only and lets Hibernate validate every entity
+ * against it, as prod and stg do; the context does not start if a table or column is missing.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrationdb;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "audit.store=JDBC"
+})
+@ActiveProfiles("test")
+class SchemaMigrationValidationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private AuditEventStore auditEventStore;
+
+    @Test
+    void testMigrationsApplyCleanlyAndMatchTheEntities() {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals("5", flyway.info().current().getVersion().getVersion());
+    }
+
+    @Test
+    void testAuditEventDataIsStoredAsText() {
+        Instant now = Instant.now();
+        auditEventStore.append(List.of(new AuditEvent(now, "John.Smith", "PROFILE_UPDATE", Map.of("note", "x".repeat(5_000)))));
+
+        List<AuditEvent> found = auditEventStore.find("John.Smith", now.minusSeconds(1), "PROFILE_UPDATE");
+
+        assertEquals(1, found.size());
+        assertEquals("x".repeat(5_000), found.getFirst().getData().get("note"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.gym.crm.config;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test helper that runs an action on the current thread and fails when it prepares more SQL
+ * statements than its budget. MockMvc requests run on the calling thread, so a whole controller
+ * call, filters and view-time lazy loading included, can be measured this way.
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    /**
+     * @return the number of statements the action ran
+     */
+    public static long assertWithin(long budget, String description, Callable<?> action) throws Exception {
+        long statements = count(action);
+        assertTrue(statements <= budget,
+                () -> description + " ran " + statements + " SQL statements, budget is " + budget);
+        return statements;
+    }
+
+    public static long count(Callable<?> action) throws Exception {
+        long start = SqlStatementCounter.current();
+        action.call();
+        return SqlStatementCounter.current() - start;
+    }
+}
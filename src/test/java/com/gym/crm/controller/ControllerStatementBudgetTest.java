@@ -0,0 +1,141 @@
+package com.gym.crm.controller;
+
+import com.gym.crm.config.StatementBudget;
+import com.gym.crm.facade.GymCrmFacade;
+import com.gym.crm.model.Trainee;
+import com.gym.crm.model.Trainer;
+import com.gym.crm.model.Training;
+import com.gym.crm.model.TrainingType;
+import com.gym.crm.model.User;
+import com.gym.crm.repository.TrainingRepository;
+import com.gym.crm.repository.TrainingTypeRepository;
+import com.gym.crm.repository.UserRepository;
+import com.gym.crm.security.JwtService;
+import com.gym.crm.security.PasswordService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the read endpoints. Each endpoint is called for an owner with few and
+ * with more related rows; the statement count must stay within the budget and must not grow
+ * with the number of rows, which is how an N+1 query pattern shows up.
+ */
+@SpringBootTest(properties = "workload.outbox.enabled=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ControllerStatementBudgetTest {
+
+    private static final int BUDGET = 12;
+    private static final String PASSWORD = "Budget-Secret-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GymCrmFacade gymCrmFacade;
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private TrainingTypeRepository trainingTypeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void testReadEndpointsStayWithinStatementBudget() throws Exception {
+        List<TrainingType> types = trainingTypeRepository.findAll();
+        List<Trainer> trainers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            trainers.add(withKnownPassword(gymCrmFacade.createTrainer(new Trainer("Budget", "Trainer", types.get(i)))));
+        }
+        Trainee few = withKnownPassword(gymCrmFacade.createTrainee(new Trainee("Few", "Rows", LocalDate.of(1990, 1, 1), "Main St")));
+        Trainee many = withKnownPassword(gymCrmFacade.createTrainee(new Trainee("Many", "Rows", LocalDate.of(1990, 1, 1), "Main St")));
+
+        gymCrmFacade.updateTraineeTrainersList(few.getUsername(), PASSWORD, List.of(trainers.getFirst().getUsername()));
+        gymCrmFacade.updateTraineeTrainersList(many.getUsername(), PASSWORD,
+                trainers.stream().map(Trainer::getUsername).toList());
+        trainingRepository.save(training(few, trainers.getFirst(), types.getFirst()));
+        for (int i = 0; i < trainers.size(); i++) {
+            trainingRepository.save(training(many, trainers.get(i), types.get(i)));
+        }
+
+        // Trainee side: 1 vs 5 trainers and trainings
+        assertSameBudget("GET /api/trainees/{username}",
+                traineeGet("/api/trainees/" + few.getUsername(), few.getUsername(), PASSWORD),
+                traineeGet("/api/trainees/" + many.getUsername(), many.getUsername(), PASSWORD));
+        assertSameBudget("GET /api/trainees/{username}/trainings",
+                traineeGet("/api/trainees/" + few.getUsername() + "/trainings", few.getUsername(), PASSWORD),
+                traineeGet("/api/trainees/" + many.getUsername() + "/trainings", many.getUsername(), PASSWORD));
+
+        // Trainer side: the first trainer has 2 trainees and trainings, the last one 1
+        Trainer busy = trainers.getFirst();
+        Trainer quiet = trainers.getLast();
+        assertSameBudget("GET /api/trainers/{username}",
+                trainerGet("/api/trainers/" + quiet.getUsername(), quiet.getUsername(), PASSWORD),
+                trainerGet("/api/trainers/" + busy.getUsername(), busy.getUsername(), PASSWORD));
+        assertSameBudget("GET /api/trainers/{username}/trainings",
+                trainerGet("/api/trainers/" + quiet.getUsername() + "/trainings", quiet.getUsername(), PASSWORD),
+                trainerGet("/api/trainers/" + busy.getUsername() + "/trainings", busy.getUsername(), PASSWORD));
+
+        StatementBudget.assertWithin(BUDGET, "GET /api/training-types",
+                () -> mockMvc.perform(get("/api/training-types")
+                                .header("Authorization", "Bearer " + jwtService.generateToken(few.getUsername(), "TRAINEE")))
+                        .andExpect(status().isOk()));
+    }
+
+    private void assertSameBudget(String endpoint, Request fewRows, Request moreRows) throws Exception {
+        long fewStatements = StatementBudget.assertWithin(BUDGET, endpoint, fewRows::perform);
+        long moreStatements = StatementBudget.assertWithin(BUDGET, endpoint, moreRows::perform);
+        assertEquals(fewStatements, moreStatements, endpoint + " runs more statements as related rows grow");
+    }
+
+    private Request traineeGet(String path, String username, String password) {
+        return () -> mockMvc.perform(get(path)
+                        .param("password", password)
+                        .header("Authorization", "Bearer " + jwtService.generateToken(username, "TRAINEE")))
+                .andExpect(status().isOk());
+    }
+
+    private Request trainerGet(String path, String username, String password) {
+        return () -> mockMvc.perform(get(path)
+                        .param("password", password)
+                        .header("Authorization", "Bearer " + jwtService.generateToken(username, "TRAINER")))
+                .andExpect(status().isOk());
+    }
+
+    private <T extends User> T withKnownPassword(T user) {
+        user.setPassword(passwordService.hashPassword(PASSWORD, user.getSalt()));
+        userRepository.save(user);
+        return user;
+    }
+
+    private static Training training(Trainee trainee, Trainer trainer, TrainingType type) {
+        return new Training(trainee, trainer, "Session", type, LocalDate.of(2025, 5, 10), 60);
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        ResultActions perform() throws Exception;
+    }
+}
@@ -1,13 +1,21 @@
 package com.gym.crm.cucumber;
 
 import com.gym.crm.CrmApplication;
+import com.gym.crm.mongo.EmbeddedMongoSupport;
 import io.cucumber.spring.CucumberContextConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 @CucumberContextConfiguration
 @SpringBootTest(classes = CrmApplication.class)
 @ActiveProfiles("test")
 public class CucumberSpringConfiguration {
-}
 
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", EmbeddedMongoSupport::connectionString);
+        registry.add("workload.summary.ensure-indexes", () -> "true");
+    }
+}
@@ -7,22 +7,17 @@ import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
 import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
 import com.gym.crm.mongo.repository.TrainerTrainingSummaryRepository;
 import com.gym.crm.mongo.service.TrainerTrainingSummaryService;
+import io.cucumber.java.Before;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import org.assertj.core.api.Assertions;
-import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ContextConfiguration;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Optional;
-
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
 
 @ContextConfiguration(classes = CucumberSpringConfiguration.class)
 public class TrainerTrainingSummarySteps {
@@ -30,7 +25,7 @@ public class TrainerTrainingSummarySteps {
     @Autowired
     private TrainerTrainingSummaryService service;
 
-    @MockBean
+    @Autowired
     private TrainerTrainingSummaryRepository repository;
 
     private TrainerTrainingEvent event;
@@ -48,13 +43,15 @@ public class TrainerTrainingSummarySteps {
                 .build();
     }
 
+    @Before("@summary")
+    public void cleanSummaries() {
+        repository.deleteAll();
+        capturedSummary = null;
+    }
+
     @And("no existing trainer summary for username {string}")
     public void noExistingTrainerSummary(String username) {
-        when(repository.findByTrainerUsername(username)).thenReturn(Optional.empty());
-        Mockito.lenient().when(repository.save(any())).thenAnswer(invocation -> {
-            capturedSummary = invocation.getArgument(0);
-            return capturedSummary;
-        });
+        repository.findByTrainerUsername(username).ifPresent(repository::delete);
     }
 
     @And("an existing trainer summary for username {string} with year {int} month {int} total duration {int}")
@@ -70,16 +67,13 @@ public class TrainerTrainingSummarySteps {
         y.getMonths().add(MonthSummary.builder().month(month).trainingsSummaryDuration(total).build());
         existing.getYears().add(y);
 
-        when(repository.findByTrainerUsername(username)).thenReturn(Optional.of(existing));
-        Mockito.lenient().when(repository.save(any())).thenAnswer(invocation -> {
-            capturedSummary = invocation.getArgument(0);
-            return capturedSummary;
-        });
+        repository.save(existing);
     }
 
     @When("the training event is processed")
     public void theTrainingEventIsProcessed() {
-        capturedSummary = service.processTrainingEvent(event);
+        service.processTrainingEvent(event);
+        capturedSummary = repository.findByTrainerUsername(event.getTrainerUsername()).orElse(null);
     }
 
     @Then("the trainer summary is created with year {int} month {int} total duration {int}")
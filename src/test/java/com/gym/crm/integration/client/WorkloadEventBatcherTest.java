@@ -0,0 +1,76 @@
+package com.gym.crm.integration.client;
+
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadEventBatcherTest {
+
+    private final List<List<WorkloadRequestDto>> flushed = new CopyOnWriteArrayList<>();
+
+    @Test
+    void testFlushesWhenBatchIsFull() {
+        try (WorkloadEventBatcher batcher = new WorkloadEventBatcher(3, TimeUnit.MINUTES.toMillis(1), flushed::add)) {
+            for (int i = 1; i <= 7; i++) {
+                batcher.add(event("John.Smith", i));
+            }
+
+            assertEquals(2, flushed.size());
+            assertEquals(List.of(1, 2, 3), durations(flushed.get(0)));
+            assertEquals(List.of(4, 5, 6), durations(flushed.get(1)));
+            assertEquals(1, batcher.pendingEvents());
+        }
+    }
+
+    @Test
+    void testFlushesAfterMaxDelay() throws InterruptedException {
+        try (WorkloadEventBatcher batcher = new WorkloadEventBatcher(100, 20, flushed::add)) {
+            batcher.add(event("John.Smith", 1));
+            batcher.add(event("John.Smith", 2));
+
+            long deadline = System.currentTimeMillis() + 2000;
+            while (flushed.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(1, flushed.size());
+            assertEquals(List.of(1, 2), durations(flushed.getFirst()));
+            assertEquals(0, batcher.pendingEvents());
+        }
+    }
+
+    @Test
+    void testGroupsEventsPerTrainer() {
+        WorkloadEventBatcher batcher = new WorkloadEventBatcher(100, TimeUnit.MINUTES.toMillis(1), flushed::add);
+        batcher.add(event("John.Smith", 1));
+        batcher.add(event("Jane.Doe", 2));
+        batcher.add(event("John.Smith", 3));
+
+        batcher.close();
+
+        assertEquals(2, flushed.size());
+        List<WorkloadRequestDto> john = flushed.stream()
+                .filter(batch -> batch.getFirst().getTrainerUsername().equals("John.Smith"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(List.of(1, 3), durations(john));
+    }
+
+    private static WorkloadRequestDto event(String trainerUsername, int duration) {
+        return WorkloadRequestDto.builder()
+                .trainerUsername(trainerUsername)
+                .trainingDate("2025-05-10")
+                .trainingDuration(duration)
+                .actionType("ADD")
+                .build();
+    }
+
+    private static List<Integer> durations(List<WorkloadRequestDto> batch) {
+        return batch.stream().map(WorkloadRequestDto::getTrainingDuration).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.gym.crm.integration.client;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.UncategorizedJmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessagePostProcessor;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WorkloadMessageSenderTest {
+
+    private static final String QUEUE = "trainer.workload.queue";
+
+    private JmsTemplate jmsTemplate;
+    private WorkloadMessageSender sender;
+
+    @BeforeEach
+    void setUp() {
+        jmsTemplate = mock(JmsTemplate.class);
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1))
+                .retryExceptions(JmsException.class)
+                .ignoreExceptions(CallNotPermittedException.class)
+                .build());
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+        sender = new WorkloadMessageSender(jmsTemplate, circuitBreakerRegistry, retryRegistry);
+    }
+
+    @Test
+    void testTransientFailureIsRetried() {
+        doThrow(new UncategorizedJmsException("blip"))
+                .doNothing()
+                .when(jmsTemplate).convertAndSend(eq(QUEUE), any(Object.class), any(MessagePostProcessor.class));
+
+        sender.send(QUEUE, "payload", "txn-1");
+
+        verify(jmsTemplate, times(2)).convertAndSend(eq(QUEUE), any(Object.class), any(MessagePostProcessor.class));
+        assertTrue(sender.isAvailable());
+    }
+
+    @Test
+    void testOpenCircuitFailsFastWithoutCallingBroker() {
+        doThrow(new UncategorizedJmsException("down"))
+                .when(jmsTemplate).convertAndSend(eq(QUEUE), any(Object.class), any(MessagePostProcessor.class));
+
+        assertThrows(JmsException.class, () -> sender.send(QUEUE, "payload", "txn-1"));
+        assertThrows(RuntimeException.class, () -> sender.send(QUEUE, "payload", "txn-2"));
+        assertFalse(sender.isAvailable());
+
+        clearInvocations(jmsTemplate);
+        assertThrows(CallNotPermittedException.class, () -> sender.send(QUEUE, "payload", "txn-3"));
+        verifyNoInteractions(jmsTemplate);
+    }
+}
@@ -0,0 +1,125 @@
+package com.gym.crm.integration.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.integration.dto.WorkloadBatchDto;
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jms.UncategorizedJmsException;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WorkloadSpillStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private WorkloadMessageSender messageSender;
+    private Path spillFile;
+
+    @BeforeEach
+    void setUp() {
+        messageSender = mock(WorkloadMessageSender.class);
+        spillFile = tempDir.resolve("spill.jsonl");
+    }
+
+    @Test
+    void testSpilledMessagesAreReplayedInOrder() {
+        WorkloadSpillStore store = newStore();
+        store.spill(event(1), "txn-1");
+        store.spill(WorkloadBatchDto.builder().batchId("b-1").trainerUsername("John.Smith")
+                .events(List.of(event(2))).build(), "txn-2");
+        when(messageSender.isAvailable()).thenReturn(true);
+
+        store.replay();
+
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(messageSender, times(2)).send(eq(WorkloadServiceClient.QUEUE_NAME), payloads.capture(), anyString());
+        assertEquals(1, ((WorkloadRequestDto) payloads.getAllValues().get(0)).getTrainingDuration());
+        assertEquals("b-1", ((WorkloadBatchDto) payloads.getAllValues().get(1)).getBatchId());
+        assertEquals(0, store.pendingMessages());
+    }
+
+    @Test
+    void testReplayWaitsForClosedCircuit() {
+        WorkloadSpillStore store = newStore();
+        store.spill(event(1), "txn-1");
+        when(messageSender.isAvailable()).thenReturn(false);
+
+        store.replay();
+
+        verify(messageSender, never()).send(anyString(), any(), any());
+        assertEquals(1, store.pendingMessages());
+    }
+
+    @Test
+    void testUnsentMessagesSurviveFailedReplayAndRestart() {
+        WorkloadSpillStore store = newStore();
+        store.spill(event(1), "txn-1");
+        store.spill(event(2), "txn-2");
+        store.spill(event(3), "txn-3");
+        when(messageSender.isAvailable()).thenReturn(true);
+        doNothing()
+                .doThrow(new UncategorizedJmsException("down again"))
+                .when(messageSender).send(anyString(), any(), any());
+
+        store.replay();
+
+        WorkloadSpillStore restarted = newStore();
+        assertEquals(2, restarted.pendingMessages());
+    }
+
+    @Test
+    void testSpillDuringReplayIsNotBlockedAndFollowsOnNextReplay() throws Exception {
+        WorkloadSpillStore store = newStore();
+        store.spill(event(1), "txn-1");
+        when(messageSender.isAvailable()).thenReturn(true);
+        ExecutorService spiller = Executors.newSingleThreadExecutor();
+        try {
+            doAnswer(invocation -> {
+                // Would time out if the replay held the spill lock while sending
+                spiller.submit(() -> store.spill(event(2), "txn-2")).get(5, TimeUnit.SECONDS);
+                return null;
+            }).doNothing().when(messageSender).send(anyString(), any(), any());
+
+            store.replay();
+            assertEquals(1, store.pendingMessages());
+
+            store.replay();
+        } finally {
+            spiller.shutdownNow();
+        }
+
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(messageSender, times(2)).send(eq(WorkloadServiceClient.QUEUE_NAME), payloads.capture(), anyString());
+        assertEquals(1, ((WorkloadRequestDto) payloads.getAllValues().get(0)).getTrainingDuration());
+        assertEquals(2, ((WorkloadRequestDto) payloads.getAllValues().get(1)).getTrainingDuration());
+        assertEquals(0, store.pendingMessages());
+    }
+
+    private WorkloadSpillStore newStore() {
+        return new WorkloadSpillStore(new ObjectMapper(), messageSender, new SimpleMeterRegistry(), spillFile);
+    }
+
+    private static WorkloadRequestDto event(int duration) {
+        return WorkloadRequestDto.builder()
+                .trainerUsername("John.Smith")
+                .trainingDate("2025-05-10")
+                .trainingDuration(duration)
+                .actionType("ADD")
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.gym.crm.integration.config;
+
+import org.junit.jupiter.api.Test;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Producer path of the workload queue: the pooled factory used by default sends every message
+ * over one reused connection instead of opening a connection and session per send, and
+ * asynchronous sends still deliver everything. The send rate of both factories is compared by
+ * {@code WorkloadJmsSendBenchmark}.
+ */
+class WorkloadJmsDeliveryTest {
+
+    private static final String BROKER_URL = "vm://jms-delivery?broker.persistent=false&useShutdownHook=false";
+    private static final String QUEUE = "workload.delivery.test";
+    private static final int MESSAGES = 500;
+
+    @Test
+    void testPooledFactoryReusesOneConnectionForAllSends() {
+        ActiveMqConfig config = newConfig(false);
+        JmsPoolConnectionFactory pooled = config.pooledConnectionFactory();
+        try {
+            JmsTemplate template = config.jmsTemplate(pooled, config.jacksonJmsMessageConverter());
+            template.setReceiveTimeout(TimeUnit.SECONDS.toMillis(5));
+            Map<String, Object> payload = Map.of("trainerUsername", "John.Smith", "trainingDuration", 60);
+            for (int i = 0; i < MESSAGES; i++) {
+                template.convertAndSend(QUEUE, payload);
+            }
+
+            assertEquals(1, pooled.getNumConnections());
+            assertEquals(MESSAGES, receiveAll(template, QUEUE));
+            assertEquals(1, pooled.getNumConnections());
+        } finally {
+            pooled.stop();
+        }
+    }
+
+    @Test
+    void testAsyncSendDeliversEveryMessage() {
+        ActiveMqConfig config = newConfig(true);
+        JmsPoolConnectionFactory pooled = config.pooledConnectionFactory();
+        try {
+            JmsTemplate template = config.jmsTemplate(pooled, config.jacksonJmsMessageConverter());
+            template.setReceiveTimeout(TimeUnit.SECONDS.toMillis(5));
+            for (int i = 0; i < MESSAGES; i++) {
+                template.convertAndSend(QUEUE + ".async", Map.of("sequence", i));
+            }
+
+            assertEquals(MESSAGES, receiveAll(template, QUEUE + ".async"));
+        } finally {
+            pooled.stop();
+        }
+    }
+
+    private static int receiveAll(JmsTemplate template, String queue) {
+        int received = 0;
+        while (received < MESSAGES && template.receive(queue) != null) {
+            received++;
+        }
+        return received;
+    }
+
+    private static ActiveMqConfig newConfig(boolean asyncSend) {
+        ActiveMqConfig config = new ActiveMqConfig();
+        ReflectionTestUtils.setField(config, "brokerUrl", BROKER_URL);
+        ReflectionTestUtils.setField(config, "asyncSend", asyncSend);
+        ReflectionTestUtils.setField(config, "producerWindowSize", 1024 * 1024);
+        ReflectionTestUtils.setField(config, "poolMaxConnections", 1);
+        ReflectionTestUtils.setField(config, "poolMaxSessionsPerConnection", 10);
+        return config;
+    }
+}
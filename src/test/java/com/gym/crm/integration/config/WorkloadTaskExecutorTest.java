@@ -0,0 +1,141 @@
+package com.gym.crm.integration.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.integration.client.WorkloadMessageSender;
+import com.gym.crm.integration.client.WorkloadServiceClient;
+import com.gym.crm.integration.client.WorkloadSpillStore;
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import com.gym.crm.metrics.DomainMetrics;
+import com.gym.crm.util.ContextPropagatingTaskDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * The workload executor in both modes: the thread pool rejects sends once its threads and queue
+ * are full, counts them and leaves the client to spill them; virtual threads never run more
+ * sends at once than the configured limit and make the submitters wait instead.
+ */
+class WorkloadTaskExecutorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPoolRejectionIsCountedAndTheMessageIsSpilled() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) newConfig(false, 1, ActiveMqConfig.RejectionPolicy.ABORT)
+                .workloadTaskExecutor(registry, new ContextPropagatingTaskDecorator());
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            executor.execute(() -> { });
+
+            WorkloadMessageSender messageSender = mock(WorkloadMessageSender.class);
+            WorkloadSpillStore spillStore = new WorkloadSpillStore(new ObjectMapper(), messageSender, registry,
+                    tempDir.resolve("spill.jsonl"));
+            WorkloadServiceClient client = new WorkloadServiceClient(messageSender, spillStore, new DomainMetrics(registry),
+                    executor, Optional.empty(), false, 100, 50);
+
+            client.sendWorkloadUpdate(WorkloadRequestDto.builder()
+                    .trainerUsername("John.Smith")
+                    .trainingDate("2025-05-10")
+                    .trainingDuration(60)
+                    .actionType("ADD")
+                    .transactionId("txn-1")
+                    .build());
+
+            assertEquals(1.0, registry.get("workload.executor.rejected").counter().count());
+            assertEquals(1, registry.get("workload.executor.queued").gauge().value());
+            assertEquals(1, spillStore.pendingMessages());
+            verify(messageSender, never()).send(anyString(), any(), any());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testVirtualThreadsRespectTheConcurrencyLimit() throws Exception {
+        int limit = 2;
+        int sends = 6;
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TaskExecutor executor = newConfig(true, limit, ActiveMqConfig.RejectionPolicy.CALLER_RUNS)
+                .workloadTaskExecutor(registry, new ContextPropagatingTaskDecorator());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(limit);
+        CountDownLatch finished = new CountDownLatch(sends);
+
+        Thread submitter = new Thread(() -> {
+            for (int i = 0; i < sends; i++) {
+                executor.execute(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    started.countDown();
+                    await(release);
+                    running.decrementAndGet();
+                    finished.countDown();
+                });
+            }
+        });
+        submitter.start();
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // The third send cannot start: its submitter waits for a slot
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (submitter.getState() == Thread.State.RUNNABLE && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertNotEquals(Thread.State.RUNNABLE, submitter.getState());
+            assertEquals(limit, running.get());
+            assertEquals(limit, registry.get("workload.executor.active").gauge().value());
+            assertNull(registry.find("workload.executor.queued").gauge());
+        } finally {
+            release.countDown();
+        }
+
+        submitter.join(TimeUnit.SECONDS.toMillis(5));
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(limit, maxRunning.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ActiveMqConfig newConfig(boolean virtualThreads, int maxPoolSize, ActiveMqConfig.RejectionPolicy policy) {
+        ActiveMqConfig config = new ActiveMqConfig();
+        ReflectionTestUtils.setField(config, "executorCorePoolSize", 1);
+        ReflectionTestUtils.setField(config, "executorMaxPoolSize", maxPoolSize);
+        ReflectionTestUtils.setField(config, "executorQueueCapacity", 1);
+        ReflectionTestUtils.setField(config, "executorRejectionPolicy", policy);
+        ReflectionTestUtils.setField(config, "executorVirtualThreads", virtualThreads);
+        return config;
+    }
+}
@@ -0,0 +1,100 @@
+package com.gym.crm.integration.listener;
+
+import com.gym.crm.integration.dto.WorkloadBatchDto;
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.service.TrainerTrainingSummaryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "workload.listener.enabled=true",
+        "workload.listener.destination=" + WorkloadEventListenerThroughputTest.QUEUE,
+        "workload.listener.concurrency=4",
+        "workload.listener.prefetch=500"
+})
+@ActiveProfiles("test")
+class WorkloadEventListenerThroughputTest {
+
+    static final String QUEUE = "workload.listener.throughput";
+    private static final int SINGLE_MESSAGES = 2_000;
+    private static final int BATCH_MESSAGES = 200;
+    private static final int BATCH_SIZE = 50;
+
+    @MockBean
+    private TrainerTrainingSummaryService summaryService;
+
+    @Autowired
+    private JmsTemplate jmsTemplate;
+
+    @Test
+    void testConsumesSingleAndBatchedMessages() throws InterruptedException {
+        int expectedEvents = SINGLE_MESSAGES + BATCH_MESSAGES * BATCH_SIZE;
+        CountDownLatch applied = new CountDownLatch(expectedEvents);
+        ConcurrentLinkedQueue<TrainerTrainingEvent> seen = new ConcurrentLinkedQueue<>();
+        doAnswer(invocation -> {
+            seen.add(invocation.getArgument(0));
+            applied.countDown();
+            return null;
+        }).when(summaryService).processTrainingEvent(any());
+        doAnswer(invocation -> {
+            List<TrainerTrainingEvent> events = invocation.getArgument(0);
+            events.forEach(event -> applied.countDown());
+            return null;
+        }).when(summaryService).processTrainingEventBatch(anyList());
+
+        for (int i = 0; i < SINGLE_MESSAGES; i++) {
+            jmsTemplate.convertAndSend(QUEUE, request("trainer" + (i % 20), i), message -> {
+                message.setStringProperty("X-Transaction-Id", "txn-bench");
+                return message;
+            });
+        }
+        for (int i = 0; i < BATCH_MESSAGES; i++) {
+            List<WorkloadRequestDto> events = new ArrayList<>(BATCH_SIZE);
+            for (int j = 0; j < BATCH_SIZE; j++) {
+                events.add(request("batched" + i, j));
+            }
+            jmsTemplate.convertAndSend(QUEUE, WorkloadBatchDto.builder()
+                    .batchId("batch-" + i)
+                    .trainerUsername("batched" + i)
+                    .events(events)
+                    .build());
+        }
+
+        assertTrue(applied.await(60, TimeUnit.SECONDS), "Not all workload events were applied");
+
+        TrainerTrainingEvent event = seen.peek();
+        assertNotNull(event);
+        assertEquals(LocalDate.of(2025, 5, 10), event.getTrainingDate());
+        assertEquals("txn-bench", event.getTransactionId());
+        assertTrue(event.getTrainerStatus());
+    }
+
+    private static WorkloadRequestDto request(String trainerUsername, int sequence) {
+        return WorkloadRequestDto.builder()
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("Bench")
+                .trainerLastName("Trainer")
+                .isActive(true)
+                .trainingDate("2025-05-10")
+                .trainingDuration(1 + sequence % 90)
+                .actionType("ADD")
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.gym.crm.integration.outbox;
+
+import com.gym.crm.integration.client.WorkloadServiceClient;
+import com.gym.crm.integration.dto.WorkloadBatchDto;
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import com.gym.crm.repository.WorkloadOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jms.UncategorizedJmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessagePostProcessor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.gym.crm.integration.outbox.WorkloadOutboxRelayTest.event;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "workload.batch.enabled=true",
+        "workload.outbox.poll-interval-ms=3600000",
+        "resilience4j.retry.instances.workloadService.max-attempts=1",
+        "resilience4j.circuitbreaker.instances.workloadService.minimum-number-of-calls=100"
+})
+@ActiveProfiles("test")
+class WorkloadOutboxBatchRelayTest {
+
+    @MockBean
+    private JmsTemplate jmsTemplate;
+
+    @Autowired
+    private WorkloadOutbox outbox;
+
+    @Autowired
+    private WorkloadOutboxRelay relay;
+
+    @Autowired
+    private WorkloadOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        reset(jmsTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void testRelaysOneOrderedBatchPerTrainer() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.append(event("John.Smith", 1));
+            outbox.append(event("Jane.Doe", 2));
+            outbox.append(event("John.Smith", 3));
+        });
+
+        relay.relayPending();
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(jmsTemplate, times(2)).convertAndSend(
+                eq(WorkloadServiceClient.QUEUE_NAME), captor.capture(), any(MessagePostProcessor.class));
+        WorkloadBatchDto john = (WorkloadBatchDto) captor.getAllValues().getFirst();
+        assertEquals("John.Smith", john.getTrainerUsername());
+        assertEquals(List.of(1, 3), john.getEvents().stream().map(WorkloadRequestDto::getTrainingDuration).toList());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void testFailedBatchKeepsEventsForRetry() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.append(event("John.Smith", 1));
+            outbox.append(event("Jane.Doe", 2));
+        });
+        doThrow(new UncategorizedJmsException("broker down")).when(jmsTemplate).convertAndSend(
+                eq(WorkloadServiceClient.QUEUE_NAME),
+                argThat(batch -> ((WorkloadBatchDto) batch).getTrainerUsername().equals("John.Smith")),
+                any(MessagePostProcessor.class));
+
+        relay.relayPending();
+        assertEquals(1, outboxRepository.count());
+
+        reset(jmsTemplate);
+        relay.relayPending();
+        assertEquals(0, outboxRepository.count());
+    }
+}
@@ -0,0 +1,160 @@
+package com.gym.crm.integration.outbox;
+
+import com.gym.crm.integration.client.WorkloadServiceClient;
+import com.gym.crm.integration.dto.WorkloadRequestDto;
+import com.gym.crm.model.WorkloadOutboxEvent;
+import com.gym.crm.repository.WorkloadOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jms.UncategorizedJmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessagePostProcessor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "workload.outbox.poll-interval-ms=3600000",
+        "resilience4j.retry.instances.workloadService.max-attempts=1",
+        "resilience4j.circuitbreaker.instances.workloadService.minimum-number-of-calls=100"
+})
+@ActiveProfiles("test")
+class WorkloadOutboxRelayTest {
+
+    @MockBean
+    private JmsTemplate jmsTemplate;
+
+    @Autowired
+    private WorkloadOutbox outbox;
+
+    @Autowired
+    private WorkloadOutboxRelay relay;
+
+    @Autowired
+    private WorkloadOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        reset(jmsTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void testRolledBackEventIsNeverPublished() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.append(event("John.Smith", 60));
+            status.setRollbackOnly();
+        });
+
+        relay.relayPending();
+
+        assertEquals(0, outboxRepository.count());
+        verifyNoInteractions(jmsTemplate);
+    }
+
+    @Test
+    void testRelaysEventsOneByOneInOrder() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.append(event("John.Smith", 1));
+            outbox.append(event("Jane.Doe", 2));
+            outbox.append(event("John.Smith", 3));
+        });
+
+        relay.relayPending();
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(jmsTemplate, times(3)).convertAndSend(
+                eq(WorkloadServiceClient.QUEUE_NAME), captor.capture(), any(MessagePostProcessor.class));
+        assertTrue(captor.getAllValues().stream().allMatch(WorkloadRequestDto.class::isInstance));
+        assertEquals(List.of(1, 3), captor.getAllValues().stream()
+                .map(WorkloadRequestDto.class::cast)
+                .filter(dto -> dto.getTrainerUsername().equals("John.Smith"))
+                .map(WorkloadRequestDto::getTrainingDuration)
+                .toList());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void testFailedSendKeepsTheTrainersRemainingEventsForRetry() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.append(event("John.Smith", 1));
+            outbox.append(event("John.Smith", 2));
+            outbox.append(event("Jane.Doe", 3));
+        });
+        doThrow(new UncategorizedJmsException("broker down")).when(jmsTemplate).convertAndSend(
+                eq(WorkloadServiceClient.QUEUE_NAME),
+                argThat(dto -> ((WorkloadRequestDto) dto).getTrainingDuration() == 1),
+                any(MessagePostProcessor.class));
+
+        relay.relayPending();
+        // John's second event must not overtake the failed first one
+        assertEquals(2, outboxRepository.count());
+        verify(jmsTemplate, never()).convertAndSend(eq(WorkloadServiceClient.QUEUE_NAME),
+                argThat(dto -> ((WorkloadRequestDto) dto).getTrainingDuration() == 2), any(MessagePostProcessor.class));
+
+        reset(jmsTemplate);
+        relay.relayPending();
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void testTrainerLeasedByAnotherRelayIsSkippedUntilTheLeaseExpires() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.append(event("John.Smith", 1));
+            outbox.append(event("Jane.Doe", 2));
+        });
+        WorkloadOutboxEvent leased = outboxRepository.findAll().stream()
+                .filter(event -> event.getTrainerUsername().equals("John.Smith"))
+                .findFirst().orElseThrow();
+        leased.setLeaseUntil(Instant.now().plusSeconds(60));
+        outboxRepository.save(leased);
+        transactionTemplate.executeWithoutResult(status -> outbox.append(event("John.Smith", 3)));
+
+        relay.relayPending();
+        // John's later event waits behind the one the other relay is sending
+        verify(jmsTemplate, times(1)).convertAndSend(eq(WorkloadServiceClient.QUEUE_NAME),
+                argThat(dto -> ((WorkloadRequestDto) dto).getTrainerUsername().equals("Jane.Doe")),
+                any(MessagePostProcessor.class));
+        verifyNoMoreInteractions(jmsTemplate);
+        assertEquals(2, outboxRepository.count());
+
+        leased.setLeaseUntil(Instant.now().minusSeconds(1));
+        outboxRepository.save(leased);
+        reset(jmsTemplate);
+        relay.relayPending();
+        assertEquals(0, outboxRepository.count());
+        verify(jmsTemplate, times(2)).convertAndSend(eq(WorkloadServiceClient.QUEUE_NAME), any(), any(MessagePostProcessor.class));
+    }
+
+    static WorkloadRequestDto event(String trainerUsername, int duration) {
+        return WorkloadRequestDto.builder()
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("Test")
+                .trainerLastName("Trainer")
+                .isActive(true)
+                .trainingDate("2025-05-10")
+                .trainingDuration(duration)
+                .actionType("ADD")
+                .transactionId("txn-outbox")
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.gym.crm.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscardCountingAsyncAppenderTest {
+
+    @Test
+    void testFullQueueDropsAndCountsInsteadOfBlocking() throws InterruptedException {
+        LoggerContext loggerContext = new LoggerContext();
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingAppender slowFile = new BlockingAppender(release);
+        slowFile.setContext(loggerContext);
+        slowFile.start();
+
+        DiscardCountingAsyncAppender async = new DiscardCountingAsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(4);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.addAppender(slowFile);
+        async.start();
+
+        Logger logger = loggerContext.getLogger("com.gym.crm.controller.TraineeController");
+        logger.setLevel(Level.INFO);
+        logger.addAppender(async);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            logger.info("Getting trainee profile {}", i);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // The worker holds at most one event and the queue four; everything else is dropped
+        assertTrue(async.getDiscardedCount() >= 90, "Discarded " + async.getDiscardedCount());
+        assertTrue(elapsedMillis < 1_000, "Logging blocked for " + elapsedMillis + " ms");
+
+        release.countDown();
+        async.stop();
+    }
+
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch release;
+
+        BlockingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
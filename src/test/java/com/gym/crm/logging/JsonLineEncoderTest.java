@@ -0,0 +1,91 @@
+package com.gym.crm.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLineEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private LoggerContext loggerContext;
+    private JsonLineEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        encoder = new JsonLineEncoder();
+        encoder.setContext(loggerContext);
+        encoder.addNumericField("status");
+        encoder.addNumericField("durationMs");
+        encoder.start();
+    }
+
+    @Test
+    void testWritesOneJsonLineWithTypedMdcFields() throws Exception {
+        LoggingEvent event = event(Level.INFO, "REQUEST [{}]: Status: {}", null, "txn-1", 200);
+        event.setTimeStamp(1_746_871_200_042L);
+        event.setMDCPropertyMap(Map.of("transactionId", "txn-1", "userId", "John.Smith",
+                "route", "/api/trainees/{username}", "status", "200", "durationMs", "12"));
+
+        String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        assertTrue(line.endsWith("}\n"));
+        assertEquals(1, line.lines().count());
+        JsonNode json = objectMapper.readTree(line);
+        assertEquals("2025-05-10T10:00:00.042Z", json.get("@timestamp").asText());
+        assertEquals("INFO", json.get("level").asText());
+        assertEquals("com.gym.crm.config.PerformanceLoggingFilter", json.get("logger").asText());
+        assertEquals("REQUEST [txn-1]: Status: 200", json.get("message").asText());
+        assertEquals("John.Smith", json.get("userId").asText());
+        assertEquals("/api/trainees/{username}", json.get("route").asText());
+        assertTrue(json.get("status").isInt());
+        assertEquals(12, json.get("durationMs").asInt());
+        assertTrue(json.get("transactionId").isTextual());
+    }
+
+    @Test
+    void testEscapesControlCharactersQuotesAndNonAscii() throws Exception {
+        String message = "Line \"one\"\nTab\tback\\slash \u0001 Zoë 💪";
+        LoggingEvent event = event(Level.WARN, message, null);
+        event.setMDCPropertyMap(Map.of("durationMs", "not-a-number"));
+
+        JsonNode json = objectMapper.readTree(encoder.encode(event));
+
+        assertEquals(message, json.get("message").asText());
+        assertEquals("not-a-number", json.get("durationMs").asText());
+    }
+
+    @Test
+    void testIncludesStackTrace() throws Exception {
+        LoggingEvent event = event(Level.ERROR, "Failed", new IllegalStateException("broker down"));
+
+        JsonNode json = objectMapper.readTree(encoder.encode(event));
+
+        assertTrue(json.get("stack_trace").asText().startsWith("java.lang.IllegalStateException: broker down"));
+    }
+
+    @Test
+    void testRecognisesJsonNumbers() {
+        assertTrue(JsonLineEncoder.isNumber("0"));
+        assertTrue(JsonLineEncoder.isNumber("-12.5"));
+        assertFalse(JsonLineEncoder.isNumber("007"));
+        assertFalse(JsonLineEncoder.isNumber("1."));
+        assertFalse(JsonLineEncoder.isNumber(""));
+        assertFalse(JsonLineEncoder.isNumber("12ms"));
+    }
+
+    private LoggingEvent event(Level level, String message, Throwable throwable, Object... args) {
+        Logger logger = loggerContext.getLogger("com.gym.crm.config.PerformanceLoggingFilter");
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, throwable, args);
+    }
+}
@@ -0,0 +1,67 @@
+package com.gym.crm.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggerRateLimitFilterTest {
+
+    private LoggerContext loggerContext;
+    private LoggerRateLimitFilter filter;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        filter = new LoggerRateLimitFilter();
+        filter.setContext(loggerContext);
+        filter.addLoggerPrefix("com.gym.crm.controller");
+        filter.setMaxPerSecond(5);
+        filter.start();
+        loggerContext.addTurboFilter(filter);
+
+        appender = new ListAppender<>();
+        appender.setContext(loggerContext);
+        appender.start();
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+    }
+
+    @Test
+    void testMatchingLoggerIsCappedPerSecondButWarningsPass() {
+        Logger controller = loggerContext.getLogger("com.gym.crm.controller.TraineeController");
+        for (int i = 0; i < 50; i++) {
+            controller.info("Getting trainee profile {}", i);
+        }
+        controller.warn("Slow request");
+
+        long infoLines = appender.list.stream().filter(event -> event.getLevel() == Level.INFO).count();
+        // A second boundary during the loop may admit one more window
+        assertTrue(infoLines >= 5 && infoLines <= 10, "Admitted " + infoLines + " INFO lines");
+        assertEquals(1, appender.list.stream().filter(event -> event.getLevel() == Level.WARN).count());
+        assertEquals(50 - infoLines, filter.getSuppressedCount());
+    }
+
+    @Test
+    void testOtherLoggersAndDisabledLevelsAreNotLimited() {
+        Logger service = loggerContext.getLogger("com.gym.crm.service.TraineeService");
+        Logger controller = loggerContext.getLogger("com.gym.crm.controller.TrainerController");
+        for (int i = 0; i < 50; i++) {
+            service.info("Trainee created {}", i);
+            controller.debug("Not enabled {}", i);
+            assertTrue(controller.isInfoEnabled());
+        }
+
+        assertEquals(50, appender.list.size());
+        assertEquals(0, filter.getSuppressedCount());
+        controller.info("Still within the window");
+        assertEquals(51, appender.list.size());
+    }
+}
@@ -1,5 +1,8 @@
 package com.gym.crm.metrics;
 
+import com.gym.crm.facade.GymCrmFacade;
+import com.gym.crm.model.Trainee;
+import com.gym.crm.repository.TraineeRepository;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
@@ -7,6 +10,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -16,6 +21,15 @@ class MetricsIntegrationTest {
     @Autowired
     private MeterRegistry meterRegistry;
 
+    @Autowired
+    private GymCrmFacade gymCrmFacade;
+
+    @Autowired
+    private TraineeRepository traineeRepository;
+
+    @Autowired
+    private ActiveUserGauges activeUserGauges;
+
     @Test
     void testMeterRegistryIsConfigured() {
         assertNotNull(meterRegistry);
@@ -63,6 +77,46 @@ class MetricsIntegrationTest {
                 "Expected either HTTP metrics or some other metrics to be available");
     }
 
+    @Test
+    void testDatabaseMetricsAreAvailable() {
+        // Hibernate statistics and the Hikari pool, including connection acquire (wait) time
+        assertTrue(meterRegistry.getMeters().stream()
+                .anyMatch(meter -> meter.getId().getName().startsWith("hibernate.")));
+        assertNotNull(meterRegistry.find("hikaricp.connections.acquire").timer());
+    }
+
+    @Test
+    void testDomainCountersAreRecorded() {
+        double registrationsBefore = meterRegistry.get("gym.registrations").tag("type", "trainee").counter().count();
+
+        gymCrmFacade.createTrainee(new Trainee("Metric", "Trainee", LocalDate.of(1995, 5, 5), "Main St"));
+
+        assertEquals(registrationsBefore + 1,
+                meterRegistry.get("gym.registrations").tag("type", "trainee").counter().count());
+        assertNotNull(meterRegistry.find("gym.logins").tag("outcome", "failure").counter());
+        assertNotNull(meterRegistry.find("gym.trainings").tag("action", "added").counter());
+        assertNotNull(meterRegistry.find("gym.workload.events").tag("outcome", "sent").counter());
+        assertNotNull(meterRegistry.find("gym.workload.summary.updates").tag("mode", "batch").timer());
+    }
+
+    @Test
+    void testActiveUserGaugesReportCachedCounts() {
+        gymCrmFacade.createTrainee(new Trainee("Gauge", "Trainee", LocalDate.of(1995, 5, 5), "Main St"));
+
+        activeUserGauges.refresh();
+
+        assertEquals(traineeRepository.countByIsActiveTrue(), meterRegistry.get("gym.trainees.active").gauge().value());
+        assertNotNull(meterRegistry.find("gym.trainers.active").gauge());
+    }
+
+    @Test
+    void testAsyncLoggingMetricsAreRegistered() {
+        assertNotNull(meterRegistry.find("logback.async.queue.size").tag("appender", "ASYNC_FILE").gauge());
+        assertEquals(8192.0, meterRegistry.get("logback.async.queue.capacity").tag("appender", "ASYNC_FILE").gauge().value());
+        assertNotNull(meterRegistry.find("logback.async.discarded").tag("appender", "ASYNC_AUDIT_FILE").functionCounter());
+        assertNotNull(meterRegistry.find("logback.events.rate.limited").tag("filter", "requestLogs").functionCounter());
+    }
+
     @Test
     void testTimerCanBeCreated() {
         Timer timer = Timer.builder("test.timer")
@@ -0,0 +1,55 @@
+package com.gym.crm.mongo;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Starts one embedded MongoDB per test JVM on first use and stops it on JVM shutdown.
+ */
+public final class EmbeddedMongoSupport {
+
+    public static final String DATABASE = "gymcrm-test";
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient client;
+    private static String connectionString;
+
+    private EmbeddedMongoSupport() {
+    }
+
+    public static synchronized String connectionString() {
+        start();
+        return connectionString + "/" + DATABASE;
+    }
+
+    public static synchronized MongoTemplate mongoTemplate() {
+        start();
+        return new MongoTemplate(client, DATABASE);
+    }
+
+    private static void start() {
+        if (mongod != null) {
+            return;
+        }
+        mongod = Mongod.instance().start(Version.Main.PRODUCTION);
+        ServerAddress address = mongod.current().getServerAddress();
+        connectionString = "mongodb://" + address.getHost() + ":" + address.getPort();
+        client = MongoClients.create(connectionString);
+        Runtime.getRuntime().addShutdownHook(new Thread(EmbeddedMongoSupport::stop, "embedded-mongo-shutdown"));
+    }
+
+    private static synchronized void stop() {
+        if (client != null) {
+            client.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.gym.crm.mongo.config;
+
+import com.gym.crm.mongo.EmbeddedMongoSupport;
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoIndexHealthIndicatorTest {
+
+    private MongoTemplate mongoTemplate;
+    private MongoIndexInitializer initializer;
+    private MongoIndexHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongoSupport.mongoTemplate();
+        mongoTemplate.dropCollection(TrainerTrainingSummary.class);
+        mongoTemplate.dropCollection(TrainerMonthlySummary.class);
+        initializer = new MongoIndexInitializer(mongoTemplate, new MongoMappingContext(), false);
+        healthIndicator = new MongoIndexHealthIndicator(initializer);
+    }
+
+    @Test
+    void reportsMissingIndexesAsDown() {
+        Health health = healthIndicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>> missing = (Map<String, List<String>>) health.getDetails().get("missingIndexes");
+        assertThat(missing.get("trainer_training_summary")).contains("trainer_username_idx", "first_last_idx");
+        assertThat(missing.get("trainer_monthly_summary")).containsExactly("trainer_year_month_idx");
+    }
+
+    @Test
+    void reportsUpOnceIndexesAreEnsured() {
+        initializer.ensureIndexes();
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void staysDownWhenDuplicateTrainersPreventUniqueIndex() {
+        mongoTemplate.insert(summary("duplicate"));
+        mongoTemplate.insert(summary("duplicate"));
+
+        initializer.ensureIndexes();
+
+        Health health = healthIndicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails().get("missingIndexes"))
+                .isEqualTo(Map.of("trainer_training_summary", List.of("trainer_username_idx")));
+    }
+
+    private static TrainerTrainingSummary summary(String trainerUsername) {
+        return TrainerTrainingSummary.builder()
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("John")
+                .trainerLastName("Doe")
+                .trainerStatus(true)
+                .build();
+    }
+}
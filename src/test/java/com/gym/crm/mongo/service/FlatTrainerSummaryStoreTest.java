@@ -0,0 +1,154 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.metrics.DomainMetrics;
+import com.gym.crm.mongo.EmbeddedMongoSupport;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.dto.TrainingActionType;
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
+import com.gym.crm.util.TransactionContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlatTrainerSummaryStoreTest {
+
+    private MongoTemplate mongoTemplate;
+    private TrainerTrainingSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongoSupport.mongoTemplate();
+        mongoTemplate.dropCollection(TrainerMonthlySummary.class);
+        mongoTemplate.dropCollection(TrainerTrainingSummary.class);
+        FlatTrainerSummaryStore store = new FlatTrainerSummaryStore(mongoTemplate);
+        store.ensureIndexes();
+        service = new TrainerTrainingSummaryService(store, new TrainerSummaryCache(100, 16, Duration.ofSeconds(5)),
+                new DomainMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionContext.clear();
+    }
+
+    @Test
+    void storesOneDocumentPerMonthAndAssemblesNestedSummary() {
+        service.processTrainingEventBatch(List.of(
+                event("trainer1", LocalDate.of(2025, 5, 2), 30),
+                event("trainer1", LocalDate.of(2025, 5, 9), 45),
+                event("trainer1", LocalDate.of(2024, 12, 1), 15)));
+
+        assertThat(mongoTemplate.count(new Query(), TrainerMonthlySummary.class)).isEqualTo(2);
+        TrainerTrainingSummary summary = service.findByTrainerUsername("trainer1").orElseThrow();
+        assertThat(summary.getTrainerFirstName()).isEqualTo("John");
+        assertThat(summary.getYears()).extracting(YearSummary::getYear).containsExactly(2024, 2025);
+        assertThat(summary.getYears().get(1).getMonths()).extracting(MonthSummary::getTrainingsSummaryDuration)
+                .containsExactly(75);
+    }
+
+    @Test
+    void deleteClampsAtZeroAndHidesEmptyMonth() {
+        service.processTrainingEvent(event("trainer2", LocalDate.of(2024, 12, 1), 20));
+        service.processTrainingEvent(event("trainer2", LocalDate.of(2025, 1, 1), 40));
+
+        service.processTrainingEvent(deleteEvent("trainer2", LocalDate.of(2024, 12, 1), 45));
+        service.processTrainingEvent(deleteEvent("trainer2", LocalDate.of(2025, 6, 1), 10));
+
+        TrainerTrainingSummary summary = service.findByTrainerUsername("trainer2").orElseThrow();
+        assertThat(summary.getYears()).extracting(YearSummary::getYear).containsExactly(2025);
+        assertThat(summary.getYears().getFirst().getMonths()).extracting(MonthSummary::getMonth).containsExactly(1);
+    }
+
+    @Test
+    void redeliveredEventsAreAppliedOnce() {
+        TrainerTrainingEvent add = event("trainer3", LocalDate.of(2025, 5, 10), 60);
+        add.setTransactionId("txn-1");
+        add.setTrainingId(11L);
+        TrainerTrainingEvent other = event("trainer3", LocalDate.of(2025, 5, 11), 15);
+        other.setTransactionId("txn-2");
+        other.setTrainingId(12L);
+
+        service.processTrainingEvent(add);
+        service.processTrainingEvent(add);
+        service.processTrainingEventBatch(List.of(add, other));
+        service.processTrainingEvent(other);
+
+        TrainerTrainingSummary summary = service.findByTrainerUsername("trainer3").orElseThrow();
+        assertThat(summary.getYears().getFirst().getMonths().getFirst().getTrainingsSummaryDuration()).isEqualTo(75);
+    }
+
+    @Test
+    void concurrentFirstEventsCreateSingleMonthDocument() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                futures.add(executor.submit(() -> service.processTrainingEvent(
+                        event("trainer4", LocalDate.of(2025, 5, 1), 2))));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(mongoTemplate.count(new Query(), TrainerMonthlySummary.class)).isEqualTo(1);
+        TrainerTrainingSummary summary = service.findByTrainerUsername("trainer4").orElseThrow();
+        assertThat(summary.getYears().getFirst().getMonths().getFirst().getTrainingsSummaryDuration()).isEqualTo(1000);
+    }
+
+    @Test
+    void migrationCopiesNestedSummariesAndCanBeRerun() {
+        NestedTrainerSummaryStore nested = new NestedTrainerSummaryStore(mongoTemplate);
+        TrainerTrainingSummaryService nestedService = new TrainerTrainingSummaryService(nested, new TrainerSummaryCache(100, 16, Duration.ofSeconds(5)),
+                new DomainMetrics(new SimpleMeterRegistry()));
+        nestedService.processTrainingEventBatch(List.of(
+                event("trainer5", LocalDate.of(2023, 2, 1), 30),
+                event("trainer5", LocalDate.of(2025, 7, 1), 50),
+                event("trainer6", LocalDate.of(2025, 7, 1), 10)));
+
+        TrainerSummaryMigrationJob job = new TrainerSummaryMigrationJob(mongoTemplate, 2, false);
+        assertThat(job.migrate()).isEqualTo(3);
+        assertThat(job.migrate()).isEqualTo(3);
+
+        assertThat(mongoTemplate.count(new Query(), TrainerMonthlySummary.class)).isEqualTo(3);
+        assertThat(service.findByTrainerUsername("trainer5").orElseThrow().getYears())
+                .usingRecursiveComparison()
+                .isEqualTo(nested.findByTrainerUsername("trainer5").orElseThrow().getYears());
+    }
+
+    private static TrainerTrainingEvent deleteEvent(String trainerUsername, LocalDate trainingDate, int duration) {
+        TrainerTrainingEvent event = event(trainerUsername, trainingDate, duration);
+        event.setActionType(TrainingActionType.DELETE);
+        return event;
+    }
+
+    private static TrainerTrainingEvent event(String trainerUsername, LocalDate trainingDate, int duration) {
+        return TrainerTrainingEvent.builder()
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("John")
+                .trainerLastName("Doe")
+                .trainerStatus(true)
+                .trainingDate(trainingDate)
+                .trainingDuration(duration)
+                .build();
+    }
+}
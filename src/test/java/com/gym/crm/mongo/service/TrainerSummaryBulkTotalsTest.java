@@ -0,0 +1,104 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.metrics.DomainMetrics;
+import com.gym.crm.mongo.EmbeddedMongoSupport;
+import com.gym.crm.mongo.config.MongoIndexInitializer;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
+import com.gym.crm.util.TransactionContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies several batches that touch every month of many trainers through the bulk write path
+ * of each layout and checks the resulting totals against embedded Mongo. Throughput of that
+ * path is measured by {@code TrainerSummaryBatchBenchmark}.
+ */
+class TrainerSummaryBulkTotalsTest {
+
+    private static final int EVENTS = 5_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int TRAINERS = 100;
+
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongoSupport.mongoTemplate();
+        mongoTemplate.dropCollection(TrainerTrainingSummary.class);
+        mongoTemplate.dropCollection(TrainerMonthlySummary.class);
+        new MongoIndexInitializer(mongoTemplate, new MongoMappingContext(), false).ensureIndexes();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionContext.clear();
+    }
+
+    @Test
+    void nestedStorageAppliesBatchesWithBulkWrites() {
+        NestedTrainerSummaryStore store = new NestedTrainerSummaryStore(mongoTemplate);
+        runAndVerify(new TrainerTrainingSummaryService(store, new TrainerSummaryCache(100, 16, Duration.ofSeconds(5)),
+                new DomainMetrics(new SimpleMeterRegistry())), store);
+    }
+
+    @Test
+    void flatStorageAppliesBatchesWithBulkWrites() {
+        FlatTrainerSummaryStore store = new FlatTrainerSummaryStore(mongoTemplate);
+        runAndVerify(new TrainerTrainingSummaryService(store, new TrainerSummaryCache(100, 16, Duration.ofSeconds(5)),
+                new DomainMetrics(new SimpleMeterRegistry())), store);
+    }
+
+    private static void runAndVerify(TrainerTrainingSummaryService service, TrainerSummaryStore store) {
+        Map<String, Integer> expected = new HashMap<>();
+        List<TrainerTrainingEvent> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < EVENTS; i++) {
+            String trainer = "bulk" + i % TRAINERS;
+            int month = 1 + (i / TRAINERS) % 12;
+            int duration = 1 + i % 90;
+            TrainerTrainingEvent event = TrainerTrainingEvent.builder()
+                    .trainerUsername(trainer)
+                    .trainerFirstName("Bulk")
+                    .trainerLastName("Trainer")
+                    .trainerStatus(true)
+                    .trainingDate(LocalDate.of(2025, month, 1))
+                    .trainingDuration(duration)
+                    .transactionId("txn-" + i / BATCH_SIZE)
+                    .trainingId((long) i)
+                    .build();
+            batch.add(event);
+            expected.merge(trainer + "/" + month, duration, Integer::sum);
+            if (batch.size() == BATCH_SIZE) {
+                service.processTrainingEventBatch(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+
+        for (int t = 0; t < TRAINERS; t++) {
+            String trainer = "bulk" + t;
+            TrainerTrainingSummary summary = store.findByTrainerUsername(trainer).orElseThrow();
+            assertThat(summary.getYears().getFirst().getMonths()).hasSize(12);
+            for (MonthSummary month : summary.getYears().getFirst().getMonths()) {
+                assertThat(month.getTrainingsSummaryDuration())
+                        .as(trainer + "/" + month.getMonth())
+                        .isEqualTo(expected.get(trainer + "/" + month.getMonth()));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.metrics.DomainMetrics;
+import com.gym.crm.mongo.EmbeddedMongoSupport;
+import com.gym.crm.mongo.config.MongoIndexInitializer;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
+import com.gym.crm.util.TransactionContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same updates and reads against the nested and flat summary layouts for trainers
+ * with ten years of monthly history and checks that both end up with the same totals. Their
+ * update and read cost is compared by {@code TrainerSummaryStorageBenchmark}.
+ */
+class TrainerSummaryLayoutConsistencyTest {
+
+    private static final int TRAINERS = 50;
+    private static final int FIRST_YEAR = 2016;
+    private static final int YEARS = 10;
+    private static final int UPDATES = 1_000;
+    private static final int READS = 200;
+
+    private final MongoTemplate mongoTemplate = EmbeddedMongoSupport.mongoTemplate();
+
+    @AfterEach
+    void tearDown() {
+        TransactionContext.clear();
+    }
+
+    @Test
+    void nestedAndFlatLayoutsAgreeAtTenYearsOfHistory() {
+        mongoTemplate.dropCollection(TrainerTrainingSummary.class);
+        mongoTemplate.dropCollection(TrainerMonthlySummary.class);
+        new MongoIndexInitializer(mongoTemplate, new MongoMappingContext(), false).ensureIndexes();
+        for (int t = 0; t < TRAINERS; t++) {
+            mongoTemplate.insert(history("bench" + t));
+        }
+        new TrainerSummaryMigrationJob(mongoTemplate, 1000, false).migrate();
+
+        NestedTrainerSummaryStore nested = new NestedTrainerSummaryStore(mongoTemplate);
+        FlatTrainerSummaryStore flat = new FlatTrainerSummaryStore(mongoTemplate);
+        TrainerTrainingSummaryService nestedService = new TrainerTrainingSummaryService(nested, new TrainerSummaryCache(100, 16, Duration.ofSeconds(5)),
+                new DomainMetrics(new SimpleMeterRegistry()));
+        TrainerTrainingSummaryService flatService = new TrainerTrainingSummaryService(flat, new TrainerSummaryCache(100, 16, Duration.ofSeconds(5)),
+                new DomainMetrics(new SimpleMeterRegistry()));
+
+        runUpdates(nestedService);
+        runUpdates(flatService);
+        runReads(nested);
+        runReads(flat);
+
+        for (int t = 0; t < TRAINERS; t++) {
+            String trainer = "bench" + t;
+            assertThat(flat.findByTrainerUsername(trainer).orElseThrow().getYears())
+                    .usingRecursiveComparison()
+                    .isEqualTo(nested.findByTrainerUsername(trainer).orElseThrow().getYears());
+        }
+    }
+
+    private static void runUpdates(TrainerTrainingSummaryService service) {
+        for (int i = 0; i < UPDATES; i++) {
+            service.processTrainingEvent(TrainerTrainingEvent.builder()
+                    .trainerUsername("bench" + i % TRAINERS)
+                    .trainerFirstName("Bench")
+                    .trainerLastName("Trainer")
+                    .trainerStatus(true)
+                    .trainingDate(LocalDate.of(FIRST_YEAR + i % YEARS, 1 + i % 12, 1))
+                    .trainingDuration(1 + i % 60)
+                    .build());
+        }
+    }
+
+    private static void runReads(TrainerSummaryStore store) {
+        for (int i = 0; i < READS; i++) {
+            assertThat(store.findByTrainerUsername("bench" + i % TRAINERS)).isPresent();
+        }
+    }
+
+    private static TrainerTrainingSummary history(String trainerUsername) {
+        List<YearSummary> years = new ArrayList<>(YEARS);
+        for (int y = 0; y < YEARS; y++) {
+            List<MonthSummary> months = new ArrayList<>(12);
+            for (int m = 1; m <= 12; m++) {
+                months.add(MonthSummary.builder().month(m).trainingsSummaryDuration(60 + m).build());
+            }
+            years.add(YearSummary.builder().year(FIRST_YEAR + y).months(months).build());
+        }
+        return TrainerTrainingSummary.builder()
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("Bench")
+                .trainerLastName("Trainer")
+                .trainerStatus(true)
+                .years(years)
+                .build();
+    }
+}
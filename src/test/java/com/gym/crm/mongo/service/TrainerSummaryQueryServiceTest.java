@@ -0,0 +1,145 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.metrics.DomainMetrics;
+import com.gym.crm.mongo.EmbeddedMongoSupport;
+import com.gym.crm.mongo.config.MongoIndexInitializer;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.TrainerMonthlySummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
+import com.gym.crm.util.TransactionContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class TrainerSummaryQueryServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private TrainerSummaryStore store;
+    private TrainerTrainingSummaryService writer;
+    private TrainerSummaryQueryService queryService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongoSupport.mongoTemplate();
+        mongoTemplate.dropCollection(TrainerTrainingSummary.class);
+        mongoTemplate.dropCollection(TrainerMonthlySummary.class);
+        new MongoIndexInitializer(mongoTemplate, new MongoMappingContext(), false).ensureIndexes();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionContext.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"NESTED", "FLAT"})
+    void returnsOnlyMonthsInRangeForRequestedTrainers(String storage) {
+        useStorage(storage);
+        writer.processTrainingEventBatch(List.of(
+                event("alice", LocalDate.of(2024, 11, 1), 10),
+                event("alice", LocalDate.of(2024, 12, 1), 20),
+                event("alice", LocalDate.of(2025, 1, 1), 30),
+                event("alice", LocalDate.of(2025, 3, 1), 40),
+                event("bob", LocalDate.of(2025, 2, 1), 50),
+                event("carol", LocalDate.of(2023, 1, 1), 60)));
+
+        List<TrainerTrainingSummary> result = queryService.findMonthlyTotals(
+                List.of("bob", "carol", "alice", "nobody"), YearMonth.of(2024, 12), YearMonth.of(2025, 2));
+
+        assertThat(result).extracting(TrainerTrainingSummary::getTrainerUsername).containsExactly("bob", "alice");
+        TrainerTrainingSummary alice = result.get(1);
+        assertThat(alice.getYears()).extracting(YearSummary::getYear).containsExactlyInAnyOrder(2024, 2025);
+        assertThat(alice.getYears().stream().flatMap(year -> year.getMonths().stream()))
+                .extracting(MonthSummary::getTrainingsSummaryDuration)
+                .containsExactlyInAnyOrder(20, 30);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"NESTED", "FLAT"})
+    void servesRepeatedQueriesFromCacheUntilWriterChangesTrainer(String storage) {
+        useStorage(storage);
+        writer.processTrainingEvent(event("alice", LocalDate.of(2025, 1, 1), 30));
+        YearMonth from = YearMonth.of(2025, 1);
+        YearMonth to = YearMonth.of(2025, 12);
+
+        queryService.findMonthlyTotals(List.of("alice"), from, to);
+        queryService.findMonthlyTotals(List.of("alice"), from, to);
+        verify(store, times(1)).findMonthlyTotals(any(), any(), any());
+
+        writer.processTrainingEvent(event("alice", LocalDate.of(2025, 1, 2), 15));
+        TrainerTrainingSummary refreshed = queryService.findMonthlyTotals(List.of("alice"), from, to).getFirst();
+
+        verify(store, times(2)).findMonthlyTotals(any(), any(), any());
+        assertThat(refreshed.getYears().getFirst().getMonths().getFirst().getTrainingsSummaryDuration()).isEqualTo(45);
+    }
+
+    @Test
+    void expiresCachedResultsAfterTtl() {
+        AtomicLong nanoTime = new AtomicLong();
+        useStorage("NESTED", new TrainerSummaryCache(100, 16, Duration.ofSeconds(5), nanoTime::get));
+        writer.processTrainingEvent(event("alice", LocalDate.of(2025, 1, 1), 30));
+        YearMonth from = YearMonth.of(2025, 1);
+        YearMonth to = YearMonth.of(2025, 12);
+
+        queryService.findMonthlyTotals(List.of("alice"), from, to);
+        nanoTime.addAndGet(Duration.ofSeconds(4).toNanos());
+        queryService.findMonthlyTotals(List.of("alice"), from, to);
+        verify(store, times(1)).findMonthlyTotals(any(), any(), any());
+
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        queryService.findMonthlyTotals(List.of("alice"), from, to);
+        verify(store, times(2)).findMonthlyTotals(any(), any(), any());
+    }
+
+    @Test
+    void rejectsReversedRange() {
+        useStorage("NESTED");
+
+        assertThatThrownBy(() -> queryService.findMonthlyTotals(List.of("alice"), YearMonth.of(2025, 2), YearMonth.of(2025, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void useStorage(String storage) {
+        useStorage(storage, new TrainerSummaryCache(100, 16, Duration.ofSeconds(5)));
+    }
+
+    private void useStorage(String storage, TrainerSummaryCache cache) {
+        store = spy("FLAT".equals(storage)
+                ? new FlatTrainerSummaryStore(mongoTemplate)
+                : new NestedTrainerSummaryStore(mongoTemplate));
+        writer = new TrainerTrainingSummaryService(store, cache,
+                new DomainMetrics(new SimpleMeterRegistry()));
+        queryService = new TrainerSummaryQueryService(store, cache);
+    }
+
+    private static TrainerTrainingEvent event(String trainerUsername, LocalDate trainingDate, int duration) {
+        return TrainerTrainingEvent.builder()
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("John")
+                .trainerLastName("Doe")
+                .trainerStatus(true)
+                .trainingDate(trainingDate)
+                .trainingDuration(duration)
+                .build();
+    }
+}
@@ -0,0 +1,208 @@
+package com.gym.crm.mongo.service;
+
+import com.gym.crm.facade.GymCrmFacade;
+import com.gym.crm.model.Trainee;
+import com.gym.crm.model.Trainer;
+import com.gym.crm.model.Training;
+import com.gym.crm.model.TrainingType;
+import com.gym.crm.mongo.EmbeddedMongoSupport;
+import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.model.SummaryReconciliationState;
+import com.gym.crm.mongo.model.TrainerTrainingSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
+import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
+import com.gym.crm.repository.TrainingRepository;
+import com.gym.crm.repository.TrainingTypeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "workload.outbox.enabled=false",
+        "workload.summary.ensure-indexes=true"
+})
+@ActiveProfiles("test")
+class TrainerSummaryReconciliationJobTest {
+
+    @DynamicPropertySource
+    static void mongoProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", EmbeddedMongoSupport::connectionString);
+    }
+
+    @Autowired
+    private TrainerSummaryReconciliationJob reconciliationJob;
+
+    @Autowired
+    private TrainerTrainingSummaryService summaryService;
+
+    @Autowired
+    private GymCrmFacade gymCrmFacade;
+
+    @Autowired
+    private TrainingRepository trainingRepository;
+
+    @Autowired
+    private TrainingTypeRepository trainingTypeRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @SpyBean
+    private TrainerSummaryStore summaryStore;
+
+    private Trainee trainee;
+    private TrainingType trainingType;
+
+    @BeforeEach
+    void setUp() {
+        trainingRepository.deleteAll();
+        mongoTemplate.remove(new Query(), TrainerTrainingSummary.class);
+        mongoTemplate.remove(new Query(), SummaryReconciliationState.class);
+        trainingType = trainingTypeRepository.findAll().getFirst();
+        trainee = gymCrmFacade.createTrainee(new Trainee("Tom", "Trainee", LocalDate.of(1990, 1, 1), "Main St"));
+    }
+
+    @Test
+    void fullRunRepairsDriftedMissingAndOrphanedMonths() {
+        Trainer trainer = gymCrmFacade.createTrainer(new Trainer("Rita", "Reconcile", trainingType));
+        saveTraining(trainer, LocalDate.of(2025, 1, 5), 30);
+        saveTraining(trainer, LocalDate.of(2025, 1, 20), 20);
+        saveTraining(trainer, LocalDate.of(2025, 2, 3), 40);
+        mongoTemplate.insert(summary(trainer.getUsername(), Map.of(YearMonth.of(2025, 1), 10, YearMonth.of(2024, 12), 99)));
+
+        assertThat(reconciliationJob.reconcileAll()).isEqualTo(3);
+
+        assertThat(totals(trainer.getUsername()))
+                .isEqualTo(Map.of(YearMonth.of(2025, 1), 50, YearMonth.of(2025, 2), 40));
+        assertThat(reconciliationJob.reconcileAll()).isZero();
+        assertThat(meterRegistry.get("workload.reconciliation.repaired").counter().count()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void fullRunZeroesTrainerWhoseLastTrainingWasDeleted() {
+        Trainer trainer = gymCrmFacade.createTrainer(new Trainer("Dora", "Deleted", trainingType));
+        Trainer active = gymCrmFacade.createTrainer(new Trainer("Abe", "Active", trainingType));
+        Training last = saveTraining(trainer, LocalDate.of(2025, 5, 2), 30);
+        saveTraining(active, LocalDate.of(2025, 5, 2), 60);
+        reconciliationJob.reconcileAll();
+
+        trainingRepository.delete(last);
+
+        assertThat(reconciliationJob.reconcileAll()).isEqualTo(1);
+
+        assertThat(totals(trainer.getUsername())).isEmpty();
+        assertThat(totals(active.getUsername())).isEqualTo(Map.of(YearMonth.of(2025, 5), 60));
+        assertThat(reconciliationJob.reconcileAll()).isZero();
+    }
+
+    @Test
+    void eventAppliedDuringRunIsNotOverwritten() {
+        Trainer trainer = gymCrmFacade.createTrainer(new Trainer("Lena", "Late", trainingType));
+        saveTraining(trainer, LocalDate.of(2025, 5, 2), 30);
+        mongoTemplate.insert(summary(trainer.getUsername(), Map.of(YearMonth.of(2025, 5), 10)));
+        double skippedBefore = meterRegistry.get("workload.reconciliation.skipped").counter().count();
+        AtomicBoolean applied = new AtomicBoolean();
+        doAnswer(invocation -> {
+            // A training added after the totals were read, whose event lands right before the repair
+            if (applied.compareAndSet(false, true)) {
+                // On its own thread, outside the read-only transaction of the run
+                CompletableFuture.runAsync(() -> addTrainingAndApplyEvent(trainer, LocalDate.of(2025, 5, 9), 15)).join();
+            }
+            return invocation.callRealMethod();
+        }).when(summaryStore).writeTotals(anyList(), any(Instant.class));
+
+        assertThat(reconciliationJob.reconcileAll()).isZero();
+
+        assertThat(totals(trainer.getUsername())).isEqualTo(Map.of(YearMonth.of(2025, 5), 25));
+        assertThat(meterRegistry.get("workload.reconciliation.skipped").counter().count()).isEqualTo(skippedBefore + 1);
+        assertThat(reconciliationJob.reconcileAll()).isEqualTo(1);
+        assertThat(totals(trainer.getUsername())).isEqualTo(Map.of(YearMonth.of(2025, 5), 45));
+    }
+
+    @Test
+    void incrementalRunOnlyChecksTrainersWithNewTrainings() {
+        Trainer changed = gymCrmFacade.createTrainer(new Trainer("Ivy", "Incremental", trainingType));
+        Trainer untouched = gymCrmFacade.createTrainer(new Trainer("Uma", "Untouched", trainingType));
+        saveTraining(changed, LocalDate.of(2025, 3, 1), 45);
+        saveTraining(untouched, LocalDate.of(2025, 3, 1), 60);
+        reconciliationJob.reconcileAll();
+
+        saveTraining(changed, LocalDate.of(2025, 4, 1), 15);
+        mongoTemplate.insert(summary("drifted.only.in.mongo", Map.of(YearMonth.of(2025, 3), 5)));
+        mongoTemplate.remove(Query.query(Criteria.where("trainerUsername").is(untouched.getUsername())),
+                TrainerTrainingSummary.class);
+
+        assertThat(reconciliationJob.reconcileIncrementally()).isEqualTo(1);
+
+        assertThat(totals(changed.getUsername()))
+                .isEqualTo(Map.of(YearMonth.of(2025, 3), 45, YearMonth.of(2025, 4), 15));
+        assertThat(summaryService.findByTrainerUsername(untouched.getUsername())).isEmpty();
+        assertThat(reconciliationJob.reconcileIncrementally()).isZero();
+    }
+
+    private void addTrainingAndApplyEvent(Trainer trainer, LocalDate date, int duration) {
+        Training training = saveTraining(trainer, date, duration);
+        summaryService.processTrainingEvent(TrainerTrainingEvent.builder()
+                .trainerUsername(trainer.getUsername())
+                .trainerFirstName(trainer.getFirstName())
+                .trainerLastName(trainer.getLastName())
+                .trainerStatus(true)
+                .trainingDate(date)
+                .trainingDuration(duration)
+                .trainingId(training.getId())
+                .transactionId("txn-late")
+                .build());
+    }
+
+    private Training saveTraining(Trainer trainer, LocalDate date, int duration) {
+        return trainingRepository.save(new Training(trainee, trainer, "Session", trainingType, date, duration));
+    }
+
+    private Map<YearMonth, Integer> totals(String trainerUsername) {
+        Map<YearMonth, Integer> totals = new HashMap<>();
+        summaryService.findByTrainerUsername(trainerUsername).ifPresent(summary -> summary.getYears().forEach(year ->
+                year.getMonths().forEach(month ->
+                        totals.put(YearMonth.of(year.getYear(), month.getMonth()), month.getTrainingsSummaryDuration()))));
+        return totals;
+    }
+
+    private static TrainerTrainingSummary summary(String trainerUsername, Map<YearMonth, Integer> totals) {
+        Map<Integer, YearSummary> years = new HashMap<>();
+        totals.forEach((month, total) -> years
+                .computeIfAbsent(month.getYear(), year -> YearSummary.builder().year(year).months(new ArrayList<>()).build())
+                .getMonths().add(MonthSummary.builder().month(month.getMonthValue()).trainingsSummaryDuration(total).build()));
+        return TrainerTrainingSummary.builder()
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("Stale")
+                .trainerLastName("Name")
+                .trainerStatus(true)
+                .years(new ArrayList<>(years.values()))
+                .build();
+    }
+}
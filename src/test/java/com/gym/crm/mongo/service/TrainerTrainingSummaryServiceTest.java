@@ -1,36 +1,54 @@
 package com.gym.crm.mongo.service;
 
+import com.gym.crm.metrics.DomainMetrics;
+import com.gym.crm.mongo.EmbeddedMongoSupport;
+import com.gym.crm.mongo.config.MongoIndexInitializer;
 import com.gym.crm.mongo.dto.TrainerTrainingEvent;
+import com.gym.crm.mongo.dto.TrainingActionType;
 import com.gym.crm.mongo.model.TrainerTrainingSummary;
 import com.gym.crm.mongo.model.TrainerTrainingSummary.MonthSummary;
 import com.gym.crm.mongo.model.TrainerTrainingSummary.YearSummary;
-import com.gym.crm.mongo.repository.TrainerTrainingSummaryRepository;
 import com.gym.crm.util.TransactionContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class TrainerTrainingSummaryServiceTest {
 
-    @Mock
-    private TrainerTrainingSummaryRepository repository;
+    private static final int PARALLEL_EVENTS = 10_000;
 
-    @InjectMocks
+    private MongoTemplate mongoTemplate;
     private TrainerTrainingSummaryService service;
 
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = EmbeddedMongoSupport.mongoTemplate();
+        mongoTemplate.dropCollection(TrainerTrainingSummary.class);
+        // Concurrent upserts of a new trainer rely on this index to avoid duplicate documents
+        new MongoIndexInitializer(mongoTemplate, new MongoMappingContext(), false).ensureIndexes();
+        service = new TrainerTrainingSummaryService(new NestedTrainerSummaryStore(mongoTemplate), new TrainerSummaryCache(100, 16, Duration.ofSeconds(5)),
+                new DomainMetrics(new SimpleMeterRegistry()));
+    }
+
     @AfterEach
     void tearDown() {
         TransactionContext.clear();
@@ -38,21 +56,10 @@ class TrainerTrainingSummaryServiceTest {
 
     @Test
     void createsNewDocumentWhenTrainerNotFound() {
-        TrainerTrainingEvent event = TrainerTrainingEvent.builder()
-                .trainerUsername("trainer1")
-                .trainerFirstName("John")
-                .trainerLastName("Doe")
-                .trainerStatus(true)
-                .trainingDate(LocalDate.of(2025, 5, 10))
-                .trainingDuration(60)
-                .build();
+        service.processTrainingEvent(event("trainer1", LocalDate.of(2025, 5, 10), 60));
 
-        when(repository.findByTrainerUsername("trainer1")).thenReturn(Optional.empty());
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
-
-        TrainerTrainingSummary saved = service.processTrainingEvent(event);
-
-        assertThat(saved.getTrainerUsername()).isEqualTo("trainer1");
+        TrainerTrainingSummary saved = find("trainer1");
+        assertThat(saved.getTrainerFirstName()).isEqualTo("John");
         assertThat(saved.getYears()).hasSize(1);
         YearSummary year = saved.getYears().getFirst();
         assertThat(year.getYear()).isEqualTo(2025);
@@ -60,80 +67,240 @@ class TrainerTrainingSummaryServiceTest {
         MonthSummary month = year.getMonths().getFirst();
         assertThat(month.getMonth()).isEqualTo(5);
         assertThat(month.getTrainingsSummaryDuration()).isEqualTo(60);
-
-        verify(repository).save(any(TrainerTrainingSummary.class));
     }
 
     @Test
     void incrementsExistingMonthDuration() {
-        TrainerTrainingSummary existing = TrainerTrainingSummary.builder()
-                .trainerUsername("trainer2")
-                .trainerFirstName("Jane")
-                .trainerLastName("Smith")
-                .trainerStatus(true)
-                .years(new ArrayList<>())
-                .build();
-        YearSummary year = YearSummary.builder()
+        mongoTemplate.insert(existingSummary("trainer2", 2025, 5, 30));
+
+        service.processTrainingEvent(event("trainer2", LocalDate.of(2025, 5, 15), 20));
+
+        TrainerTrainingSummary saved = find("trainer2");
+        assertThat(saved.getYears().getFirst().getMonths().getFirst().getTrainingsSummaryDuration()).isEqualTo(50);
+        assertThat(saved.getTrainerFirstName()).isEqualTo("John");
+    }
+
+    @Test
+    void addsNewMonthForExistingYear() {
+        mongoTemplate.insert(existingSummary("trainer3", 2025, 4, 10));
+
+        service.processTrainingEvent(event("trainer3", LocalDate.of(2025, 5, 2), 25));
+
+        List<MonthSummary> months = find("trainer3").getYears().getFirst().getMonths();
+        assertThat(months).hasSize(2);
+        MonthSummary may = months.stream().filter(m -> m.getMonth() == 5).findFirst().orElseThrow();
+        assertThat(may.getTrainingsSummaryDuration()).isEqualTo(25);
+    }
+
+    @Test
+    void appliesBatchAggregatedPerMonth() {
+        service.processTrainingEventBatch(List.of(
+                event("trainer4", LocalDate.of(2025, 5, 2), 30),
+                event("trainer5", LocalDate.of(2025, 5, 2), 20),
+                event("trainer4", LocalDate.of(2025, 5, 9), 45),
+                event("trainer4", LocalDate.of(2026, 1, 1), 15)));
+
+        TrainerTrainingSummary summary = find("trainer4");
+        assertThat(summary.getYears()).extracting(YearSummary::getYear).containsExactlyInAnyOrder(2025, 2026);
+        assertThat(monthTotal(summary, 2025, 5)).isEqualTo(75);
+        assertThat(monthTotal(summary, 2026, 1)).isEqualTo(15);
+        assertThat(monthTotal(find("trainer5"), 2025, 5)).isEqualTo(20);
+    }
+
+    @Test
+    void deleteDecrementsMonthDuration() {
+        mongoTemplate.insert(existingSummary("trainer6", 2025, 5, 90));
+
+        service.processTrainingEvent(deleteEvent("trainer6", LocalDate.of(2025, 5, 3), 30));
+
+        assertThat(monthTotal(find("trainer6"), 2025, 5)).isEqualTo(60);
+    }
+
+    @Test
+    void deleteClampsAtZeroAndPrunesEmptyMonthAndYear() {
+        TrainerTrainingSummary existing = existingSummary("trainer7", 2024, 12, 20);
+        existing.getYears().add(YearSummary.builder()
                 .year(2025)
-                .months(new ArrayList<>())
-                .build();
-        year.getMonths().add(MonthSummary.builder().month(5).trainingsSummaryDuration(30).build());
-        existing.getYears().add(year);
+                .months(new ArrayList<>(List.of(MonthSummary.builder().month(1).trainingsSummaryDuration(40).build())))
+                .build());
+        mongoTemplate.insert(existing);
 
-        TrainerTrainingEvent event = TrainerTrainingEvent.builder()
-                .trainerUsername("trainer2")
-                .trainerFirstName("Jane")
-                .trainerLastName("Smith")
-                .trainerStatus(true)
-                .trainingDate(LocalDate.of(2025, 5, 15))
-                .trainingDuration(20)
-                .transactionId("txn-test")
-                .build();
+        service.processTrainingEvent(deleteEvent("trainer7", LocalDate.of(2024, 12, 3), 45));
 
-        when(repository.findByTrainerUsername("trainer2")).thenReturn(Optional.of(existing));
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TrainerTrainingSummary summary = find("trainer7");
+        assertThat(summary.getYears()).extracting(YearSummary::getYear).containsExactly(2025);
+        assertThat(monthTotal(summary, 2025, 1)).isEqualTo(40);
+    }
+
+    @Test
+    void deletePrunesOnlyTheMonthItEmptied() {
+        TrainerTrainingSummary existing = existingSummary("trainer10", 2025, 5, 30);
+        // A month bucket another writer has just created and not incremented yet
+        existing.getYears().getFirst().getMonths().add(MonthSummary.builder().month(6).trainingsSummaryDuration(0).build());
+        mongoTemplate.insert(existing);
 
-        TrainerTrainingSummary saved = service.processTrainingEvent(event);
-        MonthSummary month = saved.getYears().getFirst().getMonths().getFirst();
-        assertThat(month.getTrainingsSummaryDuration()).isEqualTo(50);
-        verify(repository).save(any(TrainerTrainingSummary.class));
+        service.processTrainingEvent(deleteEvent("trainer10", LocalDate.of(2025, 5, 3), 30));
+
+        TrainerTrainingSummary summary = find("trainer10");
+        assertThat(summary.getYears().getFirst().getMonths()).extracting(MonthSummary::getMonth).containsExactly(6);
     }
 
     @Test
-    void addsNewMonthForExistingYear() {
+    void batchWithoutEventKeysIsFullyApplied() {
+        mongoTemplate.insert(existingSummary("trainer11", 2025, 5, 10));
+
+        service.processTrainingEventBatch(List.of(
+                event("trainer11", LocalDate.of(2025, 5, 1), 20),
+                event("trainer11", LocalDate.of(2025, 7, 1), 30)));
+
+        TrainerTrainingSummary summary = find("trainer11");
+        assertThat(monthTotal(summary, 2025, 5)).isEqualTo(30);
+        assertThat(monthTotal(summary, 2025, 7)).isEqualTo(30);
+    }
+
+    @Test
+    void batchWithDeleteAndAddInOneMonthMatchesSingleEvents() {
+        mongoTemplate.insert(existingSummary("trainer12", 2025, 5, 10));
+        mongoTemplate.insert(existingSummary("trainer13", 2025, 5, 10));
+
+        service.processTrainingEventBatch(deleteThenAdd("trainer12"));
+        deleteThenAdd("trainer13").forEach(service::processTrainingEvent);
+
+        // Each DELETE clamps at zero before the ADD that follows it, in a stored and in an empty month
+        TrainerTrainingSummary batched = find("trainer12");
+        TrainerTrainingSummary single = find("trainer13");
+        assertThat(monthTotal(single, 2025, 5)).isEqualTo(30);
+        assertThat(monthTotal(single, 2025, 6)).isEqualTo(30);
+        assertThat(monthTotal(batched, 2025, 5)).isEqualTo(30);
+        assertThat(monthTotal(batched, 2025, 6)).isEqualTo(30);
+    }
+
+    @Test
+    void deleteForUnknownMonthChangesNothing() {
+        mongoTemplate.insert(existingSummary("trainer8", 2025, 5, 30));
+
+        service.processTrainingEvent(deleteEvent("trainer8", LocalDate.of(2025, 6, 3), 30));
+
+        TrainerTrainingSummary summary = find("trainer8");
+        assertThat(summary.getYears().getFirst().getMonths()).extracting(MonthSummary::getMonth).containsExactly(5);
+        assertThat(monthTotal(summary, 2025, 5)).isEqualTo(30);
+    }
+
+    @Test
+    void redeliveredEventsAreAppliedOnce() {
+        TrainerTrainingEvent add = event("trainer9", LocalDate.of(2025, 5, 10), 60);
+        add.setTransactionId("txn-1");
+        add.setTrainingId(11L);
+        TrainerTrainingEvent delete = deleteEvent("trainer9", LocalDate.of(2025, 5, 10), 60);
+        delete.setTransactionId("txn-2");
+        delete.setTrainingId(12L);
+        TrainerTrainingEvent other = event("trainer9", LocalDate.of(2025, 5, 11), 15);
+        other.setTransactionId("txn-3");
+        other.setTrainingId(13L);
+
+        service.processTrainingEvent(add);
+        service.processTrainingEvent(add);
+        service.processTrainingEventBatch(List.of(add, other));
+        service.processTrainingEventBatch(List.of(other, delete));
+        service.processTrainingEvent(delete);
+
+        assertThat(monthTotal(find("trainer9"), 2025, 5)).isEqualTo(15);
+    }
+
+    @Test
+    void parallelEventsKeepExactTotals() throws Exception {
+        List<TrainerTrainingEvent> events = new ArrayList<>(PARALLEL_EVENTS);
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < PARALLEL_EVENTS; i++) {
+            String trainer = "parallel" + (i % 5);
+            LocalDate date = LocalDate.of(2024 + i % 2, 1 + i % 3, 1);
+            int duration = 1 + i % 7;
+            events.add(event(trainer, date, duration));
+            expected.merge(trainer + "/" + date.getYear() + "/" + date.getMonthValue(), duration, Integer::sum);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>(PARALLEL_EVENTS);
+            for (TrainerTrainingEvent event : events) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    service.processTrainingEvent(event);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(mongoTemplate.count(new Query(), TrainerTrainingSummary.class)).isEqualTo(5);
+        expected.forEach((key, total) -> {
+            String[] parts = key.split("/");
+            TrainerTrainingSummary summary = find(parts[0]);
+            assertThat(monthTotal(summary, Integer.parseInt(parts[1]), Integer.parseInt(parts[2])))
+                    .as(key)
+                    .isEqualTo(total);
+        });
+    }
+
+    private TrainerTrainingSummary find(String trainerUsername) {
+        TrainerTrainingSummary summary = mongoTemplate.findOne(
+                Query.query(Criteria.where("trainerUsername").is(trainerUsername)), TrainerTrainingSummary.class);
+        assertThat(summary).isNotNull();
+        return summary;
+    }
+
+    private static int monthTotal(TrainerTrainingSummary summary, int year, int month) {
+        return summary.getYears().stream()
+                .filter(y -> y.getYear() == year)
+                .flatMap(y -> y.getMonths().stream())
+                .filter(m -> m.getMonth() == month)
+                .findFirst()
+                .orElseThrow()
+                .getTrainingsSummaryDuration();
+    }
+
+    private static TrainerTrainingSummary existingSummary(String trainerUsername, int year, int month, int total) {
         TrainerTrainingSummary existing = TrainerTrainingSummary.builder()
-                .trainerUsername("trainer3")
-                .trainerFirstName("Jake")
-                .trainerLastName("Miles")
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("Old")
+                .trainerLastName("Name")
                 .trainerStatus(true)
                 .years(new ArrayList<>())
                 .build();
-        YearSummary year = YearSummary.builder()
-                .year(2025)
-                .months(new ArrayList<>())
-                .build();
-        year.getMonths().add(MonthSummary.builder().month(4).trainingsSummaryDuration(10).build());
-        existing.getYears().add(year);
-
-        TrainerTrainingEvent event = TrainerTrainingEvent.builder()
-                .trainerUsername("trainer3")
-                .trainerFirstName("Jake")
-                .trainerLastName("Miles")
-                .trainerStatus(true)
-                .trainingDate(LocalDate.of(2025, 5, 2))
-                .trainingDuration(25)
-                .build();
+        YearSummary yearSummary = YearSummary.builder().year(year).months(new ArrayList<>()).build();
+        yearSummary.getMonths().add(MonthSummary.builder().month(month).trainingsSummaryDuration(total).build());
+        existing.getYears().add(yearSummary);
+        return existing;
+    }
 
-        when(repository.findByTrainerUsername("trainer3")).thenReturn(Optional.of(existing));
-        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    private static List<TrainerTrainingEvent> deleteThenAdd(String trainerUsername) {
+        return List.of(
+                deleteEvent(trainerUsername, LocalDate.of(2025, 5, 1), 30),
+                deleteEvent(trainerUsername, LocalDate.of(2025, 6, 1), 30),
+                event(trainerUsername, LocalDate.of(2025, 5, 2), 30),
+                event(trainerUsername, LocalDate.of(2025, 6, 2), 30));
+    }
 
-        TrainerTrainingSummary saved = service.processTrainingEvent(event);
+    private static TrainerTrainingEvent deleteEvent(String trainerUsername, LocalDate trainingDate, int duration) {
+        TrainerTrainingEvent event = event(trainerUsername, trainingDate, duration);
+        event.setActionType(TrainingActionType.DELETE);
+        return event;
+    }
 
-        List<MonthSummary> months = saved.getYears().getFirst().getMonths();
-        assertThat(months).hasSize(2);
-        MonthSummary may = months.stream().filter(m -> m.getMonth() == 5).findFirst().orElseThrow();
-        assertThat(may.getTrainingsSummaryDuration()).isEqualTo(25);
-        verify(repository).save(any(TrainerTrainingSummary.class));
+    private static TrainerTrainingEvent event(String trainerUsername, LocalDate trainingDate, int duration) {
+        return TrainerTrainingEvent.builder()
+                .trainerUsername(trainerUsername)
+                .trainerFirstName("John")
+                .trainerLastName("Doe")
+                .trainerStatus(true)
+                .trainingDate(trainingDate)
+                .trainingDuration(duration)
+                .build();
     }
 }
-
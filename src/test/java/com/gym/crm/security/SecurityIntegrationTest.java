@@ -5,6 +5,7 @@ import com.gym.crm.dto.request.LoginRequest;
 import com.gym.crm.dto.request.TraineeRegistrationRequest;
 import com.gym.crm.dto.response.LoginResponse;
 import com.gym.crm.dto.response.RegistrationResponse;
+import com.gym.crm.util.TransactionContext;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
@@ -161,4 +162,28 @@ class SecurityIntegrationTest {
                 .andExpect(header().exists("Access-Control-Allow-Origin"))
                 .andExpect(header().exists("Access-Control-Allow-Methods"));
     }
+
+    @Test
+    void testTransactionIdHeaderIsAdoptedAndEchoed() throws Exception {
+        TraineeRegistrationRequest registrationRequest = new TraineeRegistrationRequest();
+        registrationRequest.setFirstName("Trace");
+        registrationRequest.setLastName("Header");
+
+        mockMvc.perform(post("/api/trainees/register")
+                .header(TransactionContext.HEADER, "upstream-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registrationRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TransactionContext.HEADER, "upstream-42"));
+
+        MvcResult generated = mockMvc.perform(post("/api/trainees/register")
+                .header(TransactionContext.HEADER, "forged id; level=ERROR")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registrationRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        String transactionId = generated.getResponse().getHeader(TransactionContext.HEADER);
+        assertNotNull(transactionId);
+        assertNotEquals("forged id; level=ERROR", transactionId);
+    }
 }
@@ -0,0 +1,64 @@
+package com.gym.crm.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UsernameAllocationServiceTest {
+
+    private static final int PARALLEL_REGISTRATIONS = 64;
+
+    @Autowired
+    private UsernameAllocationService usernameAllocationService;
+
+    @Test
+    void testSequentialAllocationsGetIncreasingSerialNumbers() {
+        assertEquals("Anna.Lee", usernameAllocationService.allocateUsername("Anna", "Lee"));
+        assertEquals("Anna.Lee2", usernameAllocationService.allocateUsername("Anna", "Lee"));
+        assertEquals("Anna.Lee3", usernameAllocationService.allocateUsername("Anna", "Lee"));
+    }
+
+    @Test
+    void testParallelRegistrationsOfSameNameGetUniqueUsernames() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_REGISTRATIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < PARALLEL_REGISTRATIONS; i++) {
+                Callable<String> registration = () -> {
+                    start.await();
+                    return usernameAllocationService.allocateUsername("Contended", "User");
+                };
+                futures.add(executor.submit(registration));
+            }
+
+            start.countDown();
+            Set<String> usernames = new HashSet<>();
+            for (Future<String> future : futures) {
+                usernames.add(future.get(30, TimeUnit.SECONDS));
+            }
+
+            assertEquals(PARALLEL_REGISTRATIONS, usernames.size());
+            assertTrue(usernames.contains("Contended.User"));
+            assertTrue(usernames.contains("Contended.User" + PARALLEL_REGISTRATIONS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
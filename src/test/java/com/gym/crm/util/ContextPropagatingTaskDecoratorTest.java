@@ -0,0 +1,103 @@
+package com.gym.crm.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextPropagatingTaskDecoratorTest {
+
+    private final ContextPropagatingTaskDecorator decorator = new ContextPropagatingTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        TransactionContext.clear();
+        MDC.clear();
+    }
+
+    @Test
+    void testPooledWorkerRunsWithSubmitterContextAndKeepsNothingAfterwards() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setTaskDecorator(decorator);
+        executor.initialize();
+        try {
+            TransactionContext.setTransactionId("txn-submitter");
+            MDC.put("transactionId", "txn-submitter");
+            MDC.put("userId", "John.Smith");
+
+            assertEquals(new Snapshot("txn-submitter", Map.of("transactionId", "txn-submitter", "userId", "John.Smith")),
+                    executor.submit(Snapshot::capture).get(5, TimeUnit.SECONDS));
+
+            TransactionContext.clear();
+            MDC.clear();
+            // Runs on the same worker thread, which must not remember the previous task
+            assertEquals(new Snapshot(null, null), executor.submit(Snapshot::capture).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testVirtualThreadRunsWithSubmitterContext() throws Exception {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("test-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(decorator);
+        TransactionContext.setTransactionId("txn-virtual");
+        MDC.put("transactionId", "txn-virtual");
+
+        CompletableFuture<Snapshot> result = new CompletableFuture<>();
+        executor.execute(() -> result.complete(Snapshot.capture()));
+
+        assertEquals(new Snapshot("txn-virtual", Map.of("transactionId", "txn-virtual")), result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testTaskRunOnCallerRestoresCallerContext() {
+        TransactionContext.setTransactionId("txn-request");
+        MDC.put("transactionId", "txn-request");
+        Runnable task = decorator.decorate(() -> {
+            TransactionContext.setTransactionId("txn-changed-by-task");
+            MDC.put("extra", "value");
+        });
+
+        TransactionContext.setTransactionId("txn-caller");
+        MDC.put("transactionId", "txn-caller");
+        task.run();
+
+        assertEquals("txn-caller", TransactionContext.getTransactionId());
+        assertEquals(Map.of("transactionId", "txn-caller"), MDC.getCopyOfContextMap());
+    }
+
+    @Test
+    void testContextIsRestoredWhenTaskFails() {
+        AtomicReference<String> seen = new AtomicReference<>();
+        TransactionContext.setTransactionId("txn-submitter");
+        Runnable task = decorator.decorate(() -> {
+            seen.set(TransactionContext.getTransactionId());
+            throw new IllegalStateException("boom");
+        });
+        TransactionContext.clear();
+
+        assertThrows(IllegalStateException.class, task::run);
+        assertEquals("txn-submitter", seen.get());
+        assertNull(TransactionContext.getTransactionId());
+    }
+
+    private record Snapshot(String transactionId, Map<String, String> mdc) {
+
+        static Snapshot capture() {
+            Map<String, String> mdc = MDC.getCopyOfContextMap();
+            return new Snapshot(TransactionContext.getTransactionId(), mdc == null || mdc.isEmpty() ? null : mdc);
+        }
+    }
+}
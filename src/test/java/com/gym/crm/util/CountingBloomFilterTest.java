@@ -0,0 +1,60 @@
+package com.gym.crm.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void testAddedKeysAreAlwaysReported() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("John.Doe" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("John.Doe" + i));
+        }
+        assertEquals(10_000, filter.size());
+    }
+
+    @Test
+    void testRemovedKeyIsNoLongerReported() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        filter.add("Jane.Smith");
+        filter.add("John.Doe");
+
+        filter.remove("Jane.Smith");
+
+        assertFalse(filter.mightContain("Jane.Smith"));
+        assertTrue(filter.mightContain("John.Doe"));
+        assertEquals(1, filter.size());
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearConfiguredProbability() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "Too many false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveProbability() < 0.02);
+    }
+
+    @Test
+    void testEmptyFilterReportsNothing() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("anyone"));
+        assertEquals(0.0, filter.expectedFalsePositiveProbability());
+    }
+}
@@ -0,0 +1,59 @@
+package com.gym.crm.util;
+
+import com.gym.crm.util.RequestTiming.StageTotal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.end();
+    }
+
+    @Test
+    void testStagesOutsideRecordingAreIgnored() {
+        assertEquals("result", RequestTiming.time(RequestTiming.DB, () -> "result"));
+        assertTrue(RequestTiming.end().isEmpty());
+    }
+
+    @Test
+    void testRepeatedStagesAreSummed() {
+        RequestTiming.begin();
+        RequestTiming.run(RequestTiming.DB, () -> { });
+        RequestTiming.run(RequestTiming.HASHING, () -> { });
+        RequestTiming.run(RequestTiming.DB, () -> { });
+
+        Map<String, StageTotal> stages = RequestTiming.end();
+
+        assertEquals(List.of(RequestTiming.DB, RequestTiming.HASHING), List.copyOf(stages.keySet()));
+        assertEquals(2, stages.get(RequestTiming.DB).count());
+        assertEquals(1, stages.get(RequestTiming.HASHING).count());
+    }
+
+    @Test
+    void testNestedStageOfSameNameIsCountedOnce() {
+        RequestTiming.begin();
+        try (RequestTiming.Stage ignored = RequestTiming.stage(RequestTiming.AUTH)) {
+            RequestTiming.run(RequestTiming.AUTH, () -> { });
+            RequestTiming.run(RequestTiming.HASHING, () -> { });
+        }
+
+        Map<String, StageTotal> stages = RequestTiming.end();
+
+        assertEquals(1, stages.get(RequestTiming.AUTH).count());
+        assertTrue(stages.get(RequestTiming.AUTH).nanos() >= stages.get(RequestTiming.HASHING).nanos());
+    }
+
+    @Test
+    void testFormatsServerTimingHeader() {
+        String header = RequestTiming.toServerTiming(Map.of(RequestTiming.DB, new StageTotal(12_340_000, 3)));
+
+        assertEquals("db;dur=12.3;desc=\"3x\"", header);
+    }
+}
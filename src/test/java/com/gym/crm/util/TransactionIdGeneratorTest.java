@@ -0,0 +1,103 @@
+package com.gym.crm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+    private static final long NOW = 1_746_871_200_000L;
+
+    @Test
+    void testIdsAreFixedLengthCrockfordBase32EndingInNodeId() {
+        TransactionIdGenerator generator = new TransactionIdGenerator(0x2A, () -> NOW);
+
+        String id = generator.next();
+
+        assertEquals(TransactionIdGenerator.LENGTH, id.length());
+        assertTrue(id.matches("[0-9A-HJKMNP-TV-Z]+"), id);
+        assertTrue(id.endsWith("001A"), id);
+    }
+
+    @Test
+    void testConfiguredNodeIdIsParsedAndBadValuesFallBackToRandom() {
+        assertEquals(42, TransactionIdGenerator.nodeId(" 42 "));
+        for (String bad : new String[]{"pod-3", "-1", "1048576", "99999999999"}) {
+            int nodeId = TransactionIdGenerator.nodeId(bad);
+            assertTrue(nodeId >= 0 && nodeId < 1 << TransactionIdGenerator.NODE_BITS, bad + " -> " + nodeId);
+        }
+    }
+
+    @Test
+    void testIdsSortInGenerationOrderWithinAndAcrossMilliseconds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TransactionIdGenerator generator = new TransactionIdGenerator(7, clock::get);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(generator.next());
+            if (i % 100 == 0) {
+                clock.incrementAndGet();
+            }
+        }
+
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(ids.size(), Set.copyOf(ids).size());
+    }
+
+    @Test
+    void testStaysMonotonicWhenTheClockStepsBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TransactionIdGenerator generator = new TransactionIdGenerator(7, clock::get);
+
+        String before = generator.next();
+        clock.set(NOW - 5_000);
+        String after = generator.next();
+
+        assertTrue(after.compareTo(before) > 0, before + " < " + after);
+    }
+
+    @Test
+    void testNoDuplicatesAcrossThreads() throws InterruptedException {
+        TransactionIdGenerator generator = new TransactionIdGenerator(7, () -> NOW);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 10_000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.next());
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void testRejectsNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(-1, () -> NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransactionIdGenerator(1 << TransactionIdGenerator.NODE_BITS, () -> NOW));
+    }
+
+    @Test
+    void testAcceptsOnlySafeInboundIds() {
+        assertEquals("txn-1a2b", TransactionContext.acceptInbound("txn-1a2b"));
+        assertEquals("01JV3Z8K9QW2E0001A", TransactionContext.acceptInbound("01JV3Z8K9QW2E0001A"));
+        assertNull(TransactionContext.acceptInbound(null));
+        assertNull(TransactionContext.acceptInbound(""));
+        assertNull(TransactionContext.acceptInbound("txn\nFAKE LOG LINE"));
+        assertNull(TransactionContext.acceptInbound("x".repeat(65)));
+    }
+}
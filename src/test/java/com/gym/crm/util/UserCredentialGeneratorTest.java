@@ -7,8 +7,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.function.BiPredicate;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -26,34 +24,6 @@ class UserCredentialGeneratorTest {
         credentialGenerator = new UserCredentialGenerator(passwordService);
     }
     
-    @Test
-    void testGenerateUsername_WhenNoExistingUser_ShouldReturnBasicUsername() {
-        // Given
-        String firstName = "John";
-        String lastName = "Doe";
-        BiPredicate<String, String> noExistingUser = (f, l) -> false;
-        
-        // When
-        String username = credentialGenerator.generateUsername(firstName, lastName, noExistingUser);
-        
-        // Then
-        assertEquals("John.Doe", username);
-    }
-    
-    @Test
-    void testGenerateUsername_WhenExistingUser_ShouldReturnUsernameWithSerialNumber() {
-        // Given
-        String firstName = "John";
-        String lastName = "Doe";
-        BiPredicate<String, String> existingUser = (f, l) -> true;
-        
-        // When
-        String username = credentialGenerator.generateUsername(firstName, lastName, existingUser);
-        
-        // Then
-        assertEquals("John.Doe2", username);
-    }
-    
     @Test
     void testGeneratePassword_ShouldReturnPasswordWithCorrectLength() {
         // When
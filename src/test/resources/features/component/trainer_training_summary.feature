@@ -1,3 +1,4 @@
+@summary
 Feature: Update trainer training summary
 
   Scenario: Create a new trainer document when none exists